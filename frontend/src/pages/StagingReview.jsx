@@ -96,6 +96,8 @@ const ProductEditDialog = ({ open, product, onClose, onSave }) => {
   );
 };
 
+const PAGE_SIZE = 50;
+
 const StagingReview = () => {
   const [products, setProducts] = useState([]);
   const [loading, setLoading] = useState(true);
@@ -103,6 +105,9 @@ const StagingReview = () => {
   const [editDialogOpen, setEditDialogOpen] = useState(false);
   const [editingProduct, setEditingProduct] = useState(null);
   const [message, setMessage] = useState(null);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [estimatedTotal, setEstimatedTotal] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   useEffect(() => {
     loadProducts();
@@ -111,8 +116,10 @@ const StagingReview = () => {
   const loadProducts = async () => {
     setLoading(true);
     try {
-      const response = await stagingApi.getAllProducts(true); // pending only
-      setProducts(response.data);
+      const response = await stagingApi.listProducts({ status: 'PENDING', size: PAGE_SIZE });
+      setProducts(response.data.items);
+      setNextCursor(response.data.nextCursor);
+      setEstimatedTotal(response.data.estimatedTotal);
       setSelectedProducts([]);
     } catch (error) {
       setMessage({ type: 'error', text: 'Failed to load products' });
@@ -121,13 +128,32 @@ const StagingReview = () => {
     }
   };
 
+  const loadMore = async () => {
+    if (!nextCursor) return;
+
+    setLoadingMore(true);
+    try {
+      const response = await stagingApi.listProducts({
+        status: 'PENDING',
+        size: PAGE_SIZE,
+        cursor: nextCursor,
+      });
+      setProducts((prev) => [...prev, ...response.data.items]);
+      setNextCursor(response.data.nextCursor);
+    } catch (error) {
+      setMessage({ type: 'error', text: 'Failed to load more products' });
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleApprove = async (productId) => {
     try {
       await stagingApi.approveProduct(productId, 'admin', 'Approved via UI');
       setMessage({ type: 'success', text: 'Product approved successfully' });
       loadProducts();
     } catch (error) {
-      setMessage({ type: 'error', text: 'Failed to approve product' });
+      setMessage({ type: 'error', text: error.response?.data?.message || 'Failed to approve product' });
     }
   };
 
@@ -135,10 +161,13 @@ const StagingReview = () => {
     if (selectedProducts.length === 0) return;
 
     try {
-      await stagingApi.bulkApprove(selectedProducts, 'admin', 'Bulk approved via UI');
+      const response = await stagingApi.bulkApprove(selectedProducts, 'admin', 'Bulk approved via UI');
+      const { count, failed } = response.data;
       setMessage({
-        type: 'success',
-        text: `${selectedProducts.length} products approved successfully`,
+        type: failed > 0 ? 'warning' : 'success',
+        text: failed > 0
+          ? `${count} products approved, ${failed} could not be approved`
+          : `${count} products approved successfully`,
       });
       loadProducts();
     } catch (error) {
@@ -168,9 +197,15 @@ const StagingReview = () => {
     }
   };
 
-  const handleEdit = (product) => {
-    setEditingProduct(product);
-    setEditDialogOpen(true);
+  const handleEdit = async (product) => {
+    try {
+      // List rows only carry summary columns; load the full product for editing
+      const response = await stagingApi.getProduct(product.id);
+      setEditingProduct(response.data);
+      setEditDialogOpen(true);
+    } catch (error) {
+      setMessage({ type: 'error', text: 'Failed to load product' });
+    }
   };
 
   const handleSelectAll = (event) => {
@@ -200,7 +235,14 @@ const StagingReview = () => {
   return (
     <Box>
       <Box display="flex" justifyContent="space-between" alignItems="center" mb={3}>
-        <Typography variant="h4">Review Staging Products</Typography>
+        <Typography variant="h4">
+          Review Staging Products
+          {estimatedTotal > 0 && (
+            <Typography component="span" variant="subtitle1" color="textSecondary" sx={{ ml: 2 }}>
+              ~{estimatedTotal} pending
+            </Typography>
+          )}
+        </Typography>
         <Box display="flex" gap={2}>
           <Button
             variant="contained"
@@ -330,6 +372,13 @@ const StagingReview = () => {
                 ))}
               </TableBody>
             </Table>
+            {nextCursor && (
+              <Box display="flex" justifyContent="center" mt={2}>
+                <Button variant="outlined" onClick={loadMore} disabled={loadingMore}>
+                  {loadingMore ? 'Loading...' : 'Load More'}
+                </Button>
+              </Box>
+            )}
           </CardContent>
         </Card>
       )}
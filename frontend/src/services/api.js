@@ -10,9 +10,11 @@ const api = axios.create({
 });
 
 export const stagingApi = {
-  // Get all staging products
-  getAllProducts: (pendingOnly = false) =>
-    api.get(`/api/admin/staging?pendingOnly=${pendingOnly}`),
+  // List staging products one page at a time
+  // params: { status, websiteId, scrapeLogId, jobId, days, sort, direction, cursor, size }
+  // Only the last 90 days are listed unless days is given (days: 0 lists everything)
+  listProducts: (params = {}) =>
+    api.get('/api/admin/staging', { params }),
 
   // Get single staging product
   getProduct: (id) =>
@@ -0,0 +1,21 @@
+package com.smartguide.scraper.config;
+
+/**
+ * Request limits of the main service's extraction endpoint (/api/v1/extract), mirroring
+ * ProductExtractionRequest there; a request over either limit is rejected as a whole
+ */
+public final class ExtractionLimits {
+
+    /**
+     * Items accepted in one request
+     */
+    public static final int MAX_ITEMS = 20;
+
+    /**
+     * Characters of content accepted per item
+     */
+    public static final int MAX_CONTENT_CHARS = 8000;
+
+    private ExtractionLimits() {
+    }
+}
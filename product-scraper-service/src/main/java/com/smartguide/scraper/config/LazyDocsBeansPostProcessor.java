@@ -0,0 +1,44 @@
+package com.smartguide.scraper.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Marks the springdoc (API docs) beans lazy, so they are created by the first docs
+ * request rather than during startup
+ */
+@Component
+public class LazyDocsBeansPostProcessor implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private static final String DOCS_PACKAGE = "org.springdoc";
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        if (!environment.getProperty("app.startup.lazy-docs-beans", Boolean.class, true)) {
+            return;
+        }
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+            if (definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE || !definition.isSingleton()) {
+                continue;
+            }
+            Class<?> type = beanFactory.getType(beanName, false);
+            if (type != null && type.getPackageName().startsWith(DOCS_PACKAGE)
+                    && !SmartInitializingSingleton.class.isAssignableFrom(type)) {
+                definition.setLazyInit(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.smartguide.scraper.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for near-duplicate product detection
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.scraper.dedup")
+@Data
+public class NearDuplicateConfig {
+
+    private Boolean enabled = true;
+
+    /**
+     * Fingerprints differing in at most this many bits are near-duplicates (0-7)
+     */
+    private Integer maxHammingDistance = 3;
+
+    /**
+     * Products with fewer name/description/benefit features are not fingerprinted,
+     * since short texts collide too easily
+     */
+    private Integer minFeatures = 8;
+
+    /**
+     * How often the index is rebuilt from products and pending staging rows
+     */
+    private Long refreshIntervalMs = 1800000L;
+}
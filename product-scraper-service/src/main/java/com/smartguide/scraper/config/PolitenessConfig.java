@@ -0,0 +1,40 @@
+package com.smartguide.scraper.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for per-host rate limiting and robots.txt handling
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.scraper.politeness")
+@Data
+public class PolitenessConfig {
+
+    /**
+     * Product token matched against robots.txt User-agent groups
+     */
+    private String userAgent = "SmartGuideScraper";
+
+    /**
+     * Request rate per host when neither the site config nor robots.txt sets one
+     */
+    private Double defaultRequestsPerSecond = 1.0;
+
+    /**
+     * Requests a host may receive back to back after being idle
+     */
+    private Integer burst = 2;
+
+    private Boolean respectRobotsTxt = true;
+
+    private Long robotsCacheMinutes = 60L;
+
+    private Long robotsTimeoutMs = 5000L;
+
+    /**
+     * Upper bound on an honoured Crawl-delay, so one robots.txt cannot stall a job
+     */
+    private Double maxCrawlDelaySeconds = 30.0;
+}
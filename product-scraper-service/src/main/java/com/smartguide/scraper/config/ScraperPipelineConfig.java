@@ -0,0 +1,56 @@
+package com.smartguide.scraper.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the staged scraping pipeline
+ * (fetch -> extract -> enrich -> persist)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.scraper.pipeline")
+@Data
+@Slf4j
+public class ScraperPipelineConfig {
+
+    /**
+     * Number of browser pages fetching product pages in parallel
+     */
+    private Integer fetchConcurrency = 2;
+
+    /**
+     * Number of parallel LLM enrichment workers
+     */
+    private Integer enrichConcurrency = 4;
+
+    /**
+     * Maximum number of products sent to the LLM in a single extraction prompt
+     */
+    private Integer enrichBatchSize = 4;
+
+    /**
+     * Capacity of the bounded queues between stages
+     */
+    private Integer queueCapacity = 50;
+
+    /**
+     * Maximum time a partial batch waits for more products before it is flushed
+     */
+    private Integer persistFlushMillis = 500;
+
+    /**
+     * A larger batch would be rejected by the extraction endpoint, failing every enrichment
+     */
+    @PostConstruct
+    void clampEnrichBatchSize() {
+        int clamped = Math.max(1, Math.min(ExtractionLimits.MAX_ITEMS, enrichBatchSize != null ? enrichBatchSize : 1));
+        if (enrichBatchSize == null || clamped != enrichBatchSize) {
+            log.warn("app.scraper.pipeline.enrich-batch-size={} is outside 1..{}, using {}",
+                    enrichBatchSize, ExtractionLimits.MAX_ITEMS, clamped);
+            enrichBatchSize = clamped;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.smartguide.scraper.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for product page retries and the per-job failure budget
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.scraper.retry")
+@Data
+public class ScraperRetryConfig {
+
+    /**
+     * Retries per page when the site config has no options.retryCount
+     */
+    private Integer defaultRetryCount = 2;
+
+    /**
+     * First backoff; doubles with every further attempt
+     */
+    private Long baseDelayMs = 1000L;
+
+    private Long maxDelayMs = 30000L;
+
+    /**
+     * Retries allowed per job, as a share of the job's product URLs
+     */
+    private Double retryBudgetRatio = 0.2;
+
+    private Integer minRetryBudget = 5;
+
+    /**
+     * Share of finished pages that failed above which the job is aborted
+     */
+    private Double abortErrorRate = 0.5;
+
+    /**
+     * Finished pages needed before the error rate is checked
+     */
+    private Integer minPagesBeforeAbort = 10;
+}
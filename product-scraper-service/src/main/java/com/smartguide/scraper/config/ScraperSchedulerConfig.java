@@ -0,0 +1,31 @@
+package com.smartguide.scraper.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for scheduled scraping across sites
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.scraper.scheduler")
+@Data
+public class ScraperSchedulerConfig {
+
+    private Boolean enabled = true;
+
+    /**
+     * How often scrape_sources is checked for sites whose cron is due
+     */
+    private Long pollIntervalMs = 60000L;
+
+    /**
+     * Scrape jobs (sites) running in parallel
+     */
+    private Integer maxConcurrentJobs = 2;
+
+    /**
+     * Browser pages open at once across all jobs
+     */
+    private Integer maxBrowserPages = 4;
+}
@@ -0,0 +1,28 @@
+package com.smartguide.scraper.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for sitemap-based product URL discovery
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.scraper.discovery")
+@Data
+public class SitemapDiscoveryConfig {
+
+    private Boolean enabled = true;
+
+    private Long timeoutMs = 10000L;
+
+    /**
+     * Sitemaps (including those reached through sitemap indexes) read per job
+     */
+    private Integer maxSitemaps = 50;
+
+    /**
+     * Product URLs returned per job
+     */
+    private Integer maxUrls = 5000;
+}
@@ -1,7 +1,13 @@
 package com.smartguide.scraper.controller;
 
+import com.smartguide.scraper.config.StartupTimer;
 import com.smartguide.scraper.dto.ScrapeJobResponse;
 import com.smartguide.scraper.dto.TriggerScrapeRequest;
+import com.smartguide.scraper.service.BrowserPagePermits;
+import com.smartguide.scraper.service.ScrapeArchive;
+import com.smartguide.scraper.service.ScrapeArchiveStore;
+import com.smartguide.scraper.service.ScrapeBenchmarkService;
+import com.smartguide.scraper.service.ScrapeScheduler;
 import com.smartguide.scraper.service.ScraperConfigLoader;
 import com.smartguide.scraper.service.ScraperOrchestrationService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -28,15 +34,40 @@ public class ScraperController {
 
     private final ScraperOrchestrationService orchestrationService;
     private final ScraperConfigLoader configLoader;
+    private final ScrapeScheduler scrapeScheduler;
+    private final BrowserPagePermits browserPagePermits;
+    private final ScrapeArchiveStore archiveStore;
+    private final ScrapeBenchmarkService benchmarkService;
+    private final StartupTimer startupTimer;
 
     @PostMapping("/trigger/{websiteId}")
-    @Operation(summary = "Trigger scraping for a specific website")
-    public ResponseEntity<ScrapeJobResponse> triggerScrape(@PathVariable String websiteId) {
+    @Operation(summary = "Trigger scraping for a specific website; record=name saves its pages to an archive, replay=name serves them from one")
+    public ResponseEntity<ScrapeJobResponse> triggerScrape(
+            @PathVariable String websiteId,
+            @RequestParam(required = false) String record,
+            @RequestParam(required = false) String replay) {
         log.info("Received scrape request for website: {}", websiteId);
 
+        ScrapeArchive archive;
+        try {
+            if (record != null && replay != null) {
+                throw new IllegalArgumentException("record and replay cannot be combined");
+            }
+            archive = record != null ? archiveStore.forRecording(websiteId, record)
+                    : replay != null ? archiveStore.forReplay(websiteId, replay)
+                    : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ScrapeJobResponse.builder()
+                            .websiteId(websiteId)
+                            .status("FAILED")
+                            .message(e.getMessage())
+                            .build());
+        }
+
         // Execute scraping asynchronously
         CompletableFuture<String> future = CompletableFuture.supplyAsync(() ->
-                orchestrationService.executeScrapingJob(websiteId)
+                orchestrationService.executeScrapingJob(websiteId, archive)
         );
 
         // Return immediately with job ID
@@ -63,7 +94,7 @@ public class ScraperController {
     @Operation(summary = "Trigger scraping with custom configuration")
     public ResponseEntity<ScrapeJobResponse> triggerScrapeWithConfig(
             @RequestBody TriggerScrapeRequest request) {
-        return triggerScrape(request.getWebsiteId());
+        return triggerScrape(request.getWebsiteId(), null, null);
     }
 
     @GetMapping("/status/{jobId}")
@@ -76,8 +107,8 @@ public class ScraperController {
 
     @GetMapping("/sources")
     @Operation(summary = "Get all configured scrape sources")
-    public ResponseEntity<List<Object>> getAllSources() {
-        List<Object> sources = orchestrationService.getAllScrapeSources();
+    public ResponseEntity<List<Map<String, Object>>> getAllSources() {
+        List<Map<String, Object>> sources = orchestrationService.getAllScrapeSources();
         return ResponseEntity.ok(sources);
     }
 
@@ -93,27 +124,65 @@ public class ScraperController {
 
     @GetMapping("/history/{websiteId}")
     @Operation(summary = "Get scraping history for a website")
-    public ResponseEntity<List<Object>> getWebsiteHistory(@PathVariable String websiteId) {
-        List<Object> history = orchestrationService.getWebsiteScrapeHistory(websiteId);
+    public ResponseEntity<List<Map<String, Object>>> getWebsiteHistory(@PathVariable String websiteId) {
+        List<Map<String, Object>> history = orchestrationService.getWebsiteScrapeHistory(websiteId);
         return ResponseEntity.ok(history);
     }
 
     @PostMapping("/configs/reload")
     @Operation(summary = "Reload all scraper configurations")
     public ResponseEntity<Map<String, Object>> reloadConfigs() {
-        configLoader.reloadConfigs();
+        Map<String, List<String>> rejected = configLoader.reloadConfigs();
         Map<String, Object> response = new HashMap<>();
-        response.put("message", "Configurations reloaded successfully");
+        response.put("message", rejected.isEmpty()
+                ? "Configurations reloaded successfully"
+                : "Configurations reloaded; " + rejected.size() + " invalid files kept their previous version");
         response.put("count", configLoader.getAllConfigs().size());
+        response.put("rejected", rejected);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/archives/{websiteId}")
+    @Operation(summary = "List recorded scrape archives of a website")
+    public ResponseEntity<List<String>> listArchives(@PathVariable String websiteId) {
+        return ResponseEntity.ok(archiveStore.list(websiteId));
+    }
+
+    @PostMapping("/benchmark/{websiteId}")
+    @Operation(summary = "Measure fetch and extraction throughput by replaying a recorded archive")
+    public ResponseEntity<Map<String, Object>> benchmark(
+            @PathVariable String websiteId,
+            @RequestParam String archive,
+            @RequestParam(required = false, defaultValue = "3") int iterations,
+            @RequestParam(required = false) Integer concurrency) {
+        try {
+            return ResponseEntity.ok(benchmarkService.run(websiteId, archive, iterations, concurrency));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Benchmark interrupted", e);
+        }
+    }
+
+    @GetMapping("/scheduler")
+    @Operation(summary = "Get scheduled jobs in progress and free browser pages")
+    public ResponseEntity<Map<String, Object>> getSchedulerStatus() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("queuedSites", scrapeScheduler.getQueuedSites());
+        response.put("availableBrowserPages", browserPagePermits.available());
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/health")
     @Operation(summary = "Health check endpoint")
-    public ResponseEntity<Map<String, String>> health() {
-        Map<String, String> health = new HashMap<>();
+    public ResponseEntity<Map<String, Object>> health() {
+        Map<String, Object> health = new HashMap<>();
         health.put("status", "UP");
         health.put("service", "Product Scraper Service");
+        health.put("startup", startupTimer.timings());
         return ResponseEntity.ok(health);
     }
 }
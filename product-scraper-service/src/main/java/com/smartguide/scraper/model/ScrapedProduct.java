@@ -38,8 +38,12 @@ public class ScrapedProduct {
     private String sourceUrl;
     private BigDecimal dataQualityScore;
 
-    // Raw HTML content for AI enrichment
-    private String rawHtml;
+    // Near-duplicate detection (see NearDuplicateIndex)
+    private Long simhash;
+    private String nearDuplicateOf;
+
+    // Page content reduced to text (see HtmlTextReducer) for AI enrichment and review
+    private String pageText;
 
     // AI categorization fields
     private String aiSuggestedCategory;
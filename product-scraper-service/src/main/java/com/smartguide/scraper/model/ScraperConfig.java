@@ -3,6 +3,7 @@ package com.smartguide.scraper.model;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -16,6 +17,7 @@ public class ScraperConfig {
     private String websiteName;
     private String baseUrl;
     private NavigationConfig navigation;
+    private DiscoveryConfig discovery;
     private SelectorConfig selectors;
     private MappingConfig mapping;
     private ScraperOptions options;
@@ -27,9 +29,19 @@ public class ScraperConfig {
         private String productListUrl;
         private Integer maxPages;
         private String nextPageSelector;
+        private String pageUrlTemplate; // listing page URL with {page}; pages are fetched concurrently
+        private Boolean infiniteScroll; // scroll the listing until no new products load
         private Integer waitAfterLoad; // milliseconds
     }
 
+    @Data
+    @NoArgsConstructor
+    public static class DiscoveryConfig {
+        private List<String> sitemapUrls; // defaults to robots.txt Sitemap entries, then /sitemap.xml
+        private String urlPattern; // regex product URLs must match; sitemap discovery is off without it
+        private Boolean onlyChanged; // skip URLs whose lastmod is before the last scrape (default true)
+    }
+
     @Data
     @NoArgsConstructor
     public static class SelectorConfig {
@@ -67,6 +79,6 @@ public class ScraperConfig {
         private Boolean screenshot;
         private String screenshotPath;
         private Integer retryCount;
-        private Integer delayBetweenRequests; // milliseconds
+        private Integer delayBetweenRequests; // minimum interval between requests to the host, milliseconds
     }
 }
@@ -0,0 +1,33 @@
+package com.smartguide.scraper.service;
+
+import com.smartguide.scraper.config.ScraperSchedulerConfig;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Global cap on browser pages open at the same time, shared by every scrape job. Every
+ * holder runs one browser with one page and closes both before releasing its permit,
+ * so this also caps launched browsers.
+ */
+@Component
+public class BrowserPagePermits {
+
+    private final Semaphore permits;
+
+    public BrowserPagePermits(ScraperSchedulerConfig schedulerConfig) {
+        this.permits = new Semaphore(Math.max(1, schedulerConfig.getMaxBrowserPages()), true);
+    }
+
+    public void acquire() throws InterruptedException {
+        permits.acquire();
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int available() {
+        return permits.availablePermits();
+    }
+}
@@ -0,0 +1,62 @@
+package com.smartguide.scraper.service;
+
+import com.smartguide.scraper.config.PolitenessConfig;
+import com.smartguide.scraper.model.ScraperConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One token bucket per host, shared by every fetch worker and job that hits the host.
+ *
+ * The rate is the site's delayBetweenRequests (as a minimum interval) or the default
+ * rate, lowered further to honour a robots.txt Crawl-delay. When sites or jobs sharing a
+ * host ask for different limits, the bucket keeps the strictest one it has seen; it is
+ * lowered in place, never replaced, so its tokens are not reset.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class HostRateLimiter {
+
+    private final PolitenessConfig politenessConfig;
+    private final RobotsTxtService robotsTxtService;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Block until a request to the URL's host is allowed
+     */
+    public void acquire(String url, ScraperConfig config) throws InterruptedException {
+        String host = URI.create(url).getHost();
+        if (host == null) {
+            return;
+        }
+        Limit limit = limitFor(url, config);
+        TokenBucket bucket = buckets.computeIfAbsent(host.toLowerCase(),
+                key -> new TokenBucket(limit.permitsPerSecond(), limit.burst()));
+        bucket.lowerTo(limit.permitsPerSecond(), limit.burst());
+        bucket.acquire();
+    }
+
+    private Limit limitFor(String url, ScraperConfig config) {
+        Integer delayMillis = config.getOptions() != null ? config.getOptions().getDelayBetweenRequests() : null;
+        double rate = delayMillis != null && delayMillis > 0
+                ? 1000.0 / delayMillis
+                : politenessConfig.getDefaultRequestsPerSecond();
+
+        // Crawl-delay is a gap between requests, so it also rules out bursts
+        Double crawlDelay = robotsTxtService.getCrawlDelaySeconds(url);
+        if (crawlDelay != null && crawlDelay > 0 && 1.0 / crawlDelay <= rate) {
+            return new Limit(1.0 / crawlDelay, 1);
+        }
+        return new Limit(rate, politenessConfig.getBurst());
+    }
+
+    private record Limit(double permitsPerSecond, int burst) {
+    }
+}
@@ -0,0 +1,526 @@
+package com.smartguide.scraper.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reduces rendered HTML to compact, readable text for LLM prompts and storage.
+ *
+ * The HTML is scanned once, without building a DOM. Boilerplate (head, scripts,
+ * styles, navigation, headers, footers, cookie banners, forms...) is skipped, text is
+ * grouped into blocks at block-level elements, and link-heavy blocks such as menus are
+ * dropped. When the page marks its main content ({@code <main>}, {@code <article>} or
+ * {@code role="main"}), only blocks inside it are kept. Headings are emitted as
+ * {@code #} lines and list items as {@code -} lines.
+ *
+ * Elements are also skipped by class or id, but only when a whole class token (or the
+ * id) is a known boilerplate name, and never for the document structure (html, body,
+ * main, article) or any element enclosing the main content. If the filtered text is
+ * still empty, the page is reduced again with only non-text elements skipped, so a
+ * page is never lost to an over-eager filter.
+ */
+@Component
+public class HtmlTextReducer {
+
+    private static final Set<String> SKIPPED_ELEMENTS = Set.of(
+            "head", "script", "style", "noscript", "svg", "nav", "header", "footer", "aside",
+            "form", "iframe", "button", "select", "template", "canvas", "object", "dialog"
+    );
+
+    /**
+     * Elements that never hold page text; the only ones skipped by the unfiltered fallback
+     */
+    private static final Set<String> NON_TEXT_ELEMENTS = Set.of(
+            "head", "script", "style", "noscript", "svg", "template", "canvas", "object", "iframe"
+    );
+
+    /**
+     * Document structure, never skipped because of its class or id
+     */
+    private static final Set<String> STRUCTURAL_ELEMENTS = Set.of("html", "body", "main", "article");
+
+    private static final Set<String> RAW_TEXT_ELEMENTS = Set.of("script", "style", "textarea");
+
+    private static final Set<String> BLOCK_ELEMENTS = Set.of(
+            "p", "div", "section", "article", "main", "li", "ul", "ol", "dl", "dt", "dd",
+            "table", "thead", "tbody", "tr", "td", "th", "h1", "h2", "h3", "h4", "h5", "h6",
+            "br", "hr", "blockquote", "pre", "figure", "figcaption", "caption", "summary", "details"
+    );
+
+    private static final Set<String> VOID_ELEMENTS = Set.of(
+            "br", "hr", "img", "input", "meta", "link", "area", "base", "col", "embed",
+            "source", "track", "wbr", "param"
+    );
+
+    /**
+     * Class tokens and ids naming boilerplate; matched whole, so "has-sidebar" or
+     * "modal-open" do not match
+     */
+    private static final Set<String> BOILERPLATE_NAMES = Set.of(
+            "nav", "navbar", "navigation", "menu", "main-menu", "site-menu", "mega-menu",
+            "footer", "site-footer", "page-footer", "global-footer",
+            "cookie", "cookies", "cookie-banner", "cookie-consent", "cookie-notice", "cookie-bar",
+            "consent", "consent-banner", "gdpr-banner",
+            "breadcrumb", "breadcrumbs", "sidebar", "site-sidebar",
+            "social", "social-links", "social-share", "share", "share-buttons",
+            "popup", "modal", "newsletter", "newsletter-signup", "subscribe",
+            "skip-link", "skip-to-content", "disclaimer-bar"
+    );
+
+    private static final Pattern MAIN_LANDMARK = Pattern.compile(
+            "(?i)<(?:main|article)[\\s>/]|<[a-z][a-z0-9-]*\\s[^>]*\\brole\\s*=\\s*[\"']?main[\"'\\s/>]");
+
+    private static final Pattern ATTRIBUTE = Pattern.compile(
+            "(?i)\\b(class|id|role|aria-hidden)\\s*=\\s*(\"([^\"]*)\"|'([^']*)'|([^\\s>]+))");
+
+    private static final double MAX_LINK_DENSITY = 0.5;
+
+    /**
+     * Reduce an HTML document to text
+     */
+    public String reduce(String html) {
+        if (html == null || html.isEmpty()) {
+            return "";
+        }
+        String reduced = new Scan(html, false).run();
+        return reduced.isEmpty() ? new Scan(html, true).run() : reduced;
+    }
+
+    private enum BlockKind { TEXT, HEADING, LIST_ITEM }
+
+    private static final class Block {
+        final BlockKind kind;
+        final int headingLevel;
+        final String text;
+        final boolean inMain;
+
+        Block(BlockKind kind, int headingLevel, String text, boolean inMain) {
+            this.kind = kind;
+            this.headingLevel = headingLevel;
+            this.text = text;
+            this.inMain = inMain;
+        }
+    }
+
+    private static final class OpenElement {
+        final String name;
+        final boolean main;
+
+        OpenElement(String name, boolean main) {
+            this.name = name;
+            this.main = main;
+        }
+    }
+
+    /**
+     * Single-use scanner state for one document
+     */
+    private static final class Scan {
+        private final String html;
+        private final int length;
+        private final boolean unfiltered;
+        // Start of the first main landmark, or -1
+        private final int mainStart;
+        private int pos;
+
+        private final Deque<OpenElement> openElements = new ArrayDeque<>();
+        private final List<Block> blocks = new ArrayList<>();
+        private int mainDepth;
+        private int linkDepth;
+
+        private final StringBuilder text = new StringBuilder();
+        private int linkChars;
+        private BlockKind kind = BlockKind.TEXT;
+        private int headingLevel;
+        private boolean pendingSpace;
+
+        Scan(String html, boolean unfiltered) {
+            this.html = html;
+            this.length = html.length();
+            this.unfiltered = unfiltered;
+            Matcher landmark = MAIN_LANDMARK.matcher(html);
+            this.mainStart = !unfiltered && landmark.find() ? landmark.start() : -1;
+        }
+
+        String run() {
+            while (pos < length) {
+                char c = html.charAt(pos);
+                if (c == '<') {
+                    readMarkup();
+                } else {
+                    int next = html.indexOf('<', pos);
+                    if (next < 0) {
+                        next = length;
+                    }
+                    appendText(html, pos, next);
+                    pos = next;
+                }
+            }
+            flushBlock();
+            return render();
+        }
+
+        private void readMarkup() {
+            if (html.startsWith("<!--", pos)) {
+                int end = html.indexOf("-->", pos + 4);
+                pos = end < 0 ? length : end + 3;
+                return;
+            }
+            if (pos + 1 < length && (html.charAt(pos + 1) == '!' || html.charAt(pos + 1) == '?')) {
+                int end = html.indexOf('>', pos);
+                pos = end < 0 ? length : end + 1;
+                return;
+            }
+
+            boolean closing = pos + 1 < length && html.charAt(pos + 1) == '/';
+            int nameStart = pos + (closing ? 2 : 1);
+            int nameEnd = nameStart;
+            while (nameEnd < length && isNameChar(html.charAt(nameEnd))) {
+                nameEnd++;
+            }
+            if (nameEnd == nameStart) {
+                // A bare '<' in text
+                appendText("<", 0, 1);
+                pos++;
+                return;
+            }
+            String name = html.substring(nameStart, nameEnd).toLowerCase();
+            int tagEnd = findTagEnd(nameEnd);
+            String attributes = html.substring(nameEnd, Math.max(nameEnd, tagEnd));
+            pos = tagEnd < length ? tagEnd + 1 : length;
+
+            if (closing) {
+                closeElement(name);
+            } else {
+                boolean selfClosing = attributes.endsWith("/");
+                openElement(name, attributes, selfClosing);
+            }
+        }
+
+        private void openElement(String name, String attributes, boolean selfClosing) {
+            boolean isVoid = VOID_ELEMENTS.contains(name) || selfClosing;
+            if (!isVoid && shouldSkip(name, attributes)) {
+                skipElement(name);
+                return;
+            }
+
+            if (BLOCK_ELEMENTS.contains(name)) {
+                flushBlock();
+                if (name.length() == 2 && name.charAt(0) == 'h' && Character.isDigit(name.charAt(1))) {
+                    kind = BlockKind.HEADING;
+                    headingLevel = name.charAt(1) - '0';
+                } else if ("li".equals(name)) {
+                    kind = BlockKind.LIST_ITEM;
+                }
+            } else if ("a".equals(name) && !isVoid) {
+                linkDepth++;
+            }
+
+            if (!isVoid) {
+                boolean main = "main".equals(name) || "article".equals(name) || hasMainRole(attributes);
+                if (main) {
+                    mainDepth++;
+                }
+                openElements.push(new OpenElement(name, main));
+            }
+        }
+
+        private boolean shouldSkip(String name, String attributes) {
+            if (unfiltered) {
+                return NON_TEXT_ELEMENTS.contains(name);
+            }
+            // A <header> inside the main content usually holds the product title
+            if (SKIPPED_ELEMENTS.contains(name)) {
+                return !("header".equals(name) && mainDepth > 0);
+            }
+            if (STRUCTURAL_ELEMENTS.contains(name) || !isBoilerplate(attributes)) {
+                return false;
+            }
+            return !enclosesMain(name);
+        }
+
+        /**
+         * Whether the element just opened (pos is past its start tag) contains the main landmark
+         */
+        private boolean enclosesMain(String name) {
+            if (mainStart < 0 || mainStart < pos) {
+                return false;
+            }
+            int start = pos;
+            skipElement(name);
+            boolean encloses = pos > mainStart;
+            pos = start;
+            return encloses;
+        }
+
+        private void closeElement(String name) {
+            if (BLOCK_ELEMENTS.contains(name)) {
+                flushBlock();
+            } else if ("a".equals(name) && linkDepth > 0) {
+                linkDepth--;
+            }
+
+            boolean found = openElements.stream().anyMatch(e -> e.name.equals(name));
+            if (!found) {
+                return;
+            }
+            while (!openElements.isEmpty()) {
+                OpenElement element = openElements.pop();
+                if (element.main) {
+                    mainDepth--;
+                }
+                if (element.name.equals(name)) {
+                    break;
+                }
+            }
+        }
+
+        /**
+         * Skip to the end of an element, honouring nested elements of the same name
+         */
+        private void skipElement(String name) {
+            if (RAW_TEXT_ELEMENTS.contains(name)) {
+                int end = indexOfIgnoreCase("</" + name, pos);
+                pos = end < 0 ? length : Math.min(length, skipPast('>', end));
+                return;
+            }
+
+            int depth = 1;
+            while (depth > 0 && pos < length) {
+                int next = html.indexOf('<', pos);
+                if (next < 0) {
+                    pos = length;
+                    return;
+                }
+                pos = next;
+                if (html.startsWith("<!--", pos)) {
+                    int end = html.indexOf("-->", pos + 4);
+                    pos = end < 0 ? length : end + 3;
+                    continue;
+                }
+                boolean closing = pos + 1 < length && html.charAt(pos + 1) == '/';
+                int nameStart = pos + (closing ? 2 : 1);
+                if (html.regionMatches(true, nameStart, name, 0, name.length())
+                        && (nameStart + name.length() >= length || !isNameChar(html.charAt(nameStart + name.length())))) {
+                    int tagEnd = findTagEnd(nameStart + name.length());
+                    boolean selfClosing = tagEnd > 0 && tagEnd < length && html.charAt(tagEnd - 1) == '/';
+                    if (closing) {
+                        depth--;
+                    } else if (!selfClosing) {
+                        depth++;
+                    }
+                    pos = tagEnd < length ? tagEnd + 1 : length;
+                } else {
+                    pos++;
+                }
+            }
+        }
+
+        private void appendText(String source, int from, int to) {
+            String decoded = decodeEntities(source, from, to);
+            for (int i = 0; i < decoded.length(); i++) {
+                char c = decoded.charAt(i);
+                if (Character.isWhitespace(c) || c == '\u00a0') {
+                    pendingSpace = text.length() > 0;
+                } else {
+                    if (pendingSpace) {
+                        text.append(' ');
+                        pendingSpace = false;
+                    }
+                    text.append(c);
+                    if (linkDepth > 0) {
+                        linkChars++;
+                    }
+                }
+            }
+        }
+
+        private void flushBlock() {
+            if (text.length() > 1) {
+                boolean linkHeavy = !unfiltered && kind != BlockKind.HEADING
+                        && (double) linkChars / text.length() > MAX_LINK_DENSITY;
+                if (!linkHeavy) {
+                    blocks.add(new Block(kind, headingLevel, text.toString(), mainDepth > 0));
+                }
+            }
+            text.setLength(0);
+            linkChars = 0;
+            pendingSpace = false;
+            kind = BlockKind.TEXT;
+            headingLevel = 0;
+        }
+
+        private String render() {
+            boolean hasMain = !unfiltered && blocks.stream().anyMatch(b -> b.inMain);
+            StringBuilder out = new StringBuilder();
+            String previous = null;
+            for (Block block : blocks) {
+                if (hasMain && !block.inMain) {
+                    continue;
+                }
+                if (block.text.equals(previous)) {
+                    continue;
+                }
+                previous = block.text;
+                if (out.length() > 0) {
+                    out.append('\n');
+                }
+                switch (block.kind) {
+                    case HEADING -> out.append("#".repeat(Math.max(1, Math.min(6, block.headingLevel)))).append(' ');
+                    case LIST_ITEM -> out.append("- ");
+                    default -> { }
+                }
+                out.append(block.text);
+            }
+            return out.toString();
+        }
+
+        private int findTagEnd(int from) {
+            char quote = 0;
+            for (int i = from; i < length; i++) {
+                char c = html.charAt(i);
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '"' || c == '\'') {
+                    quote = c;
+                } else if (c == '>') {
+                    return i;
+                }
+            }
+            return length;
+        }
+
+        private int skipPast(char c, int from) {
+            int end = html.indexOf(c, from);
+            return end < 0 ? length : end + 1;
+        }
+
+        private int indexOfIgnoreCase(String needle, int from) {
+            for (int i = from; i <= length - needle.length(); i++) {
+                if (html.regionMatches(true, i, needle, 0, needle.length())) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '-' || c == ':';
+    }
+
+    private static boolean isBoilerplate(String attributes) {
+        Matcher matcher = ATTRIBUTE.matcher(attributes);
+        while (matcher.find()) {
+            String attribute = matcher.group(1).toLowerCase();
+            String value = attributeValue(matcher);
+            if ("aria-hidden".equals(attribute)) {
+                if ("true".equalsIgnoreCase(value)) {
+                    return true;
+                }
+            } else if ("role".equals(attribute)) {
+                if (value.matches("(?i)navigation|banner|contentinfo|complementary|dialog")) {
+                    return true;
+                }
+            } else if ("id".equals(attribute)) {
+                if (BOILERPLATE_NAMES.contains(value.trim().toLowerCase())) {
+                    return true;
+                }
+            } else {
+                for (String token : value.trim().toLowerCase().split("\\s+")) {
+                    if (BOILERPLATE_NAMES.contains(token)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasMainRole(String attributes) {
+        Matcher matcher = ATTRIBUTE.matcher(attributes);
+        while (matcher.find()) {
+            if ("role".equalsIgnoreCase(matcher.group(1)) && "main".equalsIgnoreCase(attributeValue(matcher))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String attributeValue(Matcher matcher) {
+        for (int group = 3; group <= 5; group++) {
+            if (matcher.group(group) != null) {
+                return matcher.group(group);
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Decode the common named entities and numeric character references
+     */
+    private static String decodeEntities(String source, int from, int to) {
+        int amp = source.indexOf('&', from);
+        if (amp < 0 || amp >= to) {
+            return source.substring(from, to);
+        }
+        StringBuilder out = new StringBuilder(to - from);
+        int i = from;
+        while (i < to) {
+            char c = source.charAt(i);
+            if (c == '&') {
+                int semicolon = source.indexOf(';', i);
+                if (semicolon > i && semicolon < to && semicolon - i <= 10) {
+                    String entity = source.substring(i + 1, semicolon);
+                    String decoded = decodeEntity(entity);
+                    if (decoded != null) {
+                        out.append(decoded);
+                        i = semicolon + 1;
+                        continue;
+                    }
+                }
+            }
+            out.append(c);
+            i++;
+        }
+        return out.toString();
+    }
+
+    private static String decodeEntity(String entity) {
+        switch (entity) {
+            case "amp": return "&";
+            case "lt": return "<";
+            case "gt": return ">";
+            case "quot": return "\"";
+            case "apos": return "'";
+            case "nbsp": return " ";
+            case "ndash": return "\u2013";
+            case "mdash": return "\u2014";
+            case "rsquo": return "\u2019";
+            case "lsquo": return "\u2018";
+            case "hellip": return "\u2026";
+            default:
+                break;
+        }
+        if (entity.startsWith("#")) {
+            try {
+                int codePoint = entity.startsWith("#x") || entity.startsWith("#X")
+                        ? Integer.parseInt(entity.substring(2), 16)
+                        : Integer.parseInt(entity.substring(1));
+                return new String(Character.toChars(codePoint));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
@@ -2,7 +2,9 @@ package com.smartguide.scraper.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartguide.scraper.config.ExtractionLimits;
 import com.smartguide.scraper.model.ScrapedProduct;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,6 +12,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,28 +32,80 @@ public class LLMDataEnricher {
     @Value("${app.main-service.url:http://localhost:8080}")
     private String mainServiceUrl;
 
+    @Value("${app.enrichment.max-content-chars:1500}")
+    private int maxContentChars;
+
+    @Value("${app.enrichment.timeout-ms:120000}")
+    private long timeoutMs;
+
+    private WebClient webClient;
+
+    @PostConstruct
+    void initWebClient() {
+        this.webClient = webClientBuilder.clone().baseUrl(mainServiceUrl).build();
+
+        // Longer content would get the whole batch rejected by the extraction endpoint
+        int clamped = Math.max(1, Math.min(ExtractionLimits.MAX_CONTENT_CHARS, maxContentChars));
+        if (clamped != maxContentChars) {
+            log.warn("app.enrichment.max-content-chars={} is outside 1..{}, using {}",
+                    maxContentChars, ExtractionLimits.MAX_CONTENT_CHARS, clamped);
+            maxContentChars = clamped;
+        }
+    }
+
     /**
      * Enrich product data using LLM to parse unstructured content
      */
     public ScrapedProduct enrichProduct(ScrapedProduct product) {
-        if (product.getRawHtml() == null || product.getRawHtml().isEmpty()) {
-            log.warn("No raw HTML available for enrichment");
-            return product;
+        enrichProducts(List.of(product));
+        return product;
+    }
+
+    /**
+     * Enrich a batch of products with a single call to the main service extraction
+     * endpoint. Products carry their page already reduced to text, so several of
+     * them fit in one prompt.
+     */
+    public void enrichProducts(List<ScrapedProduct> products) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        Map<String, ScrapedProduct> productsById = new HashMap<>();
+
+        for (int i = 0; i < products.size(); i++) {
+            ScrapedProduct product = products.get(i);
+            if (product.getPageText() == null || product.getPageText().isEmpty()) {
+                log.warn("No page text available for enrichment: {}", product.getSourceUrl());
+                continue;
+            }
+            String id = String.valueOf(i);
+            Map<String, Object> item = new HashMap<>();
+            item.put("id", id);
+            item.put("sourceUrl", product.getSourceUrl());
+            item.put("content", buildEnrichmentContent(product));
+            items.add(item);
+            productsById.put(id, product);
         }
 
         try {
-            String prompt = buildEnrichmentPrompt(product);
-            String llmResponse = callLLMService(prompt);
-
-            // Parse LLM response and update product
-            updateProductFromLLMResponse(product, llmResponse);
-
-            log.info("Successfully enriched product: {}", product.getProductName());
+            if (!items.isEmpty()) {
+                JsonNode response = callExtractionService(items);
+
+                // Parse LLM response and update products
+                for (JsonNode extracted : response.path("products")) {
+                    ScrapedProduct product = productsById.get(extracted.path("id").asText());
+                    if (product != null) {
+                        updateProductFromLLMResponse(product, extracted);
+                    }
+                }
+                log.info("Successfully enriched {} products", items.size());
+            }
         } catch (Exception e) {
-            log.error("Failed to enrich product with LLM", e);
+            log.error("Failed to enrich {} products with LLM", items.size(), e);
+        } finally {
+            // Calculate and set quality score
+            for (ScrapedProduct product : products) {
+                product.setDataQualityScore(calculateQualityScore(product));
+            }
         }
-
-        return product;
     }
 
     /**
@@ -79,50 +135,27 @@ public class LLMDataEnricher {
     }
 
     /**
-     * Build prompt for LLM enrichment
+     * Build the page content sent for LLM enrichment
      */
-    private String buildEnrichmentPrompt(ScrapedProduct product) {
-        StringBuilder prompt = new StringBuilder();
-        prompt.append("Extract and structure banking product information from the following HTML content.\n\n");
-        prompt.append("Product URL: ").append(product.getSourceUrl()).append("\n\n");
-        prompt.append("Please extract the following fields in JSON format:\n");
-        prompt.append("- productName: Full name of the product\n");
-        prompt.append("- productCode: Product code or identifier\n");
-        prompt.append("- category: Product category (e.g., CREDIT_CARD, FINANCING, SAVINGS, etc.)\n");
-        prompt.append("- subCategory: Sub-category if applicable\n");
-        prompt.append("- description: Brief description of the product\n");
-        prompt.append("- islamicStructure: Islamic finance structure (e.g., Murabaha, Tawarruq, Musharaka)\n");
-        prompt.append("- annualRate: Annual rate/profit rate as a number\n");
-        prompt.append("- annualFee: Annual fee as a number\n");
-        prompt.append("- minIncome: Minimum income requirement as a number\n");
-        prompt.append("- minCreditScore: Minimum credit score as a number\n");
-        prompt.append("- keyBenefits: List of key benefits/features\n");
-        prompt.append("- shariaCertified: true if Sharia-compliant\n\n");
-        prompt.append("HTML Content (truncated to first 2000 chars):\n");
-        prompt.append(product.getRawHtml().substring(0, Math.min(2000, product.getRawHtml().length())));
-
-        return prompt.toString();
+    private String buildEnrichmentContent(ScrapedProduct product) {
+        String text = product.getPageText();
+        return text.substring(0, Math.min(maxContentChars, text.length()));
     }
 
     /**
-     * Call the main service LLM API
+     * Call the main service structured extraction API
      */
-    private String callLLMService(String prompt) {
-        WebClient webClient = webClientBuilder.baseUrl(mainServiceUrl).build();
-
-        Map<String, Object> request = new HashMap<>();
-        request.put("userQuery", prompt);
-        request.put("userContext", Map.of());
-
+    private JsonNode callExtractionService(List<Map<String, Object>> items) {
         try {
             String response = webClient.post()
-                    .uri("/api/recommendations")
-                    .bodyValue(request)
+                    .uri("/api/v1/extract")
+                    .bodyValue(Map.of("items", items))
                     .retrieve()
                     .bodyToMono(String.class)
+                    .timeout(Duration.ofMillis(timeoutMs))
                     .block();
 
-            return response;
+            return objectMapper.readTree(response);
         } catch (Exception e) {
             log.error("Failed to call LLM service", e);
             throw new RuntimeException("LLM service call failed", e);
@@ -132,38 +165,54 @@ public class LLMDataEnricher {
     /**
      * Update product fields from LLM response
      */
-    private void updateProductFromLLMResponse(ScrapedProduct product, String llmResponse) {
+    private void updateProductFromLLMResponse(ScrapedProduct product, JsonNode jsonNode) {
         try {
-            JsonNode jsonNode = objectMapper.readTree(llmResponse);
-
-            if (jsonNode.has("productName") && product.getProductName() == null) {
+            if (hasText(jsonNode, "productName") && product.getProductName() == null) {
                 product.setProductName(jsonNode.get("productName").asText());
             }
-            if (jsonNode.has("productCode") && product.getProductCode() == null) {
+            if (hasText(jsonNode, "productCode") && product.getProductCode() == null) {
                 product.setProductCode(jsonNode.get("productCode").asText());
             }
-            if (jsonNode.has("category") && product.getCategory() == null) {
+            if (hasText(jsonNode, "category") && product.getCategory() == null) {
                 product.setCategory(jsonNode.get("category").asText());
             }
-            if (jsonNode.has("description") && product.getDescription() == null) {
+            if (hasText(jsonNode, "subCategory") && product.getSubCategory() == null) {
+                product.setSubCategory(jsonNode.get("subCategory").asText());
+            }
+            if (hasText(jsonNode, "description") && product.getDescription() == null) {
                 product.setDescription(jsonNode.get("description").asText());
             }
-            if (jsonNode.has("islamicStructure") && product.getIslamicStructure() == null) {
+            if (hasText(jsonNode, "islamicStructure") && product.getIslamicStructure() == null) {
                 product.setIslamicStructure(jsonNode.get("islamicStructure").asText());
             }
-            if (jsonNode.has("keyBenefits") && (product.getKeyBenefits() == null || product.getKeyBenefits().isEmpty())) {
+            if (jsonNode.path("annualRate").isNumber() && product.getAnnualRate() == null) {
+                product.setAnnualRate(jsonNode.get("annualRate").decimalValue());
+            }
+            if (jsonNode.path("annualFee").isNumber() && product.getAnnualFee() == null) {
+                product.setAnnualFee(jsonNode.get("annualFee").decimalValue());
+            }
+            if (jsonNode.path("minIncome").isNumber() && product.getMinIncome() == null) {
+                product.setMinIncome(jsonNode.get("minIncome").decimalValue());
+            }
+            if (jsonNode.path("minCreditScore").isNumber() && product.getMinCreditScore() == null) {
+                product.setMinCreditScore(jsonNode.get("minCreditScore").asInt());
+            }
+            if (jsonNode.path("shariaCertified").isBoolean() && product.getShariaCertified() == null) {
+                product.setShariaCertified(jsonNode.get("shariaCertified").asBoolean());
+            }
+            if (jsonNode.path("keyBenefits").isArray() && (product.getKeyBenefits() == null || product.getKeyBenefits().isEmpty())) {
                 List<String> benefits = objectMapper.convertValue(
                         jsonNode.get("keyBenefits"),
                         objectMapper.getTypeFactory().constructCollectionType(List.class, String.class)
                 );
                 product.setKeyBenefits(benefits);
             }
-
-            // Calculate and set quality score
-            product.setDataQualityScore(calculateQualityScore(product));
-
         } catch (Exception e) {
             log.error("Failed to parse LLM response", e);
         }
     }
+
+    private boolean hasText(JsonNode node, String field) {
+        return node.hasNonNull(field) && !node.get(field).asText().isBlank();
+    }
 }
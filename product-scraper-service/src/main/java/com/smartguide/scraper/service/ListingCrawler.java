@@ -0,0 +1,308 @@
+package com.smartguide.scraper.service;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.options.LoadState;
+import com.smartguide.scraper.model.ScraperConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects product URLs from a site's listing pages, up to navigation.maxPages pages.
+ *
+ * Three ways through the listing are supported, chosen by the navigation config:
+ * <ul>
+ *   <li>pageUrlTemplate: listing pages are independent ({page} is replaced by 1..maxPages)
+ *       and are fetched concurrently</li>
+ *   <li>infiniteScroll: one page is scrolled until no new products appear</li>
+ *   <li>nextPageSelector: the next link or button is followed page by page</li>
+ * </ul>
+ * Each listing page is read with a single in-page evaluation, and URLs are canonicalized
+ * and deduplicated in listing order before any product page is visited.
+ * With a {@link ScrapeArchive} the listing pages are recorded, or replayed without
+ * robots.txt checks or rate limiting.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ListingCrawler {
+
+    private static final String PAGE_PLACEHOLDER = "{page}";
+
+    /**
+     * Resolved href of each product item's link (or of the item itself when it is the link)
+     */
+    private static final String COLLECT_HREFS_SCRIPT = """
+            (items, linkSelector) => items.map(item => {
+                const link = !linkSelector || item.matches(linkSelector) ? item : item.querySelector(linkSelector);
+                return link && link.href ? link.href : null;
+            })
+            """;
+
+    /**
+     * href of the next page link, '' when the control has no href (click it), null at the end
+     */
+    private static final String NEXT_PAGE_SCRIPT = """
+            selector => {
+                const next = document.querySelector(selector);
+                if (!next || next.disabled || next.getAttribute('aria-disabled') === 'true'
+                        || next.classList.contains('disabled')) {
+                    return null;
+                }
+                return next.href || '';
+            }
+            """;
+
+    private static final String SCROLL_TO_BOTTOM_SCRIPT = "() => window.scrollTo(0, document.body.scrollHeight)";
+
+    private static final int DEFAULT_SCROLL_WAIT_MS = 1000;
+
+    private final HostRateLimiter hostRateLimiter;
+    private final RobotsTxtService robotsTxtService;
+    private final BrowserPagePermits browserPagePermits;
+
+    /**
+     * Collect canonical product URLs in listing order, using up to {@code concurrency}
+     * browser pages when listing pages are independent
+     */
+    public List<String> collectProductUrls(ScraperConfig config, int concurrency) throws InterruptedException {
+        return collectProductUrls(config, concurrency, null);
+    }
+
+    /**
+     * Collect product URLs, recording the listing pages to or replaying them from the archive
+     */
+    public List<String> collectProductUrls(ScraperConfig config, int concurrency, ScrapeArchive archive)
+            throws InterruptedException {
+        ScraperConfig.NavigationConfig navigation = config.getNavigation();
+        int maxPages = navigation.getMaxPages() != null && navigation.getMaxPages() > 0 ? navigation.getMaxPages() : 1;
+
+        Set<String> urls;
+        if (navigation.getPageUrlTemplate() != null && navigation.getPageUrlTemplate().contains(PAGE_PLACEHOLDER)) {
+            urls = crawlTemplatePages(config, maxPages, concurrency, archive);
+        } else {
+            urls = withPage(config, archive, page -> Boolean.TRUE.equals(navigation.getInfiniteScroll())
+                    ? crawlInfiniteScroll(page, config, maxPages, archive)
+                    : crawlNextPages(page, config, maxPages, archive));
+        }
+        return new ArrayList<>(urls);
+    }
+
+    private Set<String> crawlTemplatePages(ScraperConfig config, int maxPages, int concurrency,
+                                           ScrapeArchive archive) throws InterruptedException {
+        // Each worker writes only its own page slots; Future.get() publishes them
+        List<List<String>> pageResults = new ArrayList<>(Collections.nCopies(maxPages, List.<String>of()));
+        AtomicInteger nextPage = new AtomicInteger(1);
+        int workers = Math.max(1, Math.min(concurrency, maxPages));
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                futures.add(pool.submit(() -> withPage(config, archive, page -> {
+                    int pageNumber;
+                    while ((pageNumber = nextPage.getAndIncrement()) <= maxPages) {
+                        String url = config.getNavigation().getPageUrlTemplate()
+                                .replace(PAGE_PLACEHOLDER, String.valueOf(pageNumber));
+                        if (navigate(page, url, config, archive)) {
+                            pageResults.set(pageNumber - 1, collectHrefs(page, config));
+                        }
+                    }
+                    return null;
+                })));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof InterruptedException) {
+                        throw (InterruptedException) e.getCause();
+                    }
+                    log.error("Listing worker failed for website: {}", config.getWebsiteId(), e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Set<String> urls = new LinkedHashSet<>();
+        pageResults.forEach(urls::addAll);
+        log.info("Collected {} product URLs from {} listing pages", urls.size(), maxPages);
+        return urls;
+    }
+
+    private Set<String> crawlNextPages(Page page, ScraperConfig config, int maxPages, ScrapeArchive archive)
+            throws InterruptedException {
+        Set<String> urls = new LinkedHashSet<>();
+        Set<String> visited = new HashSet<>();
+        String nextSelector = config.getNavigation().getNextPageSelector();
+
+        if (!navigate(page, listingStartUrl(config), config, archive)) {
+            return urls;
+        }
+        for (int pageNumber = 1; pageNumber <= maxPages; pageNumber++) {
+            visited.add(UrlCanonicalizer.canonicalize(page.url()));
+            urls.addAll(collectHrefs(page, config));
+            if (pageNumber == maxPages || nextSelector == null || nextSelector.isBlank()) {
+                break;
+            }
+
+            String nextHref;
+            try {
+                nextHref = (String) page.evaluate(NEXT_PAGE_SCRIPT, nextSelector);
+                if (nextHref != null && nextHref.isEmpty()) {
+                    // Script-driven pager: click and wait for the new page content
+                    throttle(page.url(), config, archive);
+                    page.click(nextSelector);
+                    page.waitForLoadState();
+                    PlaywrightPages.waitAfterLoad(page, config, archive);
+                }
+            } catch (PlaywrightException e) {
+                // Keep what the earlier pages yielded rather than failing the whole listing
+                log.warn("Pager failed after listing page {} of {}: {}", pageNumber, config.getWebsiteId(), e.getMessage());
+                break;
+            }
+            if (nextHref == null) {
+                break;
+            }
+            if (!nextHref.isEmpty() && (visited.contains(UrlCanonicalizer.canonicalize(nextHref))
+                    || !navigate(page, nextHref, config, archive))) {
+                break;
+            }
+        }
+        log.info("Collected {} product URLs from {} listing pages", urls.size(), visited.size());
+        return urls;
+    }
+
+    private Set<String> crawlInfiniteScroll(Page page, ScraperConfig config, int maxPages, ScrapeArchive archive)
+            throws InterruptedException {
+        if (!navigate(page, listingStartUrl(config), config, archive)) {
+            return new LinkedHashSet<>();
+        }
+        String productList = config.getSelectors().getProductList();
+        int waitMs = config.getNavigation().getWaitAfterLoad() != null
+                ? config.getNavigation().getWaitAfterLoad()
+                : DEFAULT_SCROLL_WAIT_MS;
+
+        int loads = 1;
+        try {
+            int itemCount = page.locator(productList).count();
+            while (loads < maxPages) {
+                throttle(page.url(), config, archive);
+                page.evaluate(SCROLL_TO_BOTTOM_SCRIPT);
+                if (archive != null && archive.isReplay()) {
+                    page.waitForLoadState(LoadState.NETWORKIDLE);
+                } else {
+                    page.waitForTimeout(waitMs);
+                }
+                int newCount = page.locator(productList).count();
+                if (newCount <= itemCount) {
+                    break;
+                }
+                itemCount = newCount;
+                loads++;
+            }
+        } catch (PlaywrightException e) {
+            // Keep the items already loaded
+            log.warn("Scroll loading failed after {} loads of {}: {}", loads, config.getWebsiteId(), e.getMessage());
+        }
+
+        Set<String> urls = new LinkedHashSet<>(collectHrefs(page, config));
+        log.info("Collected {} product URLs after {} scroll loads", urls.size(), loads);
+        return urls;
+    }
+
+    /**
+     * All product hrefs on the current page in one evaluation, canonicalized
+     */
+    @SuppressWarnings("unchecked")
+    private List<String> collectHrefs(Page page, ScraperConfig config) {
+        List<String> urls = new ArrayList<>();
+        try {
+            List<Object> hrefs = (List<Object>) page.evalOnSelectorAll(
+                    config.getSelectors().getProductList(), COLLECT_HREFS_SCRIPT, config.getSelectors().getProductLink());
+            for (Object href : hrefs) {
+                String canonical = href instanceof String ? UrlCanonicalizer.canonicalize((String) href) : null;
+                if (canonical != null) {
+                    urls.add(canonical);
+                }
+            }
+        } catch (PlaywrightException e) {
+            log.error("Failed to extract product URLs from {}", page.url(), e);
+        }
+        return urls;
+    }
+
+    private boolean navigate(Page page, String url, ScraperConfig config, ScrapeArchive archive)
+            throws InterruptedException {
+        boolean replay = archive != null && archive.isReplay();
+        if (!replay && !robotsTxtService.isAllowed(url)) {
+            log.warn("Listing page disallowed by robots.txt: {}", url);
+            return false;
+        }
+        throttle(url, config, archive);
+        try {
+            log.info("Navigating to: {}", url);
+            page.navigate(url);
+            PlaywrightPages.waitAfterLoad(page, config, archive);
+            return true;
+        } catch (PlaywrightException e) {
+            log.error("Failed to load listing page: {}", url, e);
+            return false;
+        }
+    }
+
+    /**
+     * Wait for the host's rate limiter, except when replaying (no request leaves the machine)
+     */
+    private void throttle(String url, ScraperConfig config, ScrapeArchive archive) throws InterruptedException {
+        if (archive == null || !archive.isReplay()) {
+            hostRateLimiter.acquire(url, config);
+        }
+    }
+
+    private String listingStartUrl(ScraperConfig config) {
+        return config.getNavigation().getProductListUrl() != null
+                ? config.getNavigation().getProductListUrl()
+                : config.getNavigation().getStartUrl();
+    }
+
+    /**
+     * Run the action with a browser page of its own, holding one global page permit
+     */
+    private <T> T withPage(ScraperConfig config, ScrapeArchive archive, PageAction<T> action)
+            throws InterruptedException {
+        browserPagePermits.acquire();
+        try (Playwright playwright = Playwright.create();
+             Browser browser = PlaywrightPages.launchBrowser(playwright, config)) {
+            Page page = PlaywrightPages.openPage(browser, config, archive);
+            try {
+                return action.run(page);
+            } finally {
+                PlaywrightPages.closePage(page);
+            }
+        } finally {
+            browserPagePermits.release();
+        }
+    }
+
+    @FunctionalInterface
+    private interface PageAction<T> {
+        T run(Page page) throws InterruptedException;
+    }
+}
@@ -0,0 +1,163 @@
+package com.smartguide.scraper.service;
+
+import com.smartguide.scraper.config.NearDuplicateConfig;
+import com.smartguide.scraper.model.ScrapedProduct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Links scraped products to existing near-duplicates before they are saved.
+ *
+ * Every product gets a {@link SimHash} fingerprint. Fingerprints are indexed with
+ * locality-sensitive hashing: the 64 bits are split into maxHammingDistance + 1 bands,
+ * and two fingerprints within that distance must agree on at least one whole band
+ * (pigeonhole), so a lookup only compares the entries sharing a band with the product
+ * instead of the whole catalog.
+ *
+ * Every product keeps its own code (a generated one if none was scraped) and records
+ * its nearest duplicate in near_duplicate_of for review; taking over the duplicate's code
+ * would let two pages of one job that match the same product overwrite each other. The
+ * index holds production products and pending staging rows; it is
+ * rebuilt periodically and grows with every product linked in between.
+ */
+@Service
+@Slf4j
+public class NearDuplicateIndex {
+
+    private final ScraperDatabaseService databaseService;
+    private final NearDuplicateConfig config;
+
+    private final int maxDistance;
+    private final int bandBits;
+
+    private List<Map<Long, List<Entry>>> bands;
+    private int size;
+
+    public NearDuplicateIndex(ScraperDatabaseService databaseService, NearDuplicateConfig config) {
+        this.databaseService = databaseService;
+        this.config = config;
+        if (config.getMaxHammingDistance() < 0 || config.getMaxHammingDistance() > 7) {
+            throw new IllegalArgumentException("app.scraper.dedup.max-hamming-distance must be between 0 and 7");
+        }
+        this.maxDistance = config.getMaxHammingDistance();
+        this.bandBits = 64 / (maxDistance + 1);
+    }
+
+    /**
+     * Fingerprint the products and link each to its nearest indexed duplicate
+     */
+    public synchronized void link(List<ScrapedProduct> products) {
+        if (!Boolean.TRUE.equals(config.getEnabled())) {
+            return;
+        }
+        if (bands == null) {
+            rebuild();
+        }
+        for (ScrapedProduct product : products) {
+            Long simhash = SimHash.fingerprint(product.getProductName(), product.getDescription(),
+                    product.getKeyBenefits(), config.getMinFeatures());
+            if (simhash == null) {
+                continue;
+            }
+            product.setSimhash(simhash);
+
+            Entry match = nearest(simhash);
+            if (product.getProductCode() == null) {
+                product.setProductCode(ScraperDatabaseService.generateProductCode(product));
+            }
+            if (match != null && !match.productCode().equals(product.getProductCode())) {
+                product.setNearDuplicateOf(match.productCode());
+            }
+            if (match != null) {
+                log.debug("{} ({}) is a near-duplicate of {}", product.getSourceUrl(),
+                        product.getProductCode(), match.productCode());
+            }
+            if (match == null || match.simhash() != simhash || !match.productCode().equals(product.getProductCode())) {
+                add(new Entry(simhash, product.getProductCode()));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.scraper.dedup.refresh-interval-ms:1800000}",
+            initialDelayString = "${app.scraper.dedup.refresh-interval-ms:1800000}")
+    public void refresh() {
+        if (Boolean.TRUE.equals(config.getEnabled())) {
+            synchronized (this) {
+                rebuild();
+            }
+        }
+    }
+
+    private void rebuild() {
+        bands = newBands();
+        size = 0;
+        try {
+            for (ScraperDatabaseService.StoredFingerprint stored : databaseService.getCatalogFingerprints()) {
+                Long simhash = stored.simhash() != null
+                        ? stored.simhash()
+                        : SimHash.fingerprint(stored.productName(), stored.description(),
+                                stored.keyBenefits(), config.getMinFeatures());
+                if (simhash != null && stored.productCode() != null) {
+                    add(new Entry(simhash, stored.productCode()));
+                }
+            }
+            log.info("Near-duplicate index loaded with {} fingerprints", size);
+        } catch (Exception e) {
+            // Keep going with an empty index; the next refresh tries again
+            log.error("Failed to load product fingerprints", e);
+        }
+    }
+
+    private Entry nearest(long simhash) {
+        Entry best = null;
+        int bestDistance = maxDistance + 1;
+        for (int band = 0; band < bands.size(); band++) {
+            List<Entry> candidates = bands.get(band).get(bandKey(simhash, band));
+            if (candidates == null) {
+                continue;
+            }
+            for (Entry candidate : candidates) {
+                int distance = SimHash.distance(simhash, candidate.simhash());
+                if (distance < bestDistance) {
+                    best = candidate;
+                    bestDistance = distance;
+                }
+            }
+        }
+        return best;
+    }
+
+    private void add(Entry entry) {
+        for (int band = 0; band < bands.size(); band++) {
+            bands.get(band).computeIfAbsent(bandKey(entry.simhash(), band), key -> new ArrayList<>(1)).add(entry);
+        }
+        size++;
+    }
+
+    /**
+     * Bits of the band; the last band also takes the bits left over by the division
+     */
+    private long bandKey(long simhash, int band) {
+        int shift = band * bandBits;
+        int bits = band == bands.size() - 1 ? 64 - shift : bandBits;
+        long mask = bits == 64 ? -1L : (1L << bits) - 1;
+        return (simhash >>> shift) & mask;
+    }
+
+    private List<Map<Long, List<Entry>>> newBands() {
+        List<Map<Long, List<Entry>>> newBands = new ArrayList<>(maxDistance + 1);
+        for (int i = 0; i <= maxDistance; i++) {
+            newBands.add(new HashMap<>());
+        }
+        return newBands;
+    }
+
+    private record Entry(long simhash, String productCode) {
+    }
+}
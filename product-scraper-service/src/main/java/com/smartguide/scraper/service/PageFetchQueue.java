@@ -0,0 +1,146 @@
+package com.smartguide.scraper.service;
+
+import com.smartguide.scraper.config.ScraperRetryConfig;
+
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Product page work for one scrape job, shared by its fetch workers.
+ *
+ * Failed pages are re-queued on a {@link DelayQueue} with exponential backoff and jitter,
+ * so a worker keeps fetching other pages instead of sleeping on a browser page. Retries
+ * draw from a per-job budget, and once enough pages have finished the job is aborted if
+ * the share of failed pages exceeds the configured error rate.
+ */
+final class PageFetchQueue {
+
+    private final Queue<Attempt> pending = new ConcurrentLinkedQueue<>();
+    private final DelayQueue<Attempt> retries = new DelayQueue<>();
+    private final ScraperRetryConfig retryConfig;
+    private final int maxRetries;
+
+    private final AtomicInteger outstanding;
+    private final AtomicInteger retryBudget;
+    private final AtomicInteger finished = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger retried = new AtomicInteger();
+    private final AtomicBoolean aborted = new AtomicBoolean();
+
+    PageFetchQueue(Collection<String> urls, int maxRetries, ScraperRetryConfig retryConfig) {
+        this.retryConfig = retryConfig;
+        this.maxRetries = Math.max(0, maxRetries);
+        for (String url : urls) {
+            pending.add(new Attempt(url, 0, 0));
+        }
+        this.outstanding = new AtomicInteger(urls.size());
+        this.retryBudget = new AtomicInteger(Math.max(retryConfig.getMinRetryBudget(),
+                (int) Math.ceil(urls.size() * retryConfig.getRetryBudgetRatio())));
+    }
+
+    boolean isDone() {
+        return aborted.get() || outstanding.get() <= 0;
+    }
+
+    /**
+     * Next attempt that can run now: a retry whose backoff has elapsed, else a new page
+     */
+    Attempt pollReady() {
+        Attempt retry = retries.poll();
+        return retry != null ? retry : pending.poll();
+    }
+
+    /**
+     * Wait up to the timeout for a retry to come off backoff
+     */
+    Attempt awaitRetry(long timeout, TimeUnit unit) throws InterruptedException {
+        return retries.poll(timeout, unit);
+    }
+
+    void succeeded() {
+        finish(false);
+    }
+
+    /**
+     * A page that will not be fetched (e.g. disallowed) and is not counted as a failure
+     */
+    void skipped() {
+        outstanding.decrementAndGet();
+    }
+
+    /**
+     * Record a failed attempt; returns true if it was queued for another attempt
+     */
+    boolean failed(Attempt attempt) {
+        if (!aborted.get() && attempt.number() < maxRetries && retryBudget.getAndDecrement() > 0) {
+            retried.incrementAndGet();
+            retries.add(new Attempt(attempt.url(), attempt.number() + 1, backoffNanos(attempt.number() + 1)));
+            return true;
+        }
+        finish(true);
+        return false;
+    }
+
+    int getFailedPages() {
+        return failed.get();
+    }
+
+    int getRetries() {
+        return retried.get();
+    }
+
+    boolean isAborted() {
+        return aborted.get();
+    }
+
+    /**
+     * Give up on the pages still outstanding, e.g. because a fetch worker died holding one
+     */
+    void abort() {
+        aborted.set(true);
+    }
+
+    private void finish(boolean failure) {
+        outstanding.decrementAndGet();
+        int done = finished.incrementAndGet();
+        int failures = failure ? failed.incrementAndGet() : failed.get();
+        if (done >= retryConfig.getMinPagesBeforeAbort()
+                && (double) failures / done > retryConfig.getAbortErrorRate()) {
+            aborted.set(true);
+        }
+    }
+
+    /**
+     * Exponential backoff with equal jitter: half the capped delay plus a random share of the other half
+     */
+    private long backoffNanos(int retryNumber) {
+        long delayMs = Math.min(retryConfig.getMaxDelayMs(),
+                retryConfig.getBaseDelayMs() << Math.min(retryNumber - 1, 20));
+        long half = delayMs / 2;
+        long jittered = half + ThreadLocalRandom.current().nextLong(half + 1);
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(jittered);
+    }
+
+    /**
+     * One fetch of a page; number 0 is the first attempt
+     */
+    record Attempt(String url, int number, long readyAtNanos) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(readyAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.smartguide.scraper.service;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.options.LoadState;
+import com.smartguide.scraper.model.ScraperConfig;
+
+/**
+ * Browser and page setup shared by the listing crawler and the product page fetchers
+ */
+final class PlaywrightPages {
+
+    private PlaywrightPages() {
+    }
+
+    static Browser launchBrowser(Playwright playwright, ScraperConfig config) {
+        BrowserType.LaunchOptions launchOptions = new BrowserType.LaunchOptions()
+                .setHeadless(config.getOptions().getHeadless() != null
+                        ? config.getOptions().getHeadless()
+                        : true);
+        return playwright.chromium().launch(launchOptions);
+    }
+
+    /**
+     * New page in a context of its own, recording to or replaying from the archive when
+     * one is given. Close it with {@link #closePage} so a recording is written out.
+     */
+    static Page openPage(Browser browser, ScraperConfig config, ScrapeArchive archive) {
+        BrowserContext context = archive != null ? archive.newContext(browser) : browser.newContext();
+        Page page = context.newPage();
+
+        // Set timeout
+        int timeout = config.getOptions().getTimeout() != null
+                ? config.getOptions().getTimeout()
+                : 30000;
+        page.setDefaultTimeout(timeout);
+        return page;
+    }
+
+    static void closePage(Page page) {
+        page.context().close();
+    }
+
+    /**
+     * A replayed page has nothing to wait for once the network is idle, so the configured
+     * fixed delay is skipped and does not distort replay timings
+     */
+    static void waitAfterLoad(Page page, ScraperConfig config, ScrapeArchive archive) {
+        if (archive != null && archive.isReplay()) {
+            page.waitForLoadState(LoadState.NETWORKIDLE);
+        } else if (config.getNavigation().getWaitAfterLoad() != null) {
+            page.waitForTimeout(config.getNavigation().getWaitAfterLoad());
+        }
+    }
+}
@@ -1,130 +1,266 @@
 package com.smartguide.scraper.service;
 
 import com.microsoft.playwright.*;
+import com.smartguide.scraper.config.ScraperRetryConfig;
 import com.smartguide.scraper.model.ScraperConfig;
 import com.smartguide.scraper.model.ScrapedProduct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Playwright-based web scraping engine
  */
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class PlaywrightScraperEngine {
 
+    private final HtmlTextReducer htmlTextReducer;
+    private final ListingCrawler listingCrawler;
+    private final SitemapDiscovery sitemapDiscovery;
+    private final HostRateLimiter hostRateLimiter;
+    private final RobotsTxtService robotsTxtService;
+    private final BrowserPagePermits browserPagePermits;
+    private final ScraperRetryConfig retryConfig;
+
+    /**
+     * How long an idle worker waits for a retry before checking whether the job is done
+     */
+    private static final long RETRY_POLL_MILLIS = 1000;
+
+    /**
+     * Receives products as soon as they are extracted. Implementations may block
+     * to apply backpressure on the fetch stage.
+     */
+    @FunctionalInterface
+    public interface ProductSink {
+        void accept(ScrapedProduct product) throws InterruptedException;
+    }
+
     /**
      * Scrape products from a website based on configuration
      */
     public List<ScrapedProduct> scrapeWebsite(ScraperConfig config) {
-        List<ScrapedProduct> scrapedProducts = new ArrayList<>();
-
-        try (Playwright playwright = Playwright.create()) {
-            BrowserType.LaunchOptions launchOptions = new BrowserType.LaunchOptions()
-                    .setHeadless(config.getOptions().getHeadless() != null
-                            ? config.getOptions().getHeadless()
-                            : true);
-
-            try (Browser browser = playwright.chromium().launch(launchOptions)) {
-                BrowserContext context = browser.newContext();
-                Page page = context.newPage();
-
-                // Set timeout
-                int timeout = config.getOptions().getTimeout() != null
-                        ? config.getOptions().getTimeout()
-                        : 30000;
-                page.setDefaultTimeout(timeout);
-
-                log.info("Navigating to: {}", config.getNavigation().getStartUrl());
-                page.navigate(config.getNavigation().getStartUrl());
-
-                // Wait after page load if specified
-                if (config.getNavigation().getWaitAfterLoad() != null) {
-                    page.waitForTimeout(config.getNavigation().getWaitAfterLoad());
-                }
+        List<ScrapedProduct> scrapedProducts = Collections.synchronizedList(new ArrayList<>());
+        try {
+            scrapeWebsite(config, 1, scrapedProducts::add);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Scraping interrupted for website: {}", config.getWebsiteId());
+        }
+        return scrapedProducts;
+    }
 
-                // Get product links
-                List<String> productUrls = extractProductUrls(page, config);
-                log.info("Found {} product URLs", productUrls.size());
-
-                // Scrape each product
-                int count = 0;
-                for (String productUrl : productUrls) {
-                    try {
-                        ScrapedProduct product = scrapeProductPage(page, productUrl, config);
-                        if (product != null) {
-                            scrapedProducts.add(product);
-                            count++;
-                        }
-
-                        // Delay between requests
-                        if (config.getOptions().getDelayBetweenRequests() != null) {
-                            page.waitForTimeout(config.getOptions().getDelayBetweenRequests());
-                        }
-                    } catch (Exception e) {
-                        log.error("Failed to scrape product: {}", productUrl, e);
-                    }
-                }
+    /**
+     * Scrape products from a website, handing each product to the sink as soon as it
+     * has been extracted. Product URLs come from the site's sitemaps ({@link SitemapDiscovery})
+     * or, failing that, from its listing pages ({@link ListingCrawler}). Product pages are fetched by up to {@code pageConcurrency}
+     * workers, each driving its own browser page. Every busy page holds one of the
+     * global browser page permits, and every navigation waits for its host's rate limiter.
+     * Failed pages are retried up to options.retryCount times with backoff (see
+     * {@link PageFetchQueue}); the job stops early when too many pages fail.
+     */
+    public FetchResult scrapeWebsite(ScraperConfig config, int pageConcurrency, ProductSink sink) throws InterruptedException {
+        return scrapeWebsite(config, pageConcurrency, sink, null);
+    }
 
-                log.info("Successfully scraped {} products", count);
+    /**
+     * Scrape products, recording every page to the archive or serving every page from it.
+     * A replay visits the product URLs stored while recording, skips robots.txt checks,
+     * rate limiting and retries, and never reaches the network.
+     */
+    public FetchResult scrapeWebsite(ScraperConfig config, int pageConcurrency, ProductSink sink,
+                                     ScrapeArchive archive) throws InterruptedException {
+        boolean replay = archive != null && archive.isReplay();
+        List<String> productUrls;
+        try {
+            productUrls = replay ? archive.loadProductUrls().orElse(null) : sitemapDiscovery.discover(config).orElse(null);
+            if (productUrls == null) {
+                productUrls = listingCrawler.collectProductUrls(config, pageConcurrency, archive);
             }
+            if (archive != null && !replay) {
+                archive.saveProductUrls(productUrls);
+            }
+            log.info("Found {} product URLs", productUrls.size());
+        } catch (InterruptedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Scraping failed for website: {}", config.getWebsiteId(), e);
+            return new FetchResult(0, 0, 0, false);
         }
 
-        return scrapedProducts;
+        if (productUrls.isEmpty()) {
+            return new FetchResult(0, 0, 0, false);
+        }
+
+        // A page missing from an archive is missing on every attempt
+        Integer retryCount = replay ? Integer.valueOf(0) : config.getOptions().getRetryCount();
+        PageFetchQueue fetchQueue = new PageFetchQueue(productUrls,
+                retryCount != null ? retryCount : retryConfig.getDefaultRetryCount(), retryConfig);
+        AtomicInteger count = new AtomicInteger();
+        int workers = Math.max(1, Math.min(pageConcurrency, productUrls.size()));
+
+        ExecutorService fetchPool = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                futures.add(fetchPool.submit(() -> {
+                    fetchProductPages(config, fetchQueue, sink, count, archive);
+                    return null;
+                }));
+            }
+            boolean workerFailed = false;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof InterruptedException) {
+                        throw (InterruptedException) e.getCause();
+                    }
+                    log.error("Fetch worker failed for website: {}", config.getWebsiteId(), e.getCause());
+                    workerFailed = true;
+                }
+            }
+            // Pages a dead worker held or never reached were not fetched, so the job is not clean
+            if (workerFailed && !fetchQueue.isDone()) {
+                fetchQueue.abort();
+            }
+        } finally {
+            fetchPool.shutdownNow();
+        }
+
+        if (fetchQueue.isAborted()) {
+            log.warn("Aborted scraping {} after {} failed pages", config.getWebsiteId(), fetchQueue.getFailedPages());
+        }
+        log.info("Successfully scraped {} products ({} pages failed, {} retries)",
+                count.get(), fetchQueue.getFailedPages(), fetchQueue.getRetries());
+        return new FetchResult(count.get(), productUrls.size(), fetchQueue.getFailedPages(), fetchQueue.isAborted());
     }
 
     /**
-     * Extract product URLs from listing page
+     * Fetch worker: drains the shared fetch queue with a dedicated Playwright instance,
+     * since Playwright objects must stay on the thread that created them. The worker's
+     * browser is only open while it holds a page permit: while only retries that are
+     * still backing off remain, it closes the browser and gives up the permit, and it
+     * launches a new one once a retry is due.
      */
-    private List<String> extractProductUrls(Page page, ScraperConfig config) {
-        List<String> urls = new ArrayList<>();
-
+    private void fetchProductPages(ScraperConfig config, PageFetchQueue fetchQueue,
+                                   ProductSink sink, AtomicInteger count,
+                                   ScrapeArchive archive) throws InterruptedException {
+        boolean replay = archive != null && archive.isReplay();
+        BrowserSession session = null;
         try {
-            Locator productElements = page.locator(config.getSelectors().getProductList());
-            int count = productElements.count();
+            while (!fetchQueue.isDone()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+                PageFetchQueue.Attempt attempt = fetchQueue.pollReady();
+                if (attempt == null) {
+                    if (session != null) {
+                        closeSession(session);
+                        session = null;
+                    }
+                    attempt = fetchQueue.awaitRetry(RETRY_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (attempt == null) {
+                        continue;
+                    }
+                }
+                if (session == null) {
+                    session = openSession(config, archive);
+                }
 
-            for (int i = 0; i < count; i++) {
+                String productUrl = attempt.url();
+                if (!replay && !robotsTxtService.isAllowed(productUrl)) {
+                    log.info("Skipping product disallowed by robots.txt: {}", productUrl);
+                    fetchQueue.skipped();
+                    continue;
+                }
+                ScrapedProduct product;
                 try {
-                    Locator linkElement = productElements.nth(i).locator(config.getSelectors().getProductLink());
-                    String href = linkElement.getAttribute("href");
-
-                    if (href != null) {
-                        // Handle relative URLs
-                        if (!href.startsWith("http")) {
-                            href = config.getBaseUrl() + (href.startsWith("/") ? "" : "/") + href;
-                        }
-                        urls.add(href);
+                    if (!replay) {
+                        hostRateLimiter.acquire(productUrl, config);
                     }
-                } catch (Exception e) {
-                    log.warn("Failed to extract product URL at index {}", i);
+                    product = scrapeProductPage(session.page(), productUrl, config, archive);
+                } catch (PlaywrightException e) {
+                    boolean retrying = fetchQueue.failed(attempt);
+                    log.warn("Failed to scrape product {} (attempt {}{}): {}", productUrl, attempt.number() + 1,
+                            retrying ? ", will retry" : "", e.getMessage());
+                    continue;
+                }
+                fetchQueue.succeeded();
+                if (product != null) {
+                    sink.accept(product);
+                    count.incrementAndGet();
                 }
             }
-        } catch (Exception e) {
-            log.error("Failed to extract product URLs", e);
+        } finally {
+            if (session != null) {
+                closeSession(session);
+            }
         }
+    }
 
-        return urls;
+    /**
+     * Take a page permit, then launch a browser and open a page; the permit is returned
+     * if the launch fails
+     */
+    private BrowserSession openSession(ScraperConfig config, ScrapeArchive archive) throws InterruptedException {
+        browserPagePermits.acquire();
+        Playwright playwright = null;
+        try {
+            playwright = Playwright.create();
+            Browser browser = PlaywrightPages.launchBrowser(playwright, config);
+            return new BrowserSession(playwright, PlaywrightPages.openPage(browser, config, archive));
+        } catch (RuntimeException e) {
+            if (playwright != null) {
+                playwright.close();
+            }
+            browserPagePermits.release();
+            throw e;
+        }
     }
 
     /**
-     * Scrape a single product page
+     * Close the page (closing its context writes out a recording) and the browser, then
+     * return the page permit
      */
-    private ScrapedProduct scrapeProductPage(Page page, String url, ScraperConfig config) {
+    private void closeSession(BrowserSession session) {
         try {
-            log.debug("Scraping product: {}", url);
-            page.navigate(url);
+            PlaywrightPages.closePage(session.page());
+        } finally {
+            try {
+                session.playwright().close();
+            } finally {
+                browserPagePermits.release();
+            }
+        }
+    }
 
-            if (config.getNavigation().getWaitAfterLoad() != null) {
-                page.waitForTimeout(config.getNavigation().getWaitAfterLoad());
+    /**
+     * Scrape a single product page. Navigation failures, timeouts and 429/5xx responses
+     * are thrown as PlaywrightException so the page can be retried.
+     */
+    private ScrapedProduct scrapeProductPage(Page page, String url, ScraperConfig config, ScrapeArchive archive) {
+        try {
+            log.debug("Scraping product: {}", url);
+            Response response = page.navigate(url);
+            if (response != null && (response.status() == 429 || response.status() >= 500)) {
+                throw new PlaywrightException("HTTP " + response.status());
             }
+            PlaywrightPages.waitAfterLoad(page, config, archive);
 
             ScrapedProduct.ScrapedProductBuilder builder = ScrapedProduct.builder()
                     .sourceWebsiteId(config.getWebsiteId())
@@ -152,20 +288,21 @@ public class PlaywrightScraperEngine {
                 if (builder.build().getCategory() == null && config.getMapping().getDefaultCategory() != null) {
                     builder.category(config.getMapping().getDefaultCategory());
                 }
-                builder.shariaCertified(config.getMapping().getShariaCertified() != null
-                        ? config.getMapping().getShariaCertified()
-                        : true);
+                // Left unset unless configured, so enrichment can fill it from the page
+                builder.shariaCertified(config.getMapping().getShariaCertified());
                 builder.active(config.getMapping().getActive() != null
                         ? config.getMapping().getActive()
                         : true);
             }
 
-            // Store raw HTML for AI enrichment if enabled
+            // Store the page reduced to text for AI enrichment if enabled
             if (config.getOptions().getAiEnrichment() != null && config.getOptions().getAiEnrichment()) {
-                builder.rawHtml(page.content());
+                builder.pageText(htmlTextReducer.reduce(page.content()));
             }
 
             return builder.build();
+        } catch (PlaywrightException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to scrape product page: {}", url, e);
             return null;
@@ -221,4 +358,22 @@ public class PlaywrightScraperEngine {
             return new ArrayList<>();
         }
     }
+
+    /**
+     * Outcome of fetching a site's product pages
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class FetchResult {
+        private final int productsFound;
+        private final int pagesAttempted;
+        private final int pagesFailed;
+        private final boolean aborted;
+    }
+
+    /**
+     * A fetch worker's Playwright instance and its single page, open while it holds a permit
+     */
+    private record BrowserSession(Playwright playwright, Page page) {
+    }
 }
@@ -0,0 +1,247 @@
+package com.smartguide.scraper.service;
+
+import com.smartguide.scraper.config.PolitenessConfig;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Fetches, parses and caches robots.txt per origin. Only the group for our user agent
+ * (or the * group) is kept: its Allow/Disallow rules and Crawl-delay, plus the Sitemap
+ * entries. A robots.txt that is missing or cannot be fetched allows everything.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class RobotsTxtService {
+
+    private final WebClient.Builder webClientBuilder;
+    private final PolitenessConfig politenessConfig;
+
+    private final Map<String, CachedRules> cache = new ConcurrentHashMap<>();
+
+    private WebClient webClient;
+
+    @PostConstruct
+    void initWebClient() {
+        this.webClient = webClientBuilder.clone()
+                .defaultHeader(HttpHeaders.USER_AGENT, politenessConfig.getUserAgent())
+                .build();
+    }
+
+    public boolean isAllowed(String url) {
+        if (!politenessConfig.getRespectRobotsTxt()) {
+            return true;
+        }
+        URI uri = URI.create(url);
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        if (uri.getRawQuery() != null) {
+            path += "?" + uri.getRawQuery();
+        }
+        return rulesFor(uri).isAllowed(path);
+    }
+
+    /**
+     * Crawl-delay for the URL's host in seconds, capped by max-crawl-delay-seconds; null if none
+     */
+    public Double getCrawlDelaySeconds(String url) {
+        if (!politenessConfig.getRespectRobotsTxt()) {
+            return null;
+        }
+        Double delay = rulesFor(URI.create(url)).crawlDelaySeconds();
+        return delay == null ? null : Math.min(delay, politenessConfig.getMaxCrawlDelaySeconds());
+    }
+
+    /**
+     * Sitemap URLs listed in the robots.txt of the URL's origin
+     */
+    public List<String> getSitemaps(String url) {
+        return rulesFor(URI.create(url)).sitemaps();
+    }
+
+    private RobotsRules rulesFor(URI uri) {
+        String origin = uri.getScheme() + "://" + uri.getRawAuthority();
+        long ttlNanos = Duration.ofMinutes(politenessConfig.getRobotsCacheMinutes()).toNanos();
+        CachedRules cached = cache.get(origin);
+        if (cached == null || System.nanoTime() - cached.fetchedAtNanos() > ttlNanos) {
+            cached = new CachedRules(fetch(origin), System.nanoTime());
+            cache.put(origin, cached);
+        }
+        return cached.rules();
+    }
+
+    private RobotsRules fetch(String origin) {
+        try {
+            String body = webClient.get()
+                    .uri(origin + "/robots.txt")
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .block(Duration.ofMillis(politenessConfig.getRobotsTimeoutMs()));
+            RobotsRules rules = parse(body != null ? body : "", politenessConfig.getUserAgent());
+            log.debug("Loaded robots.txt for {}: {} rules, crawl-delay {}", origin, rules.rules().size(), rules.crawlDelaySeconds());
+            return rules;
+        } catch (WebClientResponseException e) {
+            log.debug("No robots.txt for {} ({})", origin, e.getStatusCode());
+            return RobotsRules.ALLOW_ALL;
+        } catch (Exception e) {
+            log.warn("Failed to fetch robots.txt for {}: {}", origin, e.getMessage());
+            return RobotsRules.ALLOW_ALL;
+        }
+    }
+
+    /**
+     * Parse robots.txt, keeping the most specific group: one naming our user agent,
+     * otherwise the * group
+     */
+    static RobotsRules parse(String content, String userAgent) {
+        String agent = userAgent.toLowerCase(Locale.ROOT);
+        List<Rule> ownRules = new ArrayList<>();
+        List<Rule> wildcardRules = new ArrayList<>();
+        List<String> sitemaps = new ArrayList<>();
+        Double ownDelay = null;
+        Double wildcardDelay = null;
+        boolean ownGroupSeen = false;
+
+        boolean inOwn = false;
+        boolean inWildcard = false;
+        boolean lastWasAgent = false;
+
+        for (String rawLine : content.split("\\R")) {
+            int comment = rawLine.indexOf('#');
+            String line = (comment >= 0 ? rawLine.substring(0, comment) : rawLine).strip();
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                continue;
+            }
+            String field = line.substring(0, colon).strip().toLowerCase(Locale.ROOT);
+            String value = line.substring(colon + 1).strip();
+
+            // Sitemap entries belong to no group
+            if (field.equals("sitemap")) {
+                if (!value.isEmpty()) {
+                    sitemaps.add(value);
+                }
+                continue;
+            }
+
+            if (field.equals("user-agent")) {
+                if (!lastWasAgent) {
+                    inOwn = false;
+                    inWildcard = false;
+                }
+                String name = value.toLowerCase(Locale.ROOT);
+                if (name.equals("*")) {
+                    inWildcard = true;
+                } else if (!name.isEmpty() && agent.contains(name)) {
+                    inOwn = true;
+                    ownGroupSeen = true;
+                }
+                lastWasAgent = true;
+                continue;
+            }
+            lastWasAgent = false;
+
+            switch (field) {
+                case "allow", "disallow" -> {
+                    // An empty Disallow allows everything and adds no rule
+                    if (value.isEmpty()) {
+                        continue;
+                    }
+                    Rule rule = new Rule(value, field.equals("allow"));
+                    if (inOwn) {
+                        ownRules.add(rule);
+                    }
+                    if (inWildcard) {
+                        wildcardRules.add(rule);
+                    }
+                }
+                case "crawl-delay" -> {
+                    try {
+                        double delay = Double.parseDouble(value);
+                        if (inOwn) {
+                            ownDelay = delay;
+                        }
+                        if (inWildcard) {
+                            wildcardDelay = delay;
+                        }
+                    } catch (NumberFormatException e) {
+                        // Ignore malformed delays
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        return ownGroupSeen
+                ? new RobotsRules(ownRules, ownDelay, sitemaps)
+                : new RobotsRules(wildcardRules, wildcardDelay, sitemaps);
+    }
+
+    record RobotsRules(List<Rule> rules, Double crawlDelaySeconds, List<String> sitemaps) {
+
+        static final RobotsRules ALLOW_ALL = new RobotsRules(List.of(), null, List.of());
+
+        /**
+         * Longest matching rule wins; Allow wins a tie; no match means allowed
+         */
+        boolean isAllowed(String path) {
+            Rule best = null;
+            for (Rule rule : rules) {
+                if (rule.matches(path) && (best == null
+                        || rule.path().length() > best.path().length()
+                        || (rule.path().length() == best.path().length() && rule.allow()))) {
+                    best = rule;
+                }
+            }
+            return best == null || best.allow();
+        }
+    }
+
+    record Rule(String path, boolean allow, Pattern pattern) {
+
+        Rule(String path, boolean allow) {
+            this(path, allow, toPattern(path));
+        }
+
+        boolean matches(String candidate) {
+            return pattern.matcher(candidate).lookingAt();
+        }
+
+        /**
+         * Rules are path prefixes where * matches any run of characters and a trailing $
+         * anchors the end
+         */
+        private static Pattern toPattern(String path) {
+            boolean anchored = path.endsWith("$");
+            String body = anchored ? path.substring(0, path.length() - 1) : path;
+            StringBuilder regex = new StringBuilder();
+            for (String part : body.split("\\*", -1)) {
+                if (!regex.isEmpty()) {
+                    regex.append(".*");
+                }
+                regex.append(Pattern.quote(part));
+            }
+            if (anchored) {
+                regex.append('$');
+            }
+            return Pattern.compile(regex.toString());
+        }
+    }
+
+    private record CachedRules(RobotsRules rules, long fetchedAtNanos) {
+    }
+}
@@ -0,0 +1,155 @@
+package com.smartguide.scraper.service;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Route;
+import com.microsoft.playwright.options.HarNotFound;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A directory of HTTP archives (HAR) for one scrape job.
+ *
+ * In RECORD mode every browser context of the job writes its own HAR file, with response
+ * bodies, when it is closed. In REPLAY mode every context is served from all HAR files of
+ * the archive through Playwright routing; requests missing from the archive are aborted,
+ * so a replayed job never reaches the network. The product URLs discovered while
+ * recording are stored alongside, so a replay visits exactly the same pages.
+ */
+@Slf4j
+public final class ScrapeArchive {
+
+    public enum Mode {
+        RECORD,
+        REPLAY
+    }
+
+    private static final String HAR_PREFIX = "context-";
+    private static final String HAR_EXTENSION = ".zip";
+    private static final String PRODUCT_URLS_FILE = "product-urls.txt";
+
+    @Getter
+    private final Mode mode;
+    @Getter
+    private final Path directory;
+    private final List<Path> harFiles;
+    private final AtomicInteger nextContext = new AtomicInteger();
+
+    private ScrapeArchive(Mode mode, Path directory, List<Path> harFiles) {
+        this.mode = mode;
+        this.directory = directory;
+        this.harFiles = harFiles;
+    }
+
+    /**
+     * Start a new archive in the given directory, replacing any HAR files already in it
+     */
+    static ScrapeArchive record(Path directory) {
+        try {
+            Files.createDirectories(directory);
+            for (Path existing : listHarFiles(directory)) {
+                Files.delete(existing);
+            }
+            Files.deleteIfExists(directory.resolve(PRODUCT_URLS_FILE));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot prepare scrape archive " + directory, e);
+        }
+        return new ScrapeArchive(Mode.RECORD, directory, List.of());
+    }
+
+    /**
+     * Open a recorded archive for replay
+     */
+    static ScrapeArchive replay(Path directory) {
+        List<Path> harFiles;
+        try {
+            harFiles = listHarFiles(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read scrape archive " + directory, e);
+        }
+        if (harFiles.isEmpty()) {
+            throw new IllegalArgumentException("Scrape archive has no recordings: " + directory.getFileName());
+        }
+        return new ScrapeArchive(Mode.REPLAY, directory, harFiles);
+    }
+
+    public boolean isReplay() {
+        return mode == Mode.REPLAY;
+    }
+
+    /**
+     * New browser context that records to, or replays from, this archive.
+     * A recording context must be closed for its HAR file to be written.
+     */
+    BrowserContext newContext(Browser browser) {
+        if (mode == Mode.RECORD) {
+            Path harFile = directory.resolve(HAR_PREFIX + nextContext.incrementAndGet() + HAR_EXTENSION);
+            return browser.newContext(new Browser.NewContextOptions().setRecordHarPath(harFile));
+        }
+
+        BrowserContext context = browser.newContext();
+        // Routes registered later are matched first: each HAR falls through to the next,
+        // and anything no HAR contains ends at this catch-all
+        context.route("**/*", Route::abort);
+        for (Path harFile : harFiles) {
+            context.routeFromHAR(harFile, new BrowserContext.RouteFromHAROptions()
+                    .setNotFound(HarNotFound.FALLBACK));
+        }
+        return context;
+    }
+
+    /**
+     * Store the product URLs a recorded job visited
+     */
+    void saveProductUrls(List<String> urls) {
+        try {
+            Files.write(directory.resolve(PRODUCT_URLS_FILE), urls, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("Failed to store product URLs in scrape archive {}", directory, e);
+        }
+    }
+
+    /**
+     * Product URLs stored while recording, if any
+     */
+    Optional<List<String>> loadProductUrls() {
+        Path file = directory.resolve(PRODUCT_URLS_FILE);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            List<String> urls = new ArrayList<>();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    urls.add(line.strip());
+                }
+            }
+            return Optional.of(urls);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read product URLs of scrape archive " + directory, e);
+        }
+    }
+
+    static List<Path> listHarFiles(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, HAR_PREFIX + "*" + HAR_EXTENSION)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+}
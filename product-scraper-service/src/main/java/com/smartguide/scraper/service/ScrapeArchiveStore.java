@@ -0,0 +1,87 @@
+package com.smartguide.scraper.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Named scrape archives on local disk, stored as {@code <directory>/<websiteId>/<name>}
+ */
+@Service
+public class ScrapeArchiveStore {
+
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private final Path root;
+
+    public ScrapeArchiveStore(@Value("${app.scraper.archive.directory:./scrape-archives}") String directory) {
+        this.root = Paths.get(directory).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Archive that the next job for the website records into (an existing one is replaced)
+     */
+    public ScrapeArchive forRecording(String websiteId, String name) {
+        return ScrapeArchive.record(resolve(websiteId, name));
+    }
+
+    /**
+     * Previously recorded archive to replay a job from
+     */
+    public ScrapeArchive forReplay(String websiteId, String name) {
+        Path directory = resolve(websiteId, name);
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalArgumentException("No scrape archive '" + name + "' for website: " + websiteId);
+        }
+        return ScrapeArchive.replay(directory);
+    }
+
+    /**
+     * Names of the recorded archives of a website
+     */
+    public List<String> list(String websiteId) {
+        Path websiteDir = resolve(websiteId);
+        List<String> names = new ArrayList<>();
+        if (!Files.isDirectory(websiteDir)) {
+            return names;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(websiteDir, Files::isDirectory)) {
+            for (Path directory : stream) {
+                if (!ScrapeArchive.listHarFiles(directory).isEmpty()) {
+                    names.add(directory.getFileName().toString());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list scrape archives of " + websiteId, e);
+        }
+        names.sort(null);
+        return names;
+    }
+
+    private Path resolve(String websiteId, String name) {
+        return resolve(websiteId).resolve(checkName("archive name", name));
+    }
+
+    private Path resolve(String websiteId) {
+        return root.resolve(checkName("website id", websiteId));
+    }
+
+    /**
+     * Names become directory names, so only plain identifiers are accepted
+     */
+    private static String checkName(String what, String value) {
+        if (value == null || !NAME_PATTERN.matcher(value).matches()) {
+            throw new IllegalArgumentException("Invalid " + what + ": " + value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,96 @@
+package com.smartguide.scraper.service;
+
+import com.smartguide.scraper.config.ScraperPipelineConfig;
+import com.smartguide.scraper.model.ScraperConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Offline throughput benchmark: replays a recorded archive through the fetch and extract
+ * stages only (no enrichment, no database writes) and reports pages per second.
+ * Every page comes from the archive, so results do not depend on the network or the site.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ScrapeBenchmarkService {
+
+    private static final int MAX_ITERATIONS = 20;
+
+    private final ScraperConfigLoader configLoader;
+    private final ScrapeArchiveStore archiveStore;
+    private final PlaywrightScraperEngine scraperEngine;
+    private final ScraperPipelineConfig pipelineConfig;
+
+    /**
+     * Replay the archive {@code iterations} times with the given number of browser pages
+     * (the pipeline's fetch concurrency when null)
+     */
+    public Map<String, Object> run(String websiteId, String archiveName, int iterations, Integer concurrency)
+            throws InterruptedException {
+        if (iterations < 1 || iterations > MAX_ITERATIONS) {
+            throw new IllegalArgumentException("iterations must be between 1 and " + MAX_ITERATIONS);
+        }
+        ScraperConfig config = configLoader.getConfig(websiteId);
+        if (config == null) {
+            throw new IllegalArgumentException("No configuration found for website: " + websiteId);
+        }
+        ScrapeArchive archive = archiveStore.forReplay(websiteId, archiveName);
+        int pageConcurrency = concurrency != null ? concurrency : pipelineConfig.getFetchConcurrency();
+        if (pageConcurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be positive");
+        }
+
+        List<Map<String, Object>> runs = new ArrayList<>();
+        List<Double> pagesPerSecond = new ArrayList<>();
+        for (int i = 1; i <= iterations; i++) {
+            AtomicInteger extracted = new AtomicInteger();
+            long start = System.nanoTime();
+            PlaywrightScraperEngine.FetchResult result = scraperEngine.scrapeWebsite(
+                    config, pageConcurrency, product -> extracted.incrementAndGet(), archive);
+            long elapsedNanos = System.nanoTime() - start;
+
+            int pages = result.getPagesAttempted() - result.getPagesFailed();
+            double rate = elapsedNanos > 0 ? pages * 1_000_000_000.0 / elapsedNanos : 0;
+            pagesPerSecond.add(rate);
+
+            Map<String, Object> run = new LinkedHashMap<>();
+            run.put("iteration", i);
+            run.put("products", extracted.get());
+            run.put("pages", pages);
+            run.put("pagesFailed", result.getPagesFailed());
+            run.put("elapsedMs", elapsedNanos / 1_000_000);
+            run.put("pagesPerSecond", round(rate));
+            runs.add(run);
+            log.info("Benchmark {} / {} iteration {}: {} pages in {} ms ({} pages/s)",
+                    websiteId, archiveName, i, pages, elapsedNanos / 1_000_000, round(rate));
+        }
+
+        pagesPerSecond.sort(null);
+        Map<String, Object> response = new HashMap<>();
+        response.put("websiteId", websiteId);
+        response.put("archive", archiveName);
+        response.put("concurrency", pageConcurrency);
+        response.put("runs", runs);
+        response.put("medianPagesPerSecond", round(median(pagesPerSecond)));
+        response.put("maxPagesPerSecond", round(pagesPerSecond.get(pagesPerSecond.size() - 1)));
+        return response;
+    }
+
+    private static double median(List<Double> sorted) {
+        int middle = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
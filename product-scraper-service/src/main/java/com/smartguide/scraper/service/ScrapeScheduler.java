@@ -0,0 +1,113 @@
+package com.smartguide.scraper.service;
+
+import com.smartguide.scraper.config.ScraperSchedulerConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs scrape jobs for active sites whose schedule_cron is due.
+ *
+ * Due sites are submitted to a pool of {@code max-concurrent-jobs} threads, so several
+ * sites scrape in parallel while browser pages stay capped by {@link BrowserPagePermits}.
+ * A site is never queued twice, and a site with a RUNNING scrape log is skipped.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ScrapeScheduler {
+
+    private final ScraperDatabaseService databaseService;
+    private final ScraperConfigLoader configLoader;
+    private final ScraperOrchestrationService orchestrationService;
+    private final ScraperSchedulerConfig schedulerConfig;
+
+    private final Set<String> queuedSites = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService jobExecutor;
+
+    @PostConstruct
+    void start() {
+        jobExecutor = Executors.newFixedThreadPool(Math.max(1, schedulerConfig.getMaxConcurrentJobs()));
+    }
+
+    @PreDestroy
+    void stop() {
+        jobExecutor.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${app.scraper.scheduler.poll-interval-ms:60000}",
+            initialDelayString = "${app.scraper.scheduler.poll-interval-ms:60000}")
+    public void dispatchDueJobs() {
+        if (!schedulerConfig.getEnabled()) {
+            return;
+        }
+        List<Map<String, Object>> sources;
+        try {
+            sources = databaseService.getScheduledSources();
+        } catch (Exception e) {
+            log.warn("Failed to read scheduled sources: {}", e.getMessage());
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Map<String, Object> source : sources) {
+            String websiteId = (String) source.get("website_id");
+            if (Boolean.TRUE.equals(source.get("running")) || queuedSites.contains(websiteId)) {
+                continue;
+            }
+
+            CronExpression cron;
+            try {
+                cron = CronExpression.parse((String) source.get("schedule_cron"));
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid schedule_cron for {}: {}", websiteId, e.getMessage());
+                continue;
+            }
+            LocalDateTime lastRun = ((Timestamp) source.get("last_run_at")).toLocalDateTime();
+            LocalDateTime nextRun = cron.next(lastRun);
+            if (nextRun == null || nextRun.isAfter(now)) {
+                continue;
+            }
+            if (configLoader.getConfig(websiteId) == null) {
+                log.warn("Scheduled site {} has no scraper configuration", websiteId);
+                continue;
+            }
+
+            if (queuedSites.add(websiteId)) {
+                log.info("Scheduling scrape for {} (due {})", websiteId, nextRun);
+                jobExecutor.submit(() -> runJob(websiteId));
+            }
+        }
+    }
+
+    /**
+     * Sites queued or running from the schedule
+     */
+    public Set<String> getQueuedSites() {
+        return Set.copyOf(queuedSites);
+    }
+
+    private void runJob(String websiteId) {
+        try {
+            orchestrationService.executeScrapingJob(websiteId);
+        } catch (RuntimeException e) {
+            log.warn("Scheduled scrape for {} failed: {}", websiteId, e.getMessage());
+        } finally {
+            queuedSites.remove(websiteId);
+        }
+    }
+}
@@ -3,7 +3,10 @@ package com.smartguide.scraper.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.smartguide.scraper.model.ScraperConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.io.support.ResourcePatternUtils;
@@ -11,60 +14,181 @@ import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.StreamSupport;
 
 /**
- * Service to load and manage scraper configurations from YAML files
+ * Registry of scraper configurations loaded from YAML files.
+ *
+ * Configs are read from classpath:scraper-configs/ and, if configured, from an external
+ * directory whose files override classpath configs with the same websiteId. Readers get an
+ * immutable snapshot that is swapped atomically, so a reload never exposes a partial set.
+ * The external directory is watched and only changed files are re-parsed. Every config is
+ * validated when it is read; an invalid file is rejected and the previous version stays.
+ * Each config carries a version (checksum of its file), which jobs record when they start.
  */
 @Service
 @Slf4j
 public class ScraperConfigLoader {
 
+    private static final String CLASSPATH_PATTERN = "classpath:scraper-configs/*.yml";
+
+    /**
+     * Editors often write a file in several steps; wait for them to settle before parsing
+     */
+    private static final long WATCH_DEBOUNCE_MILLIS = 300;
+
     private final ResourceLoader resourceLoader;
     private final ObjectMapper yamlMapper;
-    private final Map<String, ScraperConfig> configCache;
+    private final Path externalDirectory;
+    private final boolean watchExternalDirectory;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+    private final Object writeLock = new Object();
+
+    private WatchService watchService;
+    private Thread watcherThread;
 
-    public ScraperConfigLoader(ResourceLoader resourceLoader) {
+    public ScraperConfigLoader(ResourceLoader resourceLoader,
+                               @Value("${app.scraper.configs.directory:}") String externalDirectory,
+                               @Value("${app.scraper.configs.watch:true}") boolean watchExternalDirectory) {
         this.resourceLoader = resourceLoader;
         this.yamlMapper = new ObjectMapper(new YAMLFactory());
-        this.configCache = new HashMap<>();
+        this.externalDirectory = externalDirectory == null || externalDirectory.isBlank()
+                ? null
+                : Path.of(externalDirectory).toAbsolutePath().normalize();
+        this.watchExternalDirectory = watchExternalDirectory;
         loadAllConfigs();
     }
 
     /**
-     * Load all scraper configurations from classpath:scraper-configs/
+     * A config together with its version and the file it came from
      */
-    public void loadAllConfigs() {
+    public record VersionedConfig(ScraperConfig config, String version, String source) {
+    }
+
+    /**
+     * Immutable view of every loaded config; sources maps each file to the site it defines
+     */
+    private record Snapshot(Map<String, VersionedConfig> configs, Map<String, String> sources) {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of());
+    }
+
+    @PostConstruct
+    void startWatcher() {
+        if (externalDirectory == null || !watchExternalDirectory) {
+            return;
+        }
+        if (!Files.isDirectory(externalDirectory)) {
+            log.warn("Scraper config directory does not exist, not watching: {}", externalDirectory);
+            return;
+        }
         try {
-            Resource[] resources = ResourcePatternUtils.getResourcePatternResolver(resourceLoader)
-                    .getResources("classpath:scraper-configs/*.yml");
-
-            for (Resource resource : resources) {
-                try (InputStream inputStream = resource.getInputStream()) {
-                    ScraperConfig config = yamlMapper.readValue(inputStream, ScraperConfig.class);
-                    configCache.put(config.getWebsiteId(), config);
-                    log.info("Loaded scraper config for website: {}", config.getWebsiteId());
+            watchService = externalDirectory.getFileSystem().newWatchService();
+            externalDirectory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            log.error("Failed to watch scraper config directory: {}", externalDirectory, e);
+            return;
+        }
+        watcherThread = new Thread(this::watchLoop, "scraper-config-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+        log.info("Watching scraper config directory: {}", externalDirectory);
+    }
+
+    @PreDestroy
+    void stopWatcher() {
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.debug("Failed to close config watch service", e);
+            }
+        }
+    }
+
+    /**
+     * Load all scraper configurations from classpath:scraper-configs/ and the external
+     * directory, replacing the current set in one step. Returns the files that were
+     * rejected with their problems.
+     */
+    public Map<String, List<String>> loadAllConfigs() {
+        Map<String, List<String>> rejected = new LinkedHashMap<>();
+        synchronized (writeLock) {
+            Snapshot current = snapshot.get();
+            Map<String, VersionedConfig> configs = new HashMap<>();
+            Map<String, String> sources = new HashMap<>();
+
+            try {
+                Resource[] resources = ResourcePatternUtils.getResourcePatternResolver(resourceLoader)
+                        .getResources(CLASSPATH_PATTERN);
+                for (Resource resource : resources) {
+                    String source = "classpath:scraper-configs/" + resource.getFilename();
+                    try (InputStream inputStream = resource.getInputStream()) {
+                        put(configs, sources, current, source, inputStream.readAllBytes(), rejected);
+                    } catch (IOException e) {
+                        log.error("Failed to load config from: {}", resource.getFilename(), e);
+                    }
+                }
+            } catch (IOException e) {
+                log.error("Failed to load scraper configurations", e);
+            }
+
+            for (Path file : externalFiles()) {
+                try {
+                    put(configs, sources, current, file.toString(), Files.readAllBytes(file), rejected);
                 } catch (IOException e) {
-                    log.error("Failed to load config from: {}", resource.getFilename(), e);
+                    log.error("Failed to load config from: {}", file, e);
                 }
             }
 
-            log.info("Loaded {} scraper configurations", configCache.size());
-        } catch (IOException e) {
-            log.error("Failed to load scraper configurations", e);
+            snapshot.set(new Snapshot(Collections.unmodifiableMap(configs), Collections.unmodifiableMap(sources)));
+            log.info("Loaded {} scraper configurations", configs.size());
         }
+        return rejected;
     }
 
     /**
      * Get configuration for a specific website
      */
     public ScraperConfig getConfig(String websiteId) {
-        ScraperConfig config = configCache.get(websiteId);
-        if (config == null) {
+        VersionedConfig versioned = getVersionedConfig(websiteId);
+        return versioned != null ? versioned.config() : null;
+    }
+
+    /**
+     * Get the current configuration of a website with its version. Jobs take this once
+     * and use the returned config throughout, so a reload does not change a running job.
+     */
+    public VersionedConfig getVersionedConfig(String websiteId) {
+        VersionedConfig versioned = snapshot.get().configs().get(websiteId);
+        if (versioned == null) {
             log.warn("No configuration found for website: {}", websiteId);
         }
-        return config;
+        return versioned;
     }
 
     /**
@@ -72,26 +196,173 @@ public class ScraperConfigLoader {
      */
     public ScraperConfig loadConfigFromFile(String filePath) throws IOException {
         Resource resource = resourceLoader.getResource(filePath);
+        byte[] content;
         try (InputStream inputStream = resource.getInputStream()) {
-            ScraperConfig config = yamlMapper.readValue(inputStream, ScraperConfig.class);
-            configCache.put(config.getWebsiteId(), config);
-            log.info("Loaded scraper config from file: {}", filePath);
-            return config;
+            content = inputStream.readAllBytes();
+        }
+        Map<String, List<String>> rejected = new LinkedHashMap<>();
+        VersionedConfig loaded;
+        synchronized (writeLock) {
+            Snapshot current = snapshot.get();
+            Map<String, VersionedConfig> configs = new HashMap<>(current.configs());
+            Map<String, String> sources = new HashMap<>(current.sources());
+            loaded = put(configs, sources, current, filePath, content, rejected);
+            snapshot.set(new Snapshot(Collections.unmodifiableMap(configs), Collections.unmodifiableMap(sources)));
         }
+        if (loaded == null) {
+            throw new IllegalArgumentException("Invalid scraper config " + filePath + ": " + rejected.get(filePath));
+        }
+        log.info("Loaded scraper config from file: {}", filePath);
+        return loaded.config();
     }
 
     /**
      * Get all loaded configurations
      */
     public Map<String, ScraperConfig> getAllConfigs() {
-        return new HashMap<>(configCache);
+        Map<String, ScraperConfig> configs = new HashMap<>();
+        snapshot.get().configs().forEach((websiteId, versioned) -> configs.put(websiteId, versioned.config()));
+        return configs;
     }
 
     /**
      * Reload all configurations
      */
-    public void reloadConfigs() {
-        configCache.clear();
-        loadAllConfigs();
+    public Map<String, List<String>> reloadConfigs() {
+        return loadAllConfigs();
+    }
+
+    /**
+     * Parse and validate one file into the maps being built. An invalid file keeps the
+     * config it defined in the current snapshot, if any.
+     *
+     * @return the loaded config, or null if the file was rejected
+     */
+    private VersionedConfig put(Map<String, VersionedConfig> configs, Map<String, String> sources, Snapshot current,
+                                String source, byte[] content, Map<String, List<String>> rejected) {
+        String version = checksum(content);
+        List<String> errors;
+        ScraperConfig config = null;
+        try {
+            config = yamlMapper.readValue(content, ScraperConfig.class);
+            errors = ScraperConfigValidator.validate(config);
+        } catch (IOException e) {
+            errors = List.of("cannot be parsed: " + e.getMessage());
+        }
+
+        if (!errors.isEmpty()) {
+            log.error("Rejected scraper config {}: {}", source, errors);
+            rejected.put(source, errors);
+            String previousSite = current.sources().get(source);
+            VersionedConfig previous = previousSite != null ? current.configs().get(previousSite) : null;
+            if (previous != null && source.equals(previous.source())) {
+                configs.put(previousSite, previous);
+                sources.put(source, previousSite);
+            }
+            return null;
+        }
+
+        // A file that now names another site no longer defines the old one
+        String previousSite = sources.remove(source);
+        if (previousSite != null && !previousSite.equals(config.getWebsiteId())) {
+            VersionedConfig previous = configs.get(previousSite);
+            if (previous != null && source.equals(previous.source())) {
+                configs.remove(previousSite);
+            }
+        }
+
+        VersionedConfig versioned = new VersionedConfig(config, version, source);
+        configs.put(config.getWebsiteId(), versioned);
+        sources.put(source, config.getWebsiteId());
+        log.info("Loaded scraper config for website: {} (version {})", config.getWebsiteId(), version);
+        return versioned;
+    }
+
+    private List<Path> externalFiles() {
+        if (externalDirectory == null || !Files.isDirectory(externalDirectory)) {
+            return List.of();
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(externalDirectory, "*.{yml,yaml}")) {
+            return StreamSupport.stream(files.spliterator(), false).sorted().toList();
+        } catch (IOException e) {
+            log.error("Failed to list scraper config directory: {}", externalDirectory, e);
+            return List.of();
+        }
+    }
+
+    private void watchLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<Path> changed = new HashSet<>();
+                boolean fullReload = drain(watchService.take(), changed);
+
+                TimeUnit.MILLISECONDS.sleep(WATCH_DEBOUNCE_MILLIS);
+                WatchKey more;
+                while ((more = watchService.poll()) != null) {
+                    fullReload |= drain(more, changed);
+                }
+
+                // Deletes can uncover a classpath config the file was overriding, so rebuild
+                if (fullReload) {
+                    loadAllConfigs();
+                } else if (!changed.isEmpty()) {
+                    reloadFiles(changed);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            log.debug("Scraper config watcher stopped");
+        }
+    }
+
+    /**
+     * Collect changed YAML files from a watch key; returns true if a full reload is needed
+     */
+    private boolean drain(WatchKey key, Set<Path> changed) {
+        boolean fullReload = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                fullReload = true;
+                continue;
+            }
+            Path file = externalDirectory.resolve((Path) event.context());
+            String name = file.getFileName().toString();
+            if (!name.endsWith(".yml") && !name.endsWith(".yaml")) {
+                continue;
+            }
+            if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                fullReload = true;
+            } else {
+                changed.add(file);
+            }
+        }
+        key.reset();
+        return fullReload;
+    }
+
+    private void reloadFiles(Set<Path> files) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot.get();
+            Map<String, VersionedConfig> configs = new HashMap<>(current.configs());
+            Map<String, String> sources = new HashMap<>(current.sources());
+            Map<String, List<String>> rejected = new LinkedHashMap<>();
+            for (Path file : files) {
+                try {
+                    put(configs, sources, current, file.toString(), Files.readAllBytes(file), rejected);
+                } catch (IOException e) {
+                    log.error("Failed to reload config from: {}", file, e);
+                }
+            }
+            snapshot.set(new Snapshot(Collections.unmodifiableMap(configs), Collections.unmodifiableMap(sources)));
+        }
+        log.info("Reloaded {} changed scraper config files", files.size());
+    }
+
+    private static String checksum(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
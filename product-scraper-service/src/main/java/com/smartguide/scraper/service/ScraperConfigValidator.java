@@ -0,0 +1,172 @@
+package com.smartguide.scraper.service;
+
+import com.smartguide.scraper.model.ScraperConfig;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Load-time checks for scraper configs, so a broken file is rejected when it is read
+ * rather than when a job reaches the bad selector. Selectors are checked for syntax
+ * only (balanced brackets and quotes, no dangling combinators); whether they match the
+ * site can only be seen in a browser.
+ */
+final class ScraperConfigValidator {
+
+    private ScraperConfigValidator() {
+    }
+
+    /**
+     * @return problems found; empty if the config is usable
+     */
+    static List<String> validate(ScraperConfig config) {
+        List<String> errors = new ArrayList<>();
+        if (config.getWebsiteId() == null || config.getWebsiteId().isBlank()) {
+            errors.add("websiteId is required");
+        }
+        checkUrl(errors, "baseUrl", config.getBaseUrl(), true);
+        if (config.getOptions() == null) {
+            errors.add("options is required");
+        }
+
+        ScraperConfig.NavigationConfig navigation = config.getNavigation();
+        ScraperConfig.DiscoveryConfig discovery = config.getDiscovery();
+        boolean sitemapOnly = discovery != null && discovery.getUrlPattern() != null && !discovery.getUrlPattern().isBlank();
+        if (navigation == null) {
+            errors.add("navigation is required");
+        } else {
+            checkUrl(errors, "navigation.startUrl", navigation.getStartUrl(), true);
+            checkUrl(errors, "navigation.productListUrl", navigation.getProductListUrl(), false);
+            if (navigation.getPageUrlTemplate() != null && !navigation.getPageUrlTemplate().contains("{page}")) {
+                errors.add("navigation.pageUrlTemplate must contain {page}");
+            }
+            if (navigation.getMaxPages() != null && navigation.getMaxPages() < 1) {
+                errors.add("navigation.maxPages must be at least 1");
+            }
+            checkSelector(errors, "navigation.nextPageSelector", navigation.getNextPageSelector(), false);
+        }
+
+        if (discovery != null && discovery.getUrlPattern() != null) {
+            try {
+                Pattern.compile(discovery.getUrlPattern());
+            } catch (PatternSyntaxException e) {
+                errors.add("discovery.urlPattern is not a valid regex: " + e.getDescription());
+            }
+        }
+
+        ScraperConfig.SelectorConfig selectors = config.getSelectors();
+        if (selectors == null) {
+            errors.add("selectors is required");
+            return errors;
+        }
+        // Listing selectors may be left out when product URLs come from sitemaps only
+        checkSelector(errors, "selectors.productList", selectors.getProductList(), !sitemapOnly);
+        checkSelector(errors, "selectors.productLink", selectors.getProductLink(), false);
+        checkSelector(errors, "selectors.productName", selectors.getProductName(), true);
+        checkSelector(errors, "selectors.productCode", selectors.getProductCode(), false);
+        checkSelector(errors, "selectors.category", selectors.getCategory(), false);
+        checkSelector(errors, "selectors.subCategory", selectors.getSubCategory(), false);
+        checkSelector(errors, "selectors.description", selectors.getDescription(), false);
+        checkSelector(errors, "selectors.annualRate", selectors.getAnnualRate(), false);
+        checkSelector(errors, "selectors.annualFee", selectors.getAnnualFee(), false);
+        checkSelector(errors, "selectors.minIncome", selectors.getMinIncome(), false);
+        checkSelector(errors, "selectors.minCreditScore", selectors.getMinCreditScore(), false);
+        checkSelector(errors, "selectors.keyBenefits", selectors.getKeyBenefits(), false);
+        checkSelector(errors, "selectors.eligibilityCriteria", selectors.getEligibilityCriteria(), false);
+        checkSelector(errors, "selectors.islamicStructure", selectors.getIslamicStructure(), false);
+        return errors;
+    }
+
+    private static void checkUrl(List<String> errors, String field, String value, boolean required) {
+        if (value == null || value.isBlank()) {
+            if (required) {
+                errors.add(field + " is required");
+            }
+            return;
+        }
+        try {
+            URI uri = new URI(value);
+            if ((!"http".equals(uri.getScheme()) && !"https".equals(uri.getScheme())) || uri.getHost() == null) {
+                errors.add(field + " must be an absolute http(s) URL");
+            }
+        } catch (Exception e) {
+            errors.add(field + " is not a valid URL");
+        }
+    }
+
+    private static void checkSelector(List<String> errors, String field, String selector, boolean required) {
+        if (selector == null || selector.isBlank()) {
+            if (required) {
+                errors.add(field + " is required");
+            }
+            return;
+        }
+        String problem = selectorProblem(selector.strip());
+        if (problem != null) {
+            errors.add(field + " '" + selector + "' " + problem);
+        }
+    }
+
+    /**
+     * Syntax problem of a CSS or Playwright selector, or null if it looks well formed
+     */
+    static String selectorProblem(String selector) {
+        String body = selector;
+        boolean css = true;
+        int engine = selector.indexOf('=');
+        if (engine > 0 && selector.substring(0, engine).matches("css|xpath|text|id|data-testid")) {
+            css = selector.startsWith("css=");
+            body = selector.substring(engine + 1).strip();
+        } else if (selector.startsWith("//") || selector.startsWith("(//")) {
+            css = false;
+        }
+        if (body.isEmpty()) {
+            return "has an empty body";
+        }
+
+        Character quote = null;
+        List<Character> open = new ArrayList<>();
+        for (int i = 0; i < body.length(); i++) {
+            char c = body.charAt(i);
+            if (c == '\\') {
+                i++;
+                continue;
+            }
+            if (quote != null) {
+                if (c == quote) {
+                    quote = null;
+                }
+                continue;
+            }
+            switch (c) {
+                case '"', '\'' -> quote = c;
+                case '[', '(' -> open.add(c);
+                case ']', ')' -> {
+                    char expected = c == ']' ? '[' : '(';
+                    if (open.isEmpty() || open.remove(open.size() - 1) != expected) {
+                        return "has an unbalanced '" + c + "'";
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        if (quote != null) {
+            return "has an unterminated string";
+        }
+        if (!open.isEmpty()) {
+            return "has an unclosed '" + open.get(open.size() - 1) + "'";
+        }
+        if (css) {
+            char first = body.charAt(0);
+            char last = body.charAt(body.length() - 1);
+            if (first == ',' || first == '+' || first == '~' || last == ',' || last == '>' || last == '+' || last == '~') {
+                return "starts or ends with a combinator";
+            }
+        }
+        return null;
+    }
+}
@@ -1,16 +1,35 @@
 package com.smartguide.scraper.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smartguide.scraper.model.ScrapedProduct;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Database service for scraper operations
@@ -22,20 +41,84 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class ScraperDatabaseService {
 
+    private static final String UPSERT_STAGING_PRODUCT_SQL = """
+            INSERT INTO staging_products (
+                product_code, product_name, category, sub_category, description,
+                islamic_structure, annual_rate, annual_fee, min_income, min_credit_score,
+                eligibility_criteria, key_benefits, sharia_certified, active,
+                source_website_id, source_url, scraped_at, data_quality_score,
+                scrape_log_id, approval_status, ai_suggested_category, ai_confidence,
+                ai_categorization_json, raw_html_hash, simhash, near_duplicate_of, created_at
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?::jsonb, ?, ?, ?, ?, ?, ?, ?, 'PENDING', ?, ?, ?::jsonb, ?, ?, ?, ?)
+            ON CONFLICT (scrape_log_id, product_code, created_at) DO UPDATE SET
+                product_name = EXCLUDED.product_name,
+                category = EXCLUDED.category,
+                sub_category = EXCLUDED.sub_category,
+                description = EXCLUDED.description,
+                islamic_structure = EXCLUDED.islamic_structure,
+                annual_rate = EXCLUDED.annual_rate,
+                annual_fee = EXCLUDED.annual_fee,
+                min_income = EXCLUDED.min_income,
+                min_credit_score = EXCLUDED.min_credit_score,
+                eligibility_criteria = EXCLUDED.eligibility_criteria,
+                key_benefits = EXCLUDED.key_benefits,
+                sharia_certified = EXCLUDED.sharia_certified,
+                active = EXCLUDED.active,
+                source_url = EXCLUDED.source_url,
+                scraped_at = EXCLUDED.scraped_at,
+                data_quality_score = EXCLUDED.data_quality_score,
+                ai_suggested_category = EXCLUDED.ai_suggested_category,
+                ai_confidence = EXCLUDED.ai_confidence,
+                ai_categorization_json = EXCLUDED.ai_categorization_json,
+                raw_html_hash = EXCLUDED.raw_html_hash,
+                simhash = EXCLUDED.simhash,
+                near_duplicate_of = EXCLUDED.near_duplicate_of,
+                updated_at = NOW()
+            """;
+
+    private static final String SELECT_PRODUCT_FINGERPRINTS_SQL = """
+            SELECT product_code, simhash, product_name, description, key_benefits::text AS key_benefits
+            FROM products
+            """;
+
+    private static final String SELECT_PENDING_STAGING_FINGERPRINTS_SQL = """
+            SELECT DISTINCT ON (product_code) product_code, simhash
+            FROM staging_products
+            WHERE approval_status = 'PENDING' AND simhash IS NOT NULL
+            ORDER BY product_code, created_at DESC
+            """;
+
+    private static final String INSERT_RAW_HTML_BLOB_SQL = """
+            INSERT INTO raw_html_blobs (content_hash, encoding, content, original_size, created_at)
+            VALUES (?, ?, ?, ?, NOW())
+            ON CONFLICT (content_hash) DO NOTHING
+            """;
+
     private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Rows per JDBC batch; the pipeline also hands over products in batches of this size
+     */
+    @Getter
+    @Value("${app.scraper.persistence.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.scraper.persistence.compress-page-text:true}")
+    private boolean compressPageText;
 
     /**
      * Initialize a new scrape log entry
      */
     @Transactional
-    public void initializeScrapeLog(String jobId, String websiteId) {
+    public void initializeScrapeLog(String jobId, String websiteId, String configVersion) {
         String sql = """
-            INSERT INTO scrape_logs (job_id, source_id, status, started_at)
-            SELECT ?, id, 'RUNNING', NOW()
+            INSERT INTO scrape_logs (job_id, source_id, status, started_at, config_version)
+            SELECT ?, id, 'RUNNING', NOW(), ?
             FROM scrape_sources
             WHERE website_id = ?
             """;
-        jdbcTemplate.update(sql, jobId, websiteId);
+        jdbcTemplate.update(sql, jobId, configVersion, websiteId);
         log.info("Initialized scrape log for job: {}", jobId);
     }
 
@@ -44,7 +127,14 @@ public class ScraperDatabaseService {
      */
     @Transactional
     public void completeScrapeLog(String jobId, int productsFound, int productsSaved, String errorMessage) {
-        String status = errorMessage != null ? "FAILED" : "SUCCESS";
+        completeScrapeLog(jobId, productsFound, productsSaved, errorMessage != null ? "FAILED" : "SUCCESS", errorMessage);
+    }
+
+    /**
+     * Complete scrape log with an explicit status (SUCCESS, FAILED or PARTIAL)
+     */
+    @Transactional
+    public void completeScrapeLog(String jobId, int productsFound, int productsSaved, String status, String errorMessage) {
         String sql = """
             UPDATE scrape_logs
             SET status = ?, products_found = ?, products_saved = ?,
@@ -58,81 +148,171 @@ public class ScraperDatabaseService {
     }
 
     /**
-     * Save scraped products to staging table for review
+     * Save scraped products to staging table for review.
+     *
+     * Rows are written with JDBC batches of {@code app.scraper.persistence.batch-size}
+     * and upserted on the (scrape_log_id, product_code, created_at) unique index. Every row
+     * of a job is stamped with the job's start time as created_at, which keeps the rows of
+     * one job in one staging_products partition and the upsert key per job. If a batch fails,
+     * it is rolled back to a savepoint and replayed row by row so that every failing
+     * product is reported individually while the rest of the batch is still saved.
      */
     @Transactional
     public int saveProducts(List<ScrapedProduct> products, LocalDateTime scrapedAt, String jobId) {
-        int savedCount = 0;
-
-        // Get scrape_log_id from job_id
-        Long scrapeLogId = getScrapeLogIdByJobId(jobId);
-
-        String insertSql = """
-            INSERT INTO staging_products (
-                product_code, product_name, category, sub_category, description,
-                islamic_structure, annual_rate, annual_fee, min_income, min_credit_score,
-                eligibility_criteria, key_benefits, sharia_certified, active,
-                source_website_id, source_url, scraped_at, data_quality_score,
-                scrape_log_id, approval_status, ai_suggested_category, ai_confidence,
-                ai_categorization_json, raw_html, created_at
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?::jsonb, ?, ?, ?, ?, ?, ?, ?, 'PENDING', ?, ?, ?::jsonb, ?, NOW())
-            """;
+        ScrapeLogRef scrapeLog = getScrapeLogByJobId(jobId);
+        Long scrapeLogId = scrapeLog != null ? scrapeLog.id() : null;
+        LocalDateTime createdAt = scrapeLog != null ? scrapeLog.startedAt() : scrapedAt;
 
+        List<Object[]> rows = new ArrayList<>(products.size());
+        List<ScrapedProduct> rowProducts = new ArrayList<>(products.size());
+        Map<String, Object[]> blobs = new LinkedHashMap<>();
         for (ScrapedProduct product : products) {
             try {
-                // Generate product code if missing
-                String productCode = product.getProductCode() != null
-                        ? product.getProductCode()
-                        : generateProductCode(product);
-
-                // Convert lists/maps to JSON strings
-                String keyBenefitsJson = product.getKeyBenefits() != null
-                        ? convertToJson(product.getKeyBenefits())
-                        : "[]";
-
-                String eligibilityJson = product.getEligibilityCriteria() != null
-                        ? convertToJson(product.getEligibilityCriteria())
-                        : "{}";
-
-                String aiCategorizationJson = product.getAiCategorizationJson() != null
-                        ? convertToJson(product.getAiCategorizationJson())
-                        : "{}";
-
-                jdbcTemplate.update(insertSql,
-                        productCode,
-                        product.getProductName(),
-                        product.getCategory(),
-                        product.getSubCategory(),
-                        product.getDescription(),
-                        product.getIslamicStructure(),
-                        product.getAnnualRate(),
-                        product.getAnnualFee(),
-                        product.getMinIncome(),
-                        product.getMinCreditScore(),
-                        eligibilityJson,
-                        keyBenefitsJson,
-                        product.getShariaCertified(),
-                        product.getActive(),
-                        product.getSourceWebsiteId(),
-                        product.getSourceUrl(),
-                        scrapedAt,
-                        product.getDataQualityScore(),
-                        scrapeLogId,
-                        product.getAiSuggestedCategory(),
-                        product.getAiConfidence(),
-                        aiCategorizationJson,
-                        product.getRawHtml()
-                );
-
-                savedCount++;
+                String contentHash = null;
+                if (product.getPageText() != null && !product.getPageText().isEmpty()) {
+                    byte[] content = product.getPageText().getBytes(StandardCharsets.UTF_8);
+                    contentHash = sha256Hex(content);
+                    if (!blobs.containsKey(contentHash)) {
+                        blobs.put(contentHash, toBlobRow(contentHash, content));
+                    }
+                }
+                rows.add(toRow(product, scrapedAt, scrapeLogId, createdAt, contentHash));
+                rowProducts.add(product);
             } catch (Exception e) {
-                log.error("Failed to save product: {}", product.getProductName(), e);
+                log.error("Failed to prepare product: {}", product.getProductName(), e);
             }
         }
 
+        // Page content is content-addressed, so identical pages are stored once
+        if (!blobs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_RAW_HTML_BLOB_SQL, new ArrayList<>(blobs.values()));
+        }
+
+        int savedCount = 0;
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, rows.size());
+            savedCount += saveBatch(rows.subList(from, to), rowProducts.subList(from, to));
+        }
         return savedCount;
     }
 
+    /**
+     * Write one batch inside a savepoint, falling back to row-by-row writes on failure
+     */
+    private int saveBatch(List<Object[]> rows, List<ScrapedProduct> rowProducts) {
+        Integer saved = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(UPSERT_STAGING_PRODUCT_SQL)) {
+                Savepoint batchSavepoint = connection.setSavepoint();
+                try {
+                    for (Object[] row : rows) {
+                        bind(ps, row);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    connection.releaseSavepoint(batchSavepoint);
+                    return rows.size();
+                } catch (SQLException e) {
+                    connection.rollback(batchSavepoint);
+                    log.warn("Batch of {} products failed, retrying row by row: {}", rows.size(), e.getMessage());
+                }
+
+                ps.clearBatch();
+                int count = 0;
+                for (int i = 0; i < rows.size(); i++) {
+                    Savepoint rowSavepoint = connection.setSavepoint();
+                    try {
+                        bind(ps, rows.get(i));
+                        ps.executeUpdate();
+                        connection.releaseSavepoint(rowSavepoint);
+                        count++;
+                    } catch (SQLException e) {
+                        connection.rollback(rowSavepoint);
+                        ScrapedProduct product = rowProducts.get(i);
+                        log.error("Failed to save product: {} ({}): {}",
+                                product.getProductName(), rows.get(i)[0], e.getMessage());
+                    }
+                }
+                return count;
+            }
+        });
+        return saved != null ? saved : 0;
+    }
+
+    private Object[] toBlobRow(String contentHash, byte[] content) throws IOException {
+        if (!compressPageText) {
+            return new Object[]{contentHash, "IDENTITY", content, content.length};
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 3 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(content);
+        }
+        return new Object[]{contentHash, "GZIP", compressed.toByteArray(), content.length};
+    }
+
+    private String sha256Hex(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private Object[] toRow(ScrapedProduct product, LocalDateTime scrapedAt, Long scrapeLogId,
+                           LocalDateTime createdAt, String contentHash) {
+        // Generate product code if missing
+        String productCode = product.getProductCode() != null
+                ? product.getProductCode()
+                : generateProductCode(product);
+
+        // Convert lists/maps to JSON strings
+        String keyBenefitsJson = product.getKeyBenefits() != null
+                ? convertToJson(product.getKeyBenefits())
+                : "[]";
+
+        String eligibilityJson = product.getEligibilityCriteria() != null
+                ? convertToJson(product.getEligibilityCriteria())
+                : "{}";
+
+        String aiCategorizationJson = product.getAiCategorizationJson() != null
+                ? convertToJson(product.getAiCategorizationJson())
+                : "{}";
+
+        return new Object[]{
+                productCode,
+                product.getProductName(),
+                product.getCategory(),
+                product.getSubCategory(),
+                product.getDescription(),
+                product.getIslamicStructure(),
+                product.getAnnualRate(),
+                product.getAnnualFee(),
+                product.getMinIncome(),
+                product.getMinCreditScore(),
+                eligibilityJson,
+                keyBenefitsJson,
+                product.getShariaCertified() != null ? product.getShariaCertified() : Boolean.TRUE,
+                product.getActive(),
+                product.getSourceWebsiteId(),
+                product.getSourceUrl(),
+                scrapedAt,
+                product.getDataQualityScore(),
+                scrapeLogId,
+                product.getAiSuggestedCategory(),
+                product.getAiConfidence(),
+                aiCategorizationJson,
+                contentHash,
+                product.getSimhash(),
+                product.getNearDuplicateOf(),
+                createdAt
+        };
+    }
+
+    private void bind(PreparedStatement ps, Object[] row) throws SQLException {
+        for (int i = 0; i < row.length; i++) {
+            StatementCreatorUtils.setParameterValue(ps, i + 1, SqlTypeValue.TYPE_UNKNOWN, row[i]);
+        }
+    }
+
     /**
      * Update last scraped time for a website
      */
@@ -142,6 +322,15 @@ public class ScraperDatabaseService {
         jdbcTemplate.update(sql, timestamp, websiteId);
     }
 
+    /**
+     * Last successful scrape time of a website, or null if it was never scraped
+     */
+    public LocalDateTime getLastScrapedTime(String websiteId) {
+        String sql = "SELECT last_scraped_at FROM scrape_sources WHERE website_id = ?";
+        List<Timestamp> results = jdbcTemplate.queryForList(sql, Timestamp.class, websiteId);
+        return results.isEmpty() || results.get(0) == null ? null : results.get(0).toLocalDateTime();
+    }
+
     /**
      * Get scrape log by job ID
      */
@@ -164,6 +353,23 @@ public class ScraperDatabaseService {
         return jdbcTemplate.queryForList(sql);
     }
 
+    /**
+     * Active sources that have a schedule, with the start of their most recent job
+     * (or the source's creation time) and whether a job is still running
+     */
+    public List<Map<String, Object>> getScheduledSources() {
+        String sql = """
+            SELECT ss.website_id, ss.schedule_cron,
+                   COALESCE(MAX(sl.started_at), ss.created_at) AS last_run_at,
+                   COALESCE(BOOL_OR(sl.status = 'RUNNING' AND sl.started_at > NOW() - INTERVAL '1 day'), false) AS running
+            FROM scrape_sources ss
+            LEFT JOIN scrape_logs sl ON sl.source_id = ss.id
+            WHERE ss.active AND ss.schedule_cron IS NOT NULL
+            GROUP BY ss.id, ss.website_id, ss.schedule_cron, ss.created_at
+            """;
+        return jdbcTemplate.queryForList(sql);
+    }
+
     /**
      * Get scrape history for a website
      */
@@ -180,22 +386,64 @@ public class ScraperDatabaseService {
     }
 
     /**
-     * Get scrape_log_id from job_id
+     * Get scrape_log id and start time (its partition key) from job_id
      */
-    private Long getScrapeLogIdByJobId(String jobId) {
-        String sql = "SELECT id FROM scrape_logs WHERE job_id = ?";
+    private ScrapeLogRef getScrapeLogByJobId(String jobId) {
+        String sql = "SELECT id, started_at FROM scrape_logs WHERE job_id = ?";
         try {
-            return jdbcTemplate.queryForObject(sql, Long.class, jobId);
+            return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> new ScrapeLogRef(
+                    rs.getLong("id"), rs.getTimestamp("started_at").toLocalDateTime()), jobId);
         } catch (Exception e) {
             log.error("Failed to get scrape_log_id for job: {}", jobId, e);
             return null;
         }
     }
 
+    private record ScrapeLogRef(Long id, LocalDateTime startedAt) {
+    }
+
+    /**
+     * Fingerprints of production products and pending staging products. Products stored
+     * without a fingerprint come with their text, so one can be computed.
+     */
+    public List<StoredFingerprint> getCatalogFingerprints() {
+        List<StoredFingerprint> fingerprints = new ArrayList<>();
+        jdbcTemplate.query(SELECT_PRODUCT_FINGERPRINTS_SQL, rs -> {
+            long simhash = rs.getLong("simhash");
+            boolean stored = !rs.wasNull();
+            fingerprints.add(new StoredFingerprint(
+                    rs.getString("product_code"),
+                    stored ? simhash : null,
+                    stored ? null : rs.getString("product_name"),
+                    stored ? null : rs.getString("description"),
+                    stored ? null : parseStringList(rs.getString("key_benefits"))));
+        });
+        jdbcTemplate.query(SELECT_PENDING_STAGING_FINGERPRINTS_SQL, rs -> {
+            fingerprints.add(new StoredFingerprint(rs.getString("product_code"), rs.getLong("simhash"), null, null, null));
+        });
+        return fingerprints;
+    }
+
+    public record StoredFingerprint(String productCode, Long simhash, String productName,
+                                    String description, List<String> keyBenefits) {
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> parseStringList(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, List.class);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     /**
      * Generate product code from product data
      */
-    private String generateProductCode(ScrapedProduct product) {
+    static String generateProductCode(ScrapedProduct product) {
         String prefix = product.getSourceWebsiteId() != null
                 ? product.getSourceWebsiteId().toUpperCase()
                 : "UNK";
@@ -212,8 +460,7 @@ public class ScraperDatabaseService {
      */
     private String convertToJson(Object obj) {
         try {
-            com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            return mapper.writeValueAsString(obj);
+            return objectMapper.writeValueAsString(obj);
         } catch (Exception e) {
             log.error("Failed to convert to JSON", e);
             return obj instanceof List ? "[]" : "{}";
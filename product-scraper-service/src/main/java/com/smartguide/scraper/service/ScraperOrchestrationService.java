@@ -1,13 +1,14 @@
 package com.smartguide.scraper.service;
 
 import com.smartguide.scraper.model.ScraperConfig;
-import com.smartguide.scraper.model.ScrapedProduct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -19,62 +20,74 @@ import java.util.UUID;
 public class ScraperOrchestrationService {
 
     private final ScraperConfigLoader configLoader;
-    private final PlaywrightScraperEngine scraperEngine;
-    private final LLMDataEnricher llmEnricher;
+    private final ScrapingPipeline scrapingPipeline;
     private final ScraperDatabaseService databaseService;
 
     /**
      * Execute scraping job for a specific website
      */
     public String executeScrapingJob(String websiteId) {
+        return executeScrapingJob(websiteId, null);
+    }
+
+    /**
+     * Execute a scraping job that records its pages to, or replays them from, the archive.
+     * Only a clean, non-replayed job updates the website's last scraped time.
+     */
+    public String executeScrapingJob(String websiteId, ScrapeArchive archive) {
         String jobId = UUID.randomUUID().toString();
-        log.info("Starting scraping job {} for website: {}", jobId, websiteId);
+        log.info("Starting scraping job {} for website: {}{}", jobId, websiteId,
+                archive != null ? " (" + archive.getMode() + " " + archive.getDirectory() + ")" : "");
 
         try {
-            // Load configuration
-            ScraperConfig config = configLoader.getConfig(websiteId);
-            if (config == null) {
+            // Pin the current config version; later reloads do not affect this job
+            ScraperConfigLoader.VersionedConfig pinned = configLoader.getVersionedConfig(websiteId);
+            if (pinned == null) {
                 throw new IllegalArgumentException("No configuration found for website: " + websiteId);
             }
+            ScraperConfig config = pinned.config();
 
             // Initialize scrape log
-            databaseService.initializeScrapeLog(jobId, websiteId);
-
-            // Scrape website
-            log.info("Starting web scraping for: {}", config.getWebsiteName());
-            List<ScrapedProduct> scrapedProducts = scraperEngine.scrapeWebsite(config);
-
-            log.info("Scraped {} products, starting enrichment", scrapedProducts.size());
-
-            // Enrich with AI if enabled
-            if (config.getOptions().getAiEnrichment() != null && config.getOptions().getAiEnrichment()) {
-                for (ScrapedProduct product : scrapedProducts) {
-                    try {
-                        llmEnricher.enrichProduct(product);
-                    } catch (Exception e) {
-                        log.error("Failed to enrich product: {}", product.getProductName(), e);
-                    }
+            databaseService.initializeScrapeLog(jobId, websiteId, pinned.version());
+
+            // Run the staged pipeline: products are enriched and saved as they are scraped
+            log.info("Starting web scraping for: {} (config version {})", config.getWebsiteName(), pinned.version());
+            LocalDateTime startedAt = LocalDateTime.now();
+            ScrapingPipeline.Result result = scrapingPipeline.run(jobId, config, startedAt, archive);
+
+            // Update scrape log; failed or aborted page fetches and failed writes make the job PARTIAL
+            if (!result.isClean()) {
+                List<String> problems = new ArrayList<>();
+                if (result.isAborted()) {
+                    problems.add(String.format("Aborted after %d of %d product pages failed", result.getPagesFailed(), result.getPagesAttempted()));
+                } else if (result.getPagesFailed() > 0) {
+                    problems.add(String.format("%d of %d product pages failed", result.getPagesFailed(), result.getPagesAttempted()));
                 }
-            } else {
-                // Calculate quality scores even without AI enrichment
-                for (ScrapedProduct product : scrapedProducts) {
-                    product.setDataQualityScore(llmEnricher.calculateQualityScore(product));
+                if (result.getProductsUnsaved() > 0) {
+                    problems.add(String.format("%d products could not be saved", result.getProductsUnsaved()));
                 }
+                String message = String.join("; ", problems);
+                databaseService.completeScrapeLog(jobId, result.getProductsFound(), result.getProductsSaved(), "PARTIAL", message);
+            } else {
+                databaseService.completeScrapeLog(jobId, result.getProductsFound(), result.getProductsSaved(), null);
+            }
+            // Only a clean run may advance the time sitemap lastmod checks compare against;
+            // otherwise pages missed by this run would be skipped as unchanged next time.
+            // The start time is used so pages changed during the job are caught.
+            if (result.isClean() && (archive == null || !archive.isReplay())) {
+                databaseService.updateLastScrapedTime(websiteId, startedAt);
             }
-
-            // Save products to staging database
-            log.info("Saving products to staging table");
-            int savedCount = databaseService.saveProducts(scrapedProducts, LocalDateTime.now(), jobId);
-
-            // Update scrape log
-            databaseService.completeScrapeLog(jobId, scrapedProducts.size(), savedCount, null);
-            databaseService.updateLastScrapedTime(websiteId, LocalDateTime.now());
 
             log.info("Scraping job {} completed successfully. Saved {}/{} products",
-                    jobId, savedCount, scrapedProducts.size());
+                    jobId, result.getProductsSaved(), result.getProductsFound());
 
             return jobId;
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Scraping job {} interrupted", jobId);
+            databaseService.completeScrapeLog(jobId, 0, 0, "Interrupted");
+            throw new RuntimeException("Scraping job interrupted", e);
         } catch (Exception e) {
             log.error("Scraping job {} failed", jobId, e);
             databaseService.completeScrapeLog(jobId, 0, 0, e.getMessage());
@@ -92,14 +105,14 @@ public class ScraperOrchestrationService {
     /**
      * Get all configured scrape sources
      */
-    public List<Object> getAllScrapeSources() {
+    public List<Map<String, Object>> getAllScrapeSources() {
         return databaseService.getAllScrapeSources();
     }
 
     /**
      * Get scrape history for a website
      */
-    public List<Object> getWebsiteScrapeHistory(String websiteId) {
+    public List<Map<String, Object>> getWebsiteScrapeHistory(String websiteId) {
         return databaseService.getScrapeHistory(websiteId);
     }
 }
@@ -0,0 +1,301 @@
+package com.smartguide.scraper.service;
+
+import com.smartguide.scraper.config.ScraperPipelineConfig;
+import com.smartguide.scraper.model.ScrapedProduct;
+import com.smartguide.scraper.model.ScraperConfig;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Staged scraping pipeline: fetch -> extract -> enrich -> persist.
+ *
+ * Stages are connected by bounded queues so products flow through as soon as they
+ * are extracted. A full queue blocks the upstream stage, which keeps the number of
+ * products (and their page text) held in memory bounded by the queue capacities.
+ * If any stage dies, the other stages are cancelled, the queues are drained and
+ * producers stop blocking on them, so a failure ends the run instead of hanging it.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ScrapingPipeline {
+
+    /**
+     * Sentinel marking the end of a stage's input
+     */
+    private static final ScrapedProduct END_OF_STREAM = new ScrapedProduct();
+
+    /**
+     * How often a producer waiting on a full queue checks whether the run has failed
+     */
+    private static final long FAILURE_CHECK_MILLIS = 100;
+
+    private final PlaywrightScraperEngine scraperEngine;
+    private final LLMDataEnricher llmEnricher;
+    private final ScraperDatabaseService databaseService;
+    private final NearDuplicateIndex nearDuplicateIndex;
+    private final ScraperPipelineConfig pipelineConfig;
+
+    /**
+     * Run the pipeline for a single scrape job and block until every stage has drained
+     */
+    public Result run(String jobId, ScraperConfig config, LocalDateTime scrapedAt) throws InterruptedException {
+        return run(jobId, config, scrapedAt, null);
+    }
+
+    /**
+     * Run the pipeline with the fetch stage recording to, or replaying from, the archive
+     */
+    public Result run(String jobId, ScraperConfig config, LocalDateTime scrapedAt, ScrapeArchive archive)
+            throws InterruptedException {
+        boolean aiEnrichment = config.getOptions().getAiEnrichment() != null && config.getOptions().getAiEnrichment();
+        int enrichWorkers = aiEnrichment ? pipelineConfig.getEnrichConcurrency() : 1;
+
+        BlockingQueue<ScrapedProduct> extracted = new ArrayBlockingQueue<>(pipelineConfig.getQueueCapacity());
+        BlockingQueue<ScrapedProduct> enriched = new ArrayBlockingQueue<>(pipelineConfig.getQueueCapacity());
+        AtomicInteger savedCount = new AtomicInteger();
+        AtomicInteger unsavedCount = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Future<?>> futures = new CopyOnWriteArrayList<>();
+
+        Consumer<Throwable> abort = cause -> {
+            if (failure.compareAndSet(null, cause)) {
+                futures.forEach(future -> future.cancel(true));
+                extracted.clear();
+                enriched.clear();
+            }
+        };
+
+        ExecutorService stages = Executors.newFixedThreadPool(enrichWorkers + 1);
+        try {
+            List<Future<?>> enrichStage = new ArrayList<>();
+            for (int i = 0; i < enrichWorkers; i++) {
+                enrichStage.add(startStage(stages, "enrich", abort,
+                        () -> enrich(extracted, enriched, aiEnrichment, failure)));
+            }
+            Future<?> persistStage = startStage(stages, "persist", abort,
+                    () -> persist(enriched, scrapedAt, jobId, savedCount, unsavedCount));
+            futures.addAll(enrichStage);
+            futures.add(persistStage);
+            if (failure.get() != null) {
+                // A stage failed before its siblings were registered for cancellation
+                futures.forEach(future -> future.cancel(true));
+            }
+
+            // Fetch + extract run on the caller thread and feed the enrichment stage
+            PlaywrightScraperEngine.FetchResult fetchResult;
+            try {
+                fetchResult = scraperEngine.scrapeWebsite(config, pipelineConfig.getFetchConcurrency(), product -> {
+                    if (!put(extracted, product, failure)) {
+                        // Stops the fetch workers instead of fetching pages nobody will process
+                        throw new IllegalStateException("Pipeline stopped after a stage failed");
+                    }
+                }, archive);
+            } finally {
+                for (int i = 0; i < enrichWorkers; i++) {
+                    put(extracted, END_OF_STREAM, failure);
+                }
+            }
+
+            awaitAll(enrichStage, failure);
+            put(enriched, END_OF_STREAM, failure);
+            awaitAll(List.of(persistStage), failure);
+
+            return new Result(fetchResult.getProductsFound(), savedCount.get(), unsavedCount.get(),
+                    fetchResult.getPagesAttempted(), fetchResult.getPagesFailed(), fetchResult.isAborted());
+        } finally {
+            stages.shutdownNow();
+        }
+    }
+
+    /**
+     * Enrichment stage: enrich with AI if enabled, otherwise only compute quality scores.
+     * With AI enrichment, each worker groups up to {@code enrichBatchSize} queued products
+     * into a single LLM request; the number of workers bounds concurrent LLM calls.
+     */
+    private void enrich(BlockingQueue<ScrapedProduct> input, BlockingQueue<ScrapedProduct> output,
+                        boolean aiEnrichment, AtomicReference<Throwable> failure) throws InterruptedException {
+        int batchSize = aiEnrichment ? pipelineConfig.getEnrichBatchSize() : 1;
+        List<ScrapedProduct> batch = new ArrayList<>(batchSize);
+        boolean finished = false;
+
+        while (!finished) {
+            ScrapedProduct first = input.take();
+            if (first == END_OF_STREAM) {
+                break;
+            }
+            batch.add(first);
+
+            // Only take products that are already waiting; never delay a partial batch
+            while (batch.size() < batchSize) {
+                ScrapedProduct next = input.poll();
+                if (next == null) {
+                    break;
+                }
+                if (next == END_OF_STREAM) {
+                    finished = true;
+                    break;
+                }
+                batch.add(next);
+            }
+
+            try {
+                if (aiEnrichment) {
+                    llmEnricher.enrichProducts(batch);
+                } else {
+                    for (ScrapedProduct product : batch) {
+                        product.setDataQualityScore(llmEnricher.calculateQualityScore(product));
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Failed to enrich batch of {} products", batch.size(), e);
+            }
+            for (ScrapedProduct product : batch) {
+                put(output, product, failure);
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Persistence stage: group products into batches, flushing when a batch is full
+     * or when no new product arrived within the flush interval. Each batch is linked to
+     * near-duplicates just before it is written.
+     */
+    private void persist(BlockingQueue<ScrapedProduct> input, LocalDateTime scrapedAt, String jobId,
+                         AtomicInteger savedCount, AtomicInteger unsavedCount) throws InterruptedException {
+        // Batches match the JDBC batch size, so one write is one round trip per table
+        int batchSize = databaseService.getBatchSize();
+        List<ScrapedProduct> batch = new ArrayList<>(batchSize);
+        boolean finished = false;
+
+        while (!finished) {
+            ScrapedProduct first = input.take();
+            if (first == END_OF_STREAM) {
+                break;
+            }
+            batch.add(first);
+
+            while (batch.size() < batchSize) {
+                ScrapedProduct next = input.poll(pipelineConfig.getPersistFlushMillis(), TimeUnit.MILLISECONDS);
+                if (next == null) {
+                    break;
+                }
+                if (next == END_OF_STREAM) {
+                    finished = true;
+                    break;
+                }
+                batch.add(next);
+            }
+
+            try {
+                nearDuplicateIndex.link(batch);
+                int saved = databaseService.saveProducts(batch, scrapedAt, jobId);
+                savedCount.addAndGet(saved);
+                unsavedCount.addAndGet(batch.size() - saved);
+            } catch (Exception e) {
+                log.error("Failed to persist batch of {} products for job {}", batch.size(), jobId, e);
+                unsavedCount.addAndGet(batch.size());
+            }
+            // Release the batch (and its page text) as soon as it is written
+            batch.clear();
+        }
+    }
+
+    /**
+     * Body of a stage running on the pipeline's executor
+     */
+    private interface Stage {
+        void run() throws InterruptedException;
+    }
+
+    /**
+     * Start a stage that aborts the whole run if it dies, whatever it dies with
+     */
+    private Future<?> startStage(ExecutorService stages, String name, Consumer<Throwable> abort, Stage stage) {
+        return stages.submit(() -> {
+            try {
+                stage.run();
+            } catch (Throwable t) {
+                if (!(t instanceof InterruptedException)) {
+                    log.error("Pipeline {} stage failed, stopping the run", name, t);
+                }
+                abort.accept(t);
+                throw t;
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Put into a stage queue, waiting while it is full; once the run has failed nothing
+     * drains the queue any more, so the item is dropped instead of blocking forever
+     *
+     * @return false if the item was dropped
+     */
+    private static boolean put(BlockingQueue<ScrapedProduct> queue, ScrapedProduct product,
+                               AtomicReference<Throwable> failure) throws InterruptedException {
+        while (failure.get() == null) {
+            if (queue.offer(product, FAILURE_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void awaitAll(List<Future<?>> futures, AtomicReference<Throwable> failure) throws InterruptedException {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException | CancellationException e) {
+                Throwable cause = failure.get() != null ? failure.get() : e.getCause();
+                throw new IllegalStateException("Pipeline stage failed", cause);
+            }
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Pipeline stage failed", failure.get());
+        }
+    }
+
+    /**
+     * Outcome of a pipeline run
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Result {
+        private final int productsFound;
+        private final int productsSaved;
+        /**
+         * Products whose write failed
+         */
+        private final int productsUnsaved;
+        private final int pagesAttempted;
+        private final int pagesFailed;
+        private final boolean aborted;
+
+        /**
+         * Every page was fetched and every product written
+         */
+        public boolean isClean() {
+            return !aborted && pagesFailed == 0 && productsUnsaved == 0;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.smartguide.scraper.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 64-bit SimHash over the normalized name, description and key benefits of a product.
+ *
+ * Features are word unigrams and bigrams; name features count twice. Texts that differ
+ * in a few words get fingerprints that differ in a few bits, so near-duplicates are found
+ * by Hamming distance instead of comparing texts.
+ */
+final class SimHash {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private static final int NAME_WEIGHT = 2;
+
+    private SimHash() {
+    }
+
+    /**
+     * Fingerprint of the product text, or null when it has fewer than {@code minFeatures} features
+     */
+    static Long fingerprint(String name, String description, List<String> benefits, int minFeatures) {
+        int[] weights = new int[64];
+        int features = addFeatures(weights, name, NAME_WEIGHT);
+        features += addFeatures(weights, description, 1);
+        if (benefits != null) {
+            for (String benefit : benefits) {
+                features += addFeatures(weights, benefit, 1);
+            }
+        }
+        if (features < minFeatures) {
+            return null;
+        }
+
+        long fingerprint = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    /**
+     * Lower-case, strip diacritics (including Arabic harakat) and split on anything
+     * that is not a letter or digit
+     */
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        normalized = MARKS.matcher(normalized).replaceAll("").toLowerCase(Locale.ROOT);
+        for (String token : NON_WORD.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static int addFeatures(int[] weights, String text, int weight) {
+        List<String> tokens = tokens(text);
+        for (int i = 0; i < tokens.size(); i++) {
+            add(weights, hash(tokens.get(i)), weight);
+            if (i > 0) {
+                add(weights, hash(tokens.get(i - 1) + ' ' + tokens.get(i)), weight);
+            }
+        }
+        return tokens.isEmpty() ? 0 : tokens.size() * 2 - 1;
+    }
+
+    private static void add(int[] weights, long hash, int weight) {
+        for (int bit = 0; bit < 64; bit++) {
+            weights[bit] += ((hash >>> bit) & 1) != 0 ? weight : -weight;
+        }
+    }
+
+    /**
+     * FNV-1a over the UTF-16 code units, with a 64-bit finalizer so every bit depends on
+     * every character
+     */
+    static long hash(String feature) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < feature.length(); i++) {
+            h ^= feature.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,258 @@
+package com.smartguide.scraper.service;
+
+import com.smartguide.scraper.config.SitemapDiscoveryConfig;
+import com.smartguide.scraper.model.ScraperConfig;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Discovers product URLs from a site's sitemaps instead of rendering listing pages.
+ *
+ * Sitemaps come from the site config, else from robots.txt, else /sitemap.xml. Each is
+ * streamed over plain HTTP and parsed with StAX (gzip is detected from the content), and
+ * sitemap indexes are followed breadth first. Only URLs matching the site's urlPattern
+ * are kept; with onlyChanged, URLs and child sitemaps whose lastmod is before the site's
+ * last scrape are skipped. Discovery only applies to sites with a urlPattern.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class SitemapDiscovery {
+
+    private final SitemapDiscoveryConfig discoveryConfig;
+    private final RobotsTxtService robotsTxtService;
+    private final HostRateLimiter hostRateLimiter;
+    private final ScraperDatabaseService databaseService;
+
+    private HttpClient httpClient;
+    private XMLInputFactory xmlInputFactory;
+
+    @PostConstruct
+    void init() {
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(discoveryConfig.getTimeoutMs()))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        xmlInputFactory = XMLInputFactory.newFactory();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    /**
+     * Product URLs from the site's sitemaps, canonicalized and in sitemap order. Empty when
+     * discovery does not apply or no sitemap URL matched the pattern, in which case the
+     * caller falls back to crawling listing pages. An empty list (nothing changed since the
+     * last scrape) is a valid result.
+     */
+    public Optional<List<String>> discover(ScraperConfig config) throws InterruptedException {
+        ScraperConfig.DiscoveryConfig discovery = config.getDiscovery();
+        if (!discoveryConfig.getEnabled() || discovery == null
+                || discovery.getUrlPattern() == null || discovery.getUrlPattern().isBlank()) {
+            return Optional.empty();
+        }
+
+        long start = System.nanoTime();
+        Pattern urlPattern = Pattern.compile(discovery.getUrlPattern());
+        LocalDateTime changedSince = discovery.getOnlyChanged() == null || discovery.getOnlyChanged()
+                ? databaseService.getLastScrapedTime(config.getWebsiteId())
+                : null;
+
+        Deque<String> pending = new ArrayDeque<>(sitemapUrls(config));
+        Set<String> seenSitemaps = new HashSet<>();
+        Set<String> urls = new LinkedHashSet<>();
+        int matched = 0;
+        int sitemapsRead = 0;
+
+        while (!pending.isEmpty() && sitemapsRead < discoveryConfig.getMaxSitemaps()
+                && urls.size() < discoveryConfig.getMaxUrls()) {
+            String sitemapUrl = pending.poll();
+            if (!seenSitemaps.add(sitemapUrl) || !robotsTxtService.isAllowed(sitemapUrl)) {
+                continue;
+            }
+            sitemapsRead++;
+
+            List<Entry> entries = new ArrayList<>();
+            boolean index;
+            try {
+                index = read(sitemapUrl, config, entries);
+            } catch (IOException | XMLStreamException | RuntimeException e) {
+                log.warn("Failed to read sitemap {}: {}", sitemapUrl, e.getMessage());
+                continue;
+            }
+
+            for (Entry entry : entries) {
+                boolean changed = entry.isChangedSince(changedSince);
+                if (index) {
+                    if (changed) {
+                        pending.add(entry.location());
+                    }
+                    continue;
+                }
+                String canonical = UrlCanonicalizer.canonicalize(entry.location());
+                if (canonical == null || !urlPattern.matcher(canonical).find()) {
+                    continue;
+                }
+                matched++;
+                if (changed && urls.size() < discoveryConfig.getMaxUrls()) {
+                    urls.add(canonical);
+                }
+            }
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        if (matched == 0) {
+            log.info("Sitemap discovery found no product URLs for {} ({} sitemaps, {} ms), crawling listing pages",
+                    config.getWebsiteId(), sitemapsRead, elapsedMs);
+            return Optional.empty();
+        }
+        log.info("Sitemap discovery for {}: {} product URLs, {} changed since {} ({} sitemaps, {} ms)",
+                config.getWebsiteId(), matched, urls.size(), changedSince, sitemapsRead, elapsedMs);
+        return Optional.of(new ArrayList<>(urls));
+    }
+
+    private List<String> sitemapUrls(ScraperConfig config) {
+        List<String> configured = config.getDiscovery().getSitemapUrls();
+        if (configured != null && !configured.isEmpty()) {
+            return configured;
+        }
+        List<String> fromRobots = robotsTxtService.getSitemaps(config.getBaseUrl());
+        if (!fromRobots.isEmpty()) {
+            return fromRobots;
+        }
+        String baseUrl = config.getBaseUrl().endsWith("/")
+                ? config.getBaseUrl().substring(0, config.getBaseUrl().length() - 1)
+                : config.getBaseUrl();
+        return List.of(baseUrl + "/sitemap.xml");
+    }
+
+    /**
+     * Stream one sitemap into entries; returns true if it is a sitemap index
+     */
+    private boolean read(String sitemapUrl, ScraperConfig config, List<Entry> entries)
+            throws IOException, XMLStreamException, InterruptedException {
+        hostRateLimiter.acquire(sitemapUrl, config);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(sitemapUrl))
+                .timeout(Duration.ofMillis(discoveryConfig.getTimeoutMs()))
+                .GET()
+                .build();
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = decode(response.body())) {
+            if (response.statusCode() != 200) {
+                throw new IOException("HTTP " + response.statusCode());
+            }
+            return parse(body, entries);
+        }
+    }
+
+    /**
+     * Wrap the body in gzip decoding when it starts with the gzip magic bytes, whatever
+     * the URL or content type says
+     */
+    private InputStream decode(InputStream raw) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(raw);
+        in.mark(2);
+        int first = in.read();
+        int second = in.read();
+        in.reset();
+        return first == 0x1f && second == 0x8b ? new GZIPInputStream(in) : in;
+    }
+
+    private boolean parse(InputStream in, List<Entry> entries) throws XMLStreamException {
+        XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(in);
+        try {
+            boolean index = false;
+            String location = null;
+            String lastModified = null;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if (name.equals("sitemapindex")) {
+                        index = true;
+                    } else if (name.equals("url") || name.equals("sitemap")) {
+                        location = null;
+                        lastModified = null;
+                    } else if (name.equals("loc")) {
+                        location = reader.getElementText().strip();
+                    } else if (name.equals("lastmod")) {
+                        lastModified = reader.getElementText().strip();
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if ((name.equals("url") || name.equals("sitemap")) && location != null && !location.isEmpty()) {
+                        entries.add(new Entry(location, parseLastModified(lastModified),
+                                lastModified != null && lastModified.length() == 10));
+                    }
+                }
+            }
+            return index;
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * W3C datetime as used by sitemaps: a date, or a date-time with offset; null if absent or invalid
+     */
+    private static LocalDateTime parseLastModified(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            if (value.length() == 10) {
+                return LocalDate.parse(value).atStartOfDay();
+            }
+            return OffsetDateTime.parse(value).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A sitemap entry; a date-only lastmod is compared at day granularity, since the page
+     * may have changed at any time on that day
+     */
+    private record Entry(String location, LocalDateTime lastModified, boolean dateOnly) {
+
+        boolean isChangedSince(LocalDateTime since) {
+            if (since == null || lastModified == null) {
+                return true;
+            }
+            if (dateOnly) {
+                return !lastModified.toLocalDate().isBefore(since.toLocalDate());
+            }
+            return !lastModified.isBefore(since);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.smartguide.scraper.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocking token bucket. Callers reserve a token under the lock and sleep outside it,
+ * so waiting threads are served in reservation order without holding the lock.
+ */
+final class TokenBucket {
+
+    private double permitsPerSecond;
+    private int burst;
+    private double capacity;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.capacity = Math.max(1, burst);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Lower the rate and burst to the given ones where they are stricter. Tokens earned so
+     * far are kept (at most the new capacity), so a stricter caller never refills the bucket.
+     */
+    synchronized void lowerTo(double permitsPerSecond, int burst) {
+        if (permitsPerSecond >= this.permitsPerSecond && burst >= this.burst) {
+            return;
+        }
+        refill();
+        this.permitsPerSecond = Math.min(this.permitsPerSecond, permitsPerSecond);
+        this.burst = Math.min(this.burst, burst);
+        this.capacity = Math.max(1, this.burst);
+        this.tokens = Math.min(tokens, capacity);
+    }
+
+    void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            refill();
+            tokens -= 1;
+            // A negative balance is the queue of callers ahead of the next free token
+            waitNanos = tokens >= 0 ? 0 : (long) (-tokens / permitsPerSecond * 1e9);
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * permitsPerSecond / 1e9);
+        lastRefillNanos = now;
+    }
+}
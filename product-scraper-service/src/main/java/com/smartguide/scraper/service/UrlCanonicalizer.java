@@ -0,0 +1,79 @@
+package com.smartguide.scraper.service;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Canonical form of product URLs, so the same page reached through different links
+ * is visited once: lower-case scheme and host, no default port, no fragment, no
+ * tracking parameters, and no trailing slash on non-root paths.
+ */
+final class UrlCanonicalizer {
+
+    private static final List<String> TRACKING_PARAM_PREFIXES = List.of("utm_");
+    // "ref" is not listed: some sites use it to select a product variant, not only for tracking
+    private static final List<String> TRACKING_PARAMS = List.of("gclid", "fbclid", "msclkid", "_ga");
+
+    private UrlCanonicalizer() {
+    }
+
+    /**
+     * Canonicalize an absolute http(s) URL; returns null for anything else
+     */
+    static String canonicalize(String url) {
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+        URI uri;
+        try {
+            uri = new URI(url.strip());
+        } catch (URISyntaxException e) {
+            return null;
+        }
+        String scheme = uri.getScheme() == null ? null : uri.getScheme().toLowerCase(Locale.ROOT);
+        if ((!"http".equals(scheme) && !"https".equals(scheme)) || uri.getHost() == null) {
+            return null;
+        }
+
+        StringBuilder canonical = new StringBuilder(scheme).append("://")
+                .append(uri.getHost().toLowerCase(Locale.ROOT));
+        int port = uri.getPort();
+        if (port != -1 && !(port == 80 && scheme.equals("http")) && !(port == 443 && scheme.equals("https"))) {
+            canonical.append(':').append(port);
+        }
+
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        if (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        canonical.append(path);
+
+        String query = filterQuery(uri.getRawQuery());
+        if (!query.isEmpty()) {
+            canonical.append('?').append(query);
+        }
+        return canonical.toString();
+    }
+
+    private static String filterQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return "";
+        }
+        List<String> kept = new ArrayList<>();
+        for (String param : rawQuery.split("&")) {
+            if (param.isEmpty()) {
+                continue;
+            }
+            String name = param.split("=", 2)[0].toLowerCase(Locale.ROOT);
+            if (TRACKING_PARAMS.contains(name)
+                    || TRACKING_PARAM_PREFIXES.stream().anyMatch(name::startsWith)) {
+                continue;
+            }
+            kept.add(param);
+        }
+        return String.join("&", kept);
+    }
+}
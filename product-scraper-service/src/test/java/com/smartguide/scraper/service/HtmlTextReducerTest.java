@@ -0,0 +1,112 @@
+package com.smartguide.scraper.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HtmlTextReducerTest {
+
+    private final HtmlTextReducer reducer = new HtmlTextReducer();
+
+    @Test
+    void skipsBoilerplateElements() {
+        String html = """
+                <html><head><title>Card</title><style>p { color: red }</style></head>
+                <body>
+                  <nav><a href="/">Home</a></nav>
+                  <header>Bank logo</header>
+                  <p>Earn 3% cashback on groceries.</p>
+                  <script>track("view")</script>
+                  <footer>Copyright</footer>
+                </body></html>
+                """;
+
+        assertThat(reducer.reduce(html)).isEqualTo("Earn 3% cashback on groceries.");
+    }
+
+    @Test
+    void marksHeadingsAndListItems() {
+        String html = """
+                <body>
+                  <h2>Key benefits</h2>
+                  <ul><li>Airport lounge access</li><li>No annual fee</li></ul>
+                </body>
+                """;
+
+        assertThat(reducer.reduce(html)).isEqualTo("""
+                ## Key benefits
+                - Airport lounge access
+                - No annual fee""");
+    }
+
+    @Test
+    void keepsOnlyMainContentWhenMarked() {
+        String html = """
+                <body>
+                  <div>Promotions across the site</div>
+                  <main><p>Travel card with lounge access.</p></main>
+                  <div>Other products</div>
+                </body>
+                """;
+
+        assertThat(reducer.reduce(html)).isEqualTo("Travel card with lounge access.");
+    }
+
+    @Test
+    void skipsByWholeClassTokenOnly() {
+        String html = """
+                <body>
+                  <div class="sidebar">Related links</div>
+                  <div class="page has-sidebar">Profit rate 4.5%.</div>
+                  <div id="cookie-banner">We use cookies</div>
+                </body>
+                """;
+
+        assertThat(reducer.reduce(html)).isEqualTo("Profit rate 4.5%.");
+    }
+
+    @Test
+    void neverSkipsElementEnclosingMainContent() {
+        String html = """
+                <body class="modal">
+                  <div class="popup"><main><p>Home finance up to 25 years.</p></main></div>
+                </body>
+                """;
+
+        assertThat(reducer.reduce(html)).isEqualTo("Home finance up to 25 years.");
+    }
+
+    @Test
+    void dropsLinkHeavyBlocks() {
+        String html = """
+                <body>
+                  <div><a href="/a">Cards</a> <a href="/b">Loans</a> <a href="/c">Accounts</a></div>
+                  <p>Minimum salary AED 5,000. <a href="/terms">Terms</a></p>
+                </body>
+                """;
+
+        assertThat(reducer.reduce(html)).isEqualTo("Minimum salary AED 5,000. Terms");
+    }
+
+    @Test
+    void fallsBackToUnfilteredTextWhenFilteringLeavesNothing() {
+        String html = """
+                <body><nav><p>Only product text on this page</p></nav><script>ignored()</script></body>
+                """;
+
+        assertThat(reducer.reduce(html)).isEqualTo("Only product text on this page");
+    }
+
+    @Test
+    void decodesEntitiesAndCollapsesWhitespace() {
+        String html = "<p>Fees   &amp;\n charges&nbsp;apply &lt;see terms&gt;</p>";
+
+        assertThat(reducer.reduce(html)).isEqualTo("Fees & charges apply <see terms>");
+    }
+
+    @Test
+    void emptyInputReducesToEmptyText() {
+        assertThat(reducer.reduce(null)).isEmpty();
+        assertThat(reducer.reduce("")).isEmpty();
+    }
+}
@@ -2,12 +2,14 @@ package com.smartguide.poc;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main Spring Boot Application for Smart Guide POC
  * AI-powered Islamic banking product recommendation system
  */
 @SpringBootApplication
+@EnableScheduling
 public class SmartGuidePocApplication {
 
     public static void main(String[] args) {
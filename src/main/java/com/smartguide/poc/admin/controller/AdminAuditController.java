@@ -0,0 +1,35 @@
+package com.smartguide.poc.admin.controller;
+
+import com.smartguide.poc.service.RecommendationEventWriter;
+import com.smartguide.poc.service.audit.RecommendationAuditLog;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Admin controller exposing health of the asynchronous audit and event writers
+ */
+@RestController
+@RequestMapping("/api/admin/audit")
+@RequiredArgsConstructor
+@Tag(name = "Admin - Audit", description = "Recommendation audit log metrics")
+@CrossOrigin(origins = "*")
+public class AdminAuditController {
+
+    private final RecommendationAuditLog auditLog;
+    private final RecommendationEventWriter eventWriter;
+
+    @GetMapping("/metrics")
+    @Operation(summary = "Get audit log capture and loss counters")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("audit", auditLog.metrics());
+        response.put("eventsDropped", eventWriter.getDroppedCount());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,105 @@
+package com.smartguide.poc.admin.controller;
+
+import com.smartguide.poc.admin.service.CatalogTransferService;
+import com.smartguide.poc.dto.ErrorResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Admin controller for bulk catalog export and import
+ */
+@RestController
+@RequestMapping("/api/admin/catalog")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Admin - Catalog Transfer", description = "Stream the product catalog in and out as CSV or NDJSON")
+@CrossOrigin(origins = "*")
+public class AdminCatalogController {
+
+    private final CatalogTransferService catalogTransferService;
+
+    @GetMapping("/export/{table}")
+    @Operation(summary = "Stream products or staging products as CSV or NDJSON")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable CatalogTransferService.Table table,
+            @RequestParam(required = false, defaultValue = "NDJSON") CatalogTransferService.Format format) {
+        StreamingResponseBody body = out -> {
+            try {
+                catalogTransferService.export(table, format, out);
+            } catch (RuntimeException e) {
+                // The status is already sent; the client sees a truncated body
+                log.error("Catalog export of {} as {} failed: {}", table.getTableName(), format, e.getMessage(), e);
+                throw e;
+            }
+        };
+
+        String filename = table.getTableName() + "." + format.getExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Bulk import products into staging for review")
+    public ResponseEntity<?> importToStaging(HttpServletRequest request) throws IOException {
+        CatalogTransferService.Format format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? CatalogTransferService.Format.CSV
+                : CatalogTransferService.Format.NDJSON;
+
+        long imported;
+        try {
+            imported = catalogTransferService.importToStaging(format, request.getInputStream());
+        } catch (IllegalArgumentException e) {
+            log.warn("Catalog import rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ErrorResponse.builder()
+                    .status("error")
+                    .errorCode("INVALID_IMPORT")
+                    .message(e.getMessage())
+                    .build());
+        } catch (DataAccessException | UncheckedIOException e) {
+            log.error("Catalog import failed: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ErrorResponse.builder()
+                    .status("error")
+                    .errorCode("IMPORT_FAILED")
+                    .message("Catalog import failed: " + e.getMessage())
+                    .build());
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Products imported into staging");
+        response.put("count", imported);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * An unknown table or format in the path or query is a bad request, not a server error
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleTypeMismatch(MethodArgumentTypeMismatchException e) {
+        return ResponseEntity.badRequest().body(ErrorResponse.builder()
+                .status("error")
+                .errorCode("INVALID_ARGUMENT")
+                .message("Unsupported " + e.getName() + ": " + e.getValue())
+                .build());
+    }
+}
@@ -0,0 +1,54 @@
+package com.smartguide.poc.admin.controller;
+
+import com.smartguide.poc.service.search.SemanticSearch;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Admin controller for the semantic product index
+ */
+@RestController
+@RequestMapping("/api/admin/search")
+@RequiredArgsConstructor
+@Tag(name = "Admin - Search", description = "Embedding index status and benchmarks")
+@CrossOrigin(origins = "*")
+public class AdminSearchController {
+
+    private static final int MAX_BENCHMARK_QUERIES = 10000;
+
+    private final SemanticSearch semanticSearch;
+
+    @GetMapping("/embeddings")
+    @Operation(summary = "Get the embedding model and HNSW index size")
+    public ResponseEntity<Map<String, Object>> getEmbeddingStatus() {
+        return ResponseEntity.ok(semanticSearch.status());
+    }
+
+    @PostMapping("/embeddings/benchmark")
+    @Operation(summary = "Measure HNSW recall and latency against brute-force search")
+    public ResponseEntity<Map<String, Object>> benchmark(
+            @RequestParam(defaultValue = "200") int queries,
+            @RequestParam(defaultValue = "10") int k,
+            @RequestParam(required = false) Integer ef) {
+        if (queries < 1 || queries > MAX_BENCHMARK_QUERIES || k < 1 || (ef != null && ef < 1)) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "queries must be 1-" + MAX_BENCHMARK_QUERIES + ", k and ef must be positive");
+            return ResponseEntity.badRequest().body(error);
+        }
+        try {
+            return ResponseEntity.ok(semanticSearch.benchmark(queries, k, ef));
+        } catch (IllegalStateException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+}
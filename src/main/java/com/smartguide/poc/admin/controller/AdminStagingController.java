@@ -1,17 +1,22 @@
 package com.smartguide.poc.admin.controller;
 
 import com.smartguide.poc.admin.dto.ApprovalRequest;
+import com.smartguide.poc.admin.dto.BulkApprovalResultDTO;
 import com.smartguide.poc.admin.dto.StagingProductDTO;
+import com.smartguide.poc.admin.dto.StagingProductPageDTO;
+import com.smartguide.poc.admin.dto.StagingProductQuery;
+import com.smartguide.poc.admin.dto.StagingStatsDTO;
 import com.smartguide.poc.admin.service.StagingProductService;
+import com.smartguide.poc.entity.StagingProduct;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -28,13 +33,29 @@ public class AdminStagingController {
     private final StagingProductService stagingProductService;
 
     @GetMapping
-    @Operation(summary = "Get all staging products")
-    public ResponseEntity<List<StagingProductDTO>> getAllStagingProducts(
-            @RequestParam(required = false, defaultValue = "false") boolean pendingOnly) {
-        List<StagingProductDTO> products = pendingOnly
-                ? stagingProductService.getAllPendingProducts()
-                : stagingProductService.getAllStagingProducts();
-        return ResponseEntity.ok(products);
+    @Operation(summary = "List recent staging products (keyset paginated); days=0 lists all, PENDING is never windowed by default")
+    public ResponseEntity<StagingProductPageDTO> listStagingProducts(
+            @RequestParam(required = false) StagingProduct.ApprovalStatus status,
+            @RequestParam(required = false) String websiteId,
+            @RequestParam(required = false) Long scrapeLogId,
+            @RequestParam(required = false) String jobId,
+            @RequestParam(required = false) Integer days,
+            @RequestParam(required = false, defaultValue = "CREATED_AT") StagingProductQuery.SortField sort,
+            @RequestParam(required = false, defaultValue = "desc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "50") int size) {
+        StagingProductQuery query = StagingProductQuery.builder()
+                .status(status)
+                .websiteId(websiteId)
+                .scrapeLogId(scrapeLogId)
+                .jobId(jobId)
+                .createdSince(stagingProductService.resolveCreatedSince(days, status, scrapeLogId, jobId))
+                .sort(sort)
+                .ascending("asc".equalsIgnoreCase(direction))
+                .cursor(cursor)
+                .size(size)
+                .build();
+        return ResponseEntity.ok(stagingProductService.listStagingProducts(query));
     }
 
     @GetMapping("/{id}")
@@ -44,6 +65,14 @@ public class AdminStagingController {
         return ResponseEntity.ok(product);
     }
 
+    @GetMapping(value = "/{id}/raw-html", produces = MediaType.TEXT_PLAIN_VALUE)
+    @Operation(summary = "Get the stored page content of a staging product")
+    public ResponseEntity<String> getStagingProductRawHtml(@PathVariable Long id) {
+        return stagingProductService.getRawHtml(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.noContent().build());
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update staging product")
     public ResponseEntity<StagingProductDTO> updateStagingProduct(
@@ -60,8 +89,9 @@ public class AdminStagingController {
             @RequestBody(required = false) ApprovalRequest request) {
         String reviewedBy = request != null ? request.getReviewedBy() : "admin";
         String reviewNotes = request != null ? request.getReviewNotes() : null;
+        boolean allowNearDuplicates = request != null && Boolean.TRUE.equals(request.getAllowNearDuplicates());
 
-        stagingProductService.approveStagingProduct(id, reviewedBy, reviewNotes);
+        stagingProductService.approveStagingProduct(id, reviewedBy, reviewNotes, allowNearDuplicates);
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -75,16 +105,25 @@ public class AdminStagingController {
     @Operation(summary = "Bulk approve multiple staging products")
     public ResponseEntity<Map<String, Object>> bulkApproveProducts(
             @RequestBody ApprovalRequest request) {
-        stagingProductService.bulkApproveProducts(
+        if (request.getProductIds() == null || request.getProductIds().isEmpty()) {
+            throw new IllegalArgumentException("productIds must not be empty");
+        }
+
+        BulkApprovalResultDTO result = stagingProductService.bulkApproveProducts(
                 request.getProductIds(),
                 request.getReviewedBy() != null ? request.getReviewedBy() : "admin",
-                request.getReviewNotes()
+                request.getReviewNotes(),
+                Boolean.TRUE.equals(request.getAllowNearDuplicates())
         );
 
         Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", "Products approved successfully");
-        response.put("count", request.getProductIds().size());
+        response.put("success", result.getFailedCount() == 0);
+        response.put("message", result.getFailedCount() == 0
+                ? "Products approved successfully"
+                : result.getApprovedCount() + " products approved, " + result.getFailedCount() + " failed");
+        response.put("count", result.getApprovedCount());
+        response.put("failed", result.getFailedCount());
+        response.put("results", result.getResults());
 
         return ResponseEntity.ok(response);
     }
@@ -122,12 +161,7 @@ public class AdminStagingController {
 
     @GetMapping("/stats")
     @Operation(summary = "Get staging product statistics")
-    public ResponseEntity<Map<String, Object>> getStats() {
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("pending", stagingProductService.getPendingCount());
-        stats.put("approved", stagingProductService.getApprovedCount());
-        stats.put("rejected", stagingProductService.getRejectedCount());
-
-        return ResponseEntity.ok(stats);
+    public ResponseEntity<StagingStatsDTO> getStats() {
+        return ResponseEntity.ok(stagingProductService.getStats());
     }
 }
@@ -13,4 +13,10 @@ public class ApprovalRequest {
     private List<Long> productIds;
     private String reviewedBy;
     private String reviewNotes;
+
+    /**
+     * Approve rows whose near_duplicate_of names an existing production product, once the
+     * reviewer has checked they are distinct products
+     */
+    private Boolean allowNearDuplicates;
 }
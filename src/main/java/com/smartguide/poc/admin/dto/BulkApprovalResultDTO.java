@@ -0,0 +1,42 @@
+package com.smartguide.poc.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk approval, reported per staging product id
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkApprovalResultDTO {
+    private int approvedCount;
+    private int failedCount;
+    private List<ItemResult> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private Long id;
+        private Status status;
+        private String message;
+    }
+
+    public enum Status {
+        APPROVED,
+        NOT_FOUND,
+        INVALID,
+        /**
+         * Near-duplicate of an existing production product; not approved without allowNearDuplicates
+         */
+        NEAR_DUPLICATE,
+        /**
+         * Valid, but writing its product failed
+         */
+        FAILED
+    }
+}
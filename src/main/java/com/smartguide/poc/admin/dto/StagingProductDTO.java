@@ -37,6 +37,7 @@ public class StagingProductDTO {
     private String sourceUrl;
     private LocalDateTime scrapedAt;
     private BigDecimal dataQualityScore;
+    private String nearDuplicateOf;
 
     // Staging metadata
     private Long scrapeLogId;
@@ -74,6 +75,7 @@ public class StagingProductDTO {
                 .sourceUrl(entity.getSourceUrl())
                 .scrapedAt(entity.getScrapedAt())
                 .dataQualityScore(entity.getDataQualityScore())
+                .nearDuplicateOf(entity.getNearDuplicateOf())
                 .scrapeLogId(entity.getScrapeLog() != null ? entity.getScrapeLog().getId() : null)
                 .approvalStatus(entity.getApprovalStatus() != null ? entity.getApprovalStatus().name() : null)
                 .reviewedBy(entity.getReviewedBy())
@@ -0,0 +1,31 @@
+package com.smartguide.poc.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset-paginated page of staging products
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StagingProductPageDTO {
+    private List<StagingProductSummaryDTO> items;
+
+    /**
+     * Opaque cursor for the next page, null when this is the last page
+     */
+    private String nextCursor;
+
+    private boolean hasMore;
+
+    /**
+     * Planner estimate of the number of rows matching the filters (not an exact count)
+     */
+    private long estimatedTotal;
+}
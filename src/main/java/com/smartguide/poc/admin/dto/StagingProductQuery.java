@@ -0,0 +1,54 @@
+package com.smartguide.poc.admin.dto;
+
+import com.smartguide.poc.entity.StagingProduct;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters, sort order and cursor for listing staging products
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StagingProductQuery {
+    private StagingProduct.ApprovalStatus status;
+    private String websiteId;
+    private Long scrapeLogId;
+    private String jobId;
+
+    /**
+     * Only rows created at or after this time; lets the query skip older partitions
+     */
+    private LocalDateTime createdSince;
+
+    @Builder.Default
+    private SortField sort = SortField.CREATED_AT;
+
+    @Builder.Default
+    private boolean ascending = false;
+
+    private String cursor;
+
+    @Builder.Default
+    private int size = 50;
+
+    public enum SortField {
+        CREATED_AT("createdAt"),
+        PRODUCT_NAME("productName");
+
+        private final String attribute;
+
+        SortField(String attribute) {
+            this.attribute = attribute;
+        }
+
+        public String getAttribute() {
+            return attribute;
+        }
+    }
+}
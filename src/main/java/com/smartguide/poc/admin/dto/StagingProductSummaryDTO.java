@@ -0,0 +1,48 @@
+package com.smartguide.poc.admin.dto;
+
+import com.smartguide.poc.entity.StagingProduct;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight projection of a staging product holding only the columns shown in list views
+ */
+@Data
+@NoArgsConstructor
+public class StagingProductSummaryDTO {
+    private Long id;
+    private String productCode;
+    private String productName;
+    private String category;
+    private String sourceWebsiteId;
+    private Long scrapeLogId;
+    private String approvalStatus;
+    private String aiSuggestedCategory;
+    private BigDecimal aiConfidence;
+    private BigDecimal dataQualityScore;
+    private LocalDateTime createdAt;
+
+    /**
+     * Constructor used by the JPA constructor expression in list queries
+     */
+    public StagingProductSummaryDTO(Long id, String productCode, String productName, String category,
+                                    String sourceWebsiteId, Long scrapeLogId,
+                                    StagingProduct.ApprovalStatus approvalStatus,
+                                    String aiSuggestedCategory, BigDecimal aiConfidence,
+                                    BigDecimal dataQualityScore, LocalDateTime createdAt) {
+        this.id = id;
+        this.productCode = productCode;
+        this.productName = productName;
+        this.category = category;
+        this.sourceWebsiteId = sourceWebsiteId;
+        this.scrapeLogId = scrapeLogId;
+        this.approvalStatus = approvalStatus != null ? approvalStatus.name() : null;
+        this.aiSuggestedCategory = aiSuggestedCategory;
+        this.aiConfidence = aiConfidence;
+        this.dataQualityScore = dataQualityScore;
+        this.createdAt = createdAt;
+    }
+}
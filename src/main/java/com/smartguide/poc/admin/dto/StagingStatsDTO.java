@@ -0,0 +1,41 @@
+package com.smartguide.poc.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Staging product counts by approval status, with per-website and per-job breakdowns
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StagingStatsDTO {
+    private long pending;
+    private long approved;
+    private long rejected;
+    private long total;
+
+    /**
+     * Website id -> approval status -> count
+     */
+    private Map<String, Map<String, Long>> byWebsite;
+
+    /**
+     * Most recent scrape jobs first
+     */
+    private List<JobStats> byJob;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class JobStats {
+        private Long scrapeLogId;
+        private String jobId;
+        private String websiteId;
+        private Map<String, Long> counts;
+    }
+}
@@ -0,0 +1,377 @@
+package com.smartguide.poc.admin.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Streaming export and bulk import of the product catalog.
+ *
+ * Exports read through a forward-only cursor (fetch size rows at a time) and write each
+ * row to the response as it arrives. Imports stream the request body into
+ * staging_products with PostgreSQL COPY. Neither side holds the full data set in memory.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CatalogTransferService {
+
+    /**
+     * Columns accepted on import; the products export uses exactly these, so it can be re-imported
+     */
+    private static final List<String> CATALOG_COLUMNS = List.of(
+            "product_code", "product_name", "category", "sub_category", "description",
+            "islamic_structure", "annual_rate", "annual_fee", "min_income", "min_credit_score",
+            "eligibility_criteria", "key_benefits", "sharia_certified", "active",
+            "source_website_id", "source_url", "scraped_at", "data_quality_score"
+    );
+
+    private static final List<String> STAGING_EXTRA_COLUMNS = List.of(
+            "id", "scrape_log_id", "approval_status", "reviewed_by", "reviewed_at", "review_notes",
+            "ai_suggested_category", "ai_confidence", "ai_categorization_json", "raw_html_hash",
+            "created_at", "updated_at"
+    );
+
+    private static final Set<String> JSON_COLUMNS = Set.of(
+            "eligibility_criteria", "key_benefits", "ai_categorization_json"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.admin.transfer.fetch-size:1000}")
+    private int fetchSize;
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    public enum Table {
+        PRODUCTS("products"),
+        STAGING("staging_products");
+
+        private final String tableName;
+
+        Table(String tableName) {
+            this.tableName = tableName;
+        }
+
+        public String getTableName() {
+            return tableName;
+        }
+    }
+
+    /**
+     * Stream every row of the table to the output stream. Runs in a read-only transaction,
+     * which the PostgreSQL driver needs to use a server-side cursor for the fetch size.
+     *
+     * @return number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long export(Table table, Format format, OutputStream out) {
+        List<String> columns = new ArrayList<>(CATALOG_COLUMNS);
+        if (table == Table.STAGING) {
+            columns.addAll(STAGING_EXTRA_COLUMNS);
+        }
+        String sql = "SELECT " + String.join(", ", columns) + " FROM " + table.getTableName() + " ORDER BY id";
+
+        long[] rowCount = {0};
+        try {
+            RowWriter writer = format == Format.CSV ? new CsvRowWriter(out, columns) : new NdjsonRowWriter(out);
+            jdbcTemplate.query(con -> {
+                var statement = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, rs -> {
+                try {
+                    writer.write(rs);
+                    rowCount[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write catalog export", e);
+        }
+
+        log.info("Exported {} rows from {} as {}", rowCount[0], table.getTableName(), format);
+        return rowCount[0];
+    }
+
+    /**
+     * Load rows into staging_products with COPY; imported rows start as PENDING.
+     * CSV input must start with a header naming a subset of the catalog columns, and is
+     * passed to COPY unchanged. NDJSON input is converted to CSV one line at a time.
+     *
+     * @return number of rows imported
+     */
+    @Transactional
+    public long importToStaging(Format format, InputStream in) {
+        Long imported = jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            CopyManager copyManager = new CopyManager(con.unwrap(BaseConnection.class));
+            try {
+                return format == Format.CSV
+                        ? copyCsv(copyManager, in)
+                        : copyNdjson(copyManager, in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read catalog import", e);
+            } catch (SQLException e) {
+                // Data and constraint errors (SQLSTATE classes 22 and 23) are bad input;
+                // PostgreSQL's message names the COPY line and column it rejected
+                String state = e.getSQLState();
+                if (state != null && (state.startsWith("22") || state.startsWith("23"))) {
+                    throw new IllegalArgumentException("Import rejected: " + e.getMessage(), e);
+                }
+                throw e;
+            }
+        });
+
+        long rows = imported != null ? imported : 0;
+        log.info("Imported {} rows into staging_products from {}", rows, format);
+        return rows;
+    }
+
+    private long copyCsv(CopyManager copyManager, InputStream in) throws SQLException, IOException {
+        BufferedInputStream input = new BufferedInputStream(in);
+        List<String> columns = parseHeader(readLine(input));
+        for (String column : columns) {
+            if (!CATALOG_COLUMNS.contains(column)) {
+                throw new IllegalArgumentException("Unsupported import column: " + column);
+            }
+        }
+        if (!columns.contains("product_code") || !columns.contains("product_name")) {
+            throw new IllegalArgumentException("Import requires product_code and product_name columns");
+        }
+        return copyManager.copyIn(copySql(columns), input);
+    }
+
+    private long copyNdjson(CopyManager copyManager, InputStream in) throws SQLException, IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        CopyIn copy = copyManager.copyIn(copySql(CATALOG_COLUMNS));
+        try {
+            ByteArrayOutputStream row = new ByteArrayOutputStream(1024);
+            Writer rowWriter = new OutputStreamWriter(row, StandardCharsets.UTF_8);
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(line);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("Line " + lineNumber + " is not valid JSON: "
+                            + e.getOriginalMessage(), e);
+                }
+                if (!node.isObject()) {
+                    throw new IllegalArgumentException("Line " + lineNumber + " is not a JSON object");
+                }
+
+                row.reset();
+                for (int i = 0; i < CATALOG_COLUMNS.size(); i++) {
+                    if (i > 0) {
+                        rowWriter.write(',');
+                    }
+                    writeCsvValue(rowWriter, node.get(CATALOG_COLUMNS.get(i)));
+                }
+                rowWriter.write('\n');
+                rowWriter.flush();
+                copy.writeToCopy(row.toByteArray(), 0, row.size());
+            }
+            return copy.endCopy();
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    private String copySql(List<String> columns) {
+        return "COPY staging_products (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+    }
+
+    /**
+     * Read one header line byte by byte so the rest of the stream is left for COPY
+     */
+    private String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            line.write(b);
+        }
+        return line.toString(StandardCharsets.UTF_8).strip();
+    }
+
+    private List<String> parseHeader(String header) {
+        if (header.isEmpty()) {
+            throw new IllegalArgumentException("CSV import requires a header row");
+        }
+        List<String> columns = new ArrayList<>();
+        for (String column : header.split(",")) {
+            columns.add(column.strip().replace("\"", "").toLowerCase());
+        }
+        return columns;
+    }
+
+    /**
+     * Null and missing values become an unquoted empty field, which COPY reads as NULL
+     */
+    private void writeCsvValue(Writer writer, JsonNode value) throws IOException {
+        if (value == null || value.isNull()) {
+            return;
+        }
+        if (value.isNumber() || value.isBoolean()) {
+            writer.write(value.asText());
+        } else if (value.isContainerNode()) {
+            writeQuoted(writer, objectMapper.writeValueAsString(value));
+        } else {
+            writeQuoted(writer, value.asText());
+        }
+    }
+
+    private static void writeQuoted(Writer writer, String value) throws IOException {
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    /**
+     * CSV in the dialect COPY reads back: header row, NULL as an empty unquoted field
+     */
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+        private final int columnCount;
+
+        CsvRowWriter(OutputStream out, List<String> columns) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.columnCount = columns.size();
+            writer.write(String.join(",", columns));
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= columnCount; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                String value = rs.getString(i);
+                if (value != null) {
+                    writeQuoted(writer, value);
+                }
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * One JSON object per line, keeping numbers, booleans and JSON columns typed
+     */
+    private class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            ResultSetMetaData meta = rs.getMetaData();
+            generator.writeStartObject();
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                String column = meta.getColumnLabel(i);
+                generator.writeFieldName(column);
+                writeValue(rs, i, meta.getColumnType(i), JSON_COLUMNS.contains(column));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeValue(ResultSet rs, int index, int sqlType, boolean json) throws SQLException, IOException {
+            if (rs.getObject(index) == null) {
+                generator.writeNull();
+            } else if (json) {
+                generator.writeRawValue(rs.getString(index));
+            } else if (sqlType == Types.BOOLEAN || sqlType == Types.BIT) {
+                generator.writeBoolean(rs.getBoolean(index));
+            } else if (sqlType == Types.INTEGER || sqlType == Types.BIGINT || sqlType == Types.SMALLINT) {
+                generator.writeNumber(rs.getLong(index));
+            } else if (sqlType == Types.NUMERIC || sqlType == Types.DECIMAL) {
+                generator.writeNumber(rs.getBigDecimal(index));
+            } else if (sqlType == Types.TIMESTAMP) {
+                generator.writeString(rs.getTimestamp(index).toLocalDateTime().toString());
+            } else {
+                generator.writeString(rs.getString(index));
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.smartguide.poc.admin.service;
+
+import com.smartguide.poc.config.RetentionConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the monthly partitions of staging_products and scrape_logs in shape.
+ *
+ * Each run creates upcoming partitions, moves reviewed staging rows past the archive age
+ * into staging_products_archive, deletes old scrape logs without staging rows, removes
+ * page content no staging row references, and drops old partitions that are left empty.
+ * Upcoming partitions are also created on startup and on every schedule when retention
+ * is disabled, since inserts depend on them; rows outside every month land in the
+ * DEFAULT partition. Runs are serialized across instances with a session-level advisory
+ * lock held on a connection of its own, while each step, each archive batch and each
+ * partition drop commits in a short transaction of its own.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PartitionMaintenanceService {
+
+    private static final long ADVISORY_LOCK_KEY = 0x5354_4147_494EL;
+
+    private static final List<String> PARTITIONED_TABLES = List.of("staging_products", "scrape_logs");
+
+    private static final String DROP_LOCK_TIMEOUT = "5s";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String ARCHIVE_COLUMNS = """
+            id, product_code, product_name, category, sub_category, description, islamic_structure,
+            annual_rate, annual_fee, min_income, min_credit_score, eligibility_criteria, key_benefits,
+            sharia_certified, active, source_website_id, source_url, scraped_at, data_quality_score,
+            scrape_log_id, approval_status, reviewed_by, reviewed_at, review_notes,
+            ai_suggested_category, ai_confidence, ai_categorization_json, simhash, near_duplicate_of, created_at, updated_at""";
+
+    // The delete fires the counter triggers, so staging statistics stay exact
+    private static final String ARCHIVE_BATCH_SQL = """
+            WITH moved AS (
+                DELETE FROM staging_products
+                WHERE (id, created_at) IN (
+                    SELECT id, created_at FROM staging_products
+                    WHERE created_at < ? AND approval_status <> 'PENDING'
+                    LIMIT ?)
+                RETURNING %s)
+            INSERT INTO staging_products_archive (%s)
+            SELECT %s FROM moved
+            ON CONFLICT (id, created_at) DO NOTHING
+            """.formatted(ARCHIVE_COLUMNS, ARCHIVE_COLUMNS, ARCHIVE_COLUMNS);
+
+    private static final String DELETE_OLD_SCRAPE_LOGS_SQL = """
+            DELETE FROM scrape_logs sl
+            WHERE sl.started_at < ?
+              AND sl.status <> 'RUNNING'
+              AND NOT EXISTS (SELECT 1 FROM staging_products sp WHERE sp.scrape_log_id = sl.id)
+            """;
+
+    private static final String DELETE_ORPHAN_BLOBS_SQL = """
+            DELETE FROM raw_html_blobs b
+            WHERE b.created_at < ?
+              AND NOT EXISTS (SELECT 1 FROM staging_products sp WHERE sp.raw_html_hash = b.content_hash)
+            """;
+
+    private static final String LIST_PARTITIONS_SQL = """
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class p ON p.oid = i.inhparent
+            WHERE p.relname = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RetentionConfig retentionConfig;
+    private final PlatformTransactionManager transactionManager;
+
+    @Scheduled(cron = "${app.retention.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        try {
+            if (retentionConfig.getEnabled()) {
+                runMaintenance();
+            } else {
+                ensureUpcomingPartitions();
+            }
+        } catch (RuntimeException e) {
+            log.error("Partition maintenance failed", e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            int ensured = ensureUpcomingPartitions();
+            log.debug("Ensured {} upcoming partitions on startup", ensured);
+        } catch (RuntimeException e) {
+            log.warn("Could not create upcoming partitions on startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Create the current and upcoming monthly partitions only, regardless of
+     * app.retention.enabled; returns 0 if another instance holds the maintenance lock
+     */
+    public int ensureUpcomingPartitions() {
+        Integer ensured = withMaintenanceLock(() -> inTransaction(() -> ensurePartitions(LocalDateTime.now())));
+        return ensured != null ? ensured : 0;
+    }
+
+    /**
+     * Run one maintenance pass; returns what was done, or skipped=true if another
+     * instance holds the maintenance lock. Every step commits on its own, and archiving
+     * commits per batch, so no transaction spans the whole pass.
+     */
+    public Map<String, Object> runMaintenance() {
+        Map<String, Object> result = withMaintenanceLock(() -> {
+            Map<String, Object> done = new LinkedHashMap<>();
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime archiveCutoff = now.minusDays(retentionConfig.getArchiveAfterDays());
+            LocalDateTime scrapeLogCutoff = now.minusDays(retentionConfig.getScrapeLogRetentionDays());
+
+            done.put("partitionsEnsured", inTransaction(() -> ensurePartitions(now)));
+            done.put("archived", archiveReviewed(archiveCutoff));
+            done.put("scrapeLogsDeleted", inTransaction(() ->
+                    jdbcTemplate.update(DELETE_OLD_SCRAPE_LOGS_SQL, Timestamp.valueOf(scrapeLogCutoff))));
+            done.put("blobsDeleted", inTransaction(() ->
+                    jdbcTemplate.update(DELETE_ORPHAN_BLOBS_SQL, Timestamp.valueOf(archiveCutoff))));
+            done.put("partitionsDropped",
+                    dropEmptyPartitions("staging_products", YearMonth.from(archiveCutoff))
+                            + dropEmptyPartitions("scrape_logs", YearMonth.from(scrapeLogCutoff)));
+            log.info("Partition maintenance finished: {}", done);
+            return done;
+        });
+        if (result == null) {
+            log.info("Partition maintenance already running elsewhere, skipping");
+            result = new LinkedHashMap<>();
+            result.put("skipped", true);
+        }
+        return result;
+    }
+
+    /**
+     * Run the work while holding the session-level maintenance lock on a connection of its
+     * own, so the work can commit in as many transactions as it likes; null if the lock is
+     * held elsewhere
+     */
+    private <T> T withMaintenanceLock(Supplier<T> work) {
+        return jdbcTemplate.execute((ConnectionCallback<T>) connection -> {
+            if (!advisoryLock(connection, "SELECT pg_try_advisory_lock(?)")) {
+                return null;
+            }
+            try {
+                return work.get();
+            } finally {
+                advisoryLock(connection, "SELECT pg_advisory_unlock(?)");
+            }
+        });
+    }
+
+    private static boolean advisoryLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setLong(1, ADVISORY_LOCK_KEY);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
+    private int ensurePartitions(LocalDateTime now) {
+        int ensured = 0;
+        YearMonth current = YearMonth.from(now);
+        for (String table : PARTITIONED_TABLES) {
+            for (int i = 0; i <= retentionConfig.getMonthsAhead(); i++) {
+                LocalDateTime monthStart = current.plusMonths(i).atDay(1).atStartOfDay();
+                jdbcTemplate.queryForObject("SELECT ensure_monthly_partition(?, ?)", String.class,
+                        table, Timestamp.valueOf(monthStart));
+                ensured++;
+            }
+        }
+        return ensured;
+    }
+
+    private long archiveReviewed(LocalDateTime cutoff) {
+        long archived = 0;
+        int batchSize = retentionConfig.getArchiveBatchSize();
+        int moved;
+        do {
+            // One transaction per batch bounds row locks and WAL by the batch size
+            Integer batch = inTransaction(() -> jdbcTemplate.update(ARCHIVE_BATCH_SQL, Timestamp.valueOf(cutoff), batchSize));
+            moved = batch != null ? batch : 0;
+            archived += moved;
+        } while (moved >= batchSize);
+        return archived;
+    }
+
+    /**
+     * Drop partitions that end before the cutoff month and hold no rows
+     */
+    private int dropEmptyPartitions(String table, YearMonth cutoffMonth) {
+        String prefix = table + "_p";
+        int dropped = 0;
+        for (String partition : jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class, table)) {
+            if (!partition.startsWith(prefix)) {
+                continue;
+            }
+            YearMonth month;
+            try {
+                month = YearMonth.parse(partition.substring(prefix.length()), PARTITION_SUFFIX);
+            } catch (DateTimeParseException e) {
+                continue;
+            }
+            if (!month.isBefore(cutoffMonth)) {
+                continue;
+            }
+            String quoted = "\"" + partition.replace("\"", "\"\"") + "\"";
+            try {
+                // Its own short transaction: DROP takes an ACCESS EXCLUSIVE lock on the parent,
+                // so give up quickly rather than queue behind (and block) live queries
+                Boolean done = inTransaction(() -> {
+                    jdbcTemplate.execute("SET LOCAL lock_timeout = '" + DROP_LOCK_TIMEOUT + "'");
+                    Boolean hasRows = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + quoted + ")", Boolean.class);
+                    if (Boolean.TRUE.equals(hasRows)) {
+                        return false;
+                    }
+                    jdbcTemplate.execute("DROP TABLE " + quoted);
+                    return true;
+                });
+                if (Boolean.TRUE.equals(done)) {
+                    log.info("Dropped empty partition {}", partition);
+                    dropped++;
+                }
+            } catch (DataAccessException e) {
+                log.warn("Could not drop partition {}, will retry next run: {}", partition, e.getMessage());
+            }
+        }
+        return dropped;
+    }
+}
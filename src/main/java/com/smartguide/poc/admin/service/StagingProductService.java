@@ -1,18 +1,58 @@
 package com.smartguide.poc.admin.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartguide.poc.admin.dto.BulkApprovalResultDTO;
 import com.smartguide.poc.admin.dto.StagingProductDTO;
+import com.smartguide.poc.admin.dto.StagingProductPageDTO;
+import com.smartguide.poc.admin.dto.StagingProductQuery;
+import com.smartguide.poc.admin.dto.StagingProductSummaryDTO;
+import com.smartguide.poc.admin.dto.StagingStatsDTO;
+import com.smartguide.poc.config.RetentionConfig;
 import com.smartguide.poc.entity.Product;
+import com.smartguide.poc.entity.RawHtmlBlob;
 import com.smartguide.poc.entity.StagingProduct;
 import com.smartguide.poc.repository.ProductRepository;
+import com.smartguide.poc.repository.RawHtmlBlobRepository;
 import com.smartguide.poc.repository.StagingProductRepository;
+import com.smartguide.poc.service.CatalogChangeNotifier;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Service for managing staging products and approval workflow
@@ -24,25 +64,186 @@ public class StagingProductService {
 
     private final StagingProductRepository stagingProductRepository;
     private final ProductRepository productRepository;
+    private final RawHtmlBlobRepository rawHtmlBlobRepository;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final CatalogChangeNotifier catalogChangeNotifier;
+    private final RetentionConfig retentionConfig;
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private static final String SELECT_APPROVAL_CANDIDATES_SQL = """
+            SELECT id, product_code, product_name, category, created_at, near_duplicate_of
+            FROM staging_products
+            WHERE id = ANY(?)
+            """;
+
+    private static final String SELECT_EXISTING_PRODUCT_CODES_SQL =
+            "SELECT product_code FROM products WHERE product_code = ANY(?)";
 
     /**
-     * Get all pending staging products
+     * Copies staging rows into products. Callers pass one row per product code; DISTINCT ON
+     * still keeps the newest, since ON CONFLICT cannot update the same target row twice in
+     * one statement.
      */
-    public List<StagingProductDTO> getAllPendingProducts() {
-        return stagingProductRepository.findAllPendingOrderByCreatedAtDesc()
-                .stream()
-                .map(StagingProductDTO::fromEntity)
-                .collect(Collectors.toList());
+    private static final String UPSERT_PRODUCTS_FROM_STAGING_SQL = """
+            INSERT INTO products (
+                product_code, product_name, category, sub_category, description,
+                islamic_structure, annual_rate, annual_fee, min_income, min_credit_score,
+                eligibility_criteria, key_benefits, sharia_certified, active,
+                source_website_id, source_url, scraped_at, data_quality_score, simhash
+            )
+            SELECT DISTINCT ON (product_code)
+                product_code, product_name, category, sub_category, description,
+                islamic_structure, annual_rate, annual_fee, min_income, min_credit_score,
+                eligibility_criteria, key_benefits, sharia_certified, active,
+                source_website_id, source_url, scraped_at, data_quality_score, simhash
+            FROM staging_products
+            WHERE id = ANY(?)
+            ORDER BY product_code, created_at DESC, id DESC
+            ON CONFLICT (product_code) DO UPDATE SET
+                product_name = EXCLUDED.product_name,
+                category = EXCLUDED.category,
+                sub_category = EXCLUDED.sub_category,
+                description = EXCLUDED.description,
+                islamic_structure = EXCLUDED.islamic_structure,
+                annual_rate = EXCLUDED.annual_rate,
+                annual_fee = EXCLUDED.annual_fee,
+                min_income = EXCLUDED.min_income,
+                min_credit_score = EXCLUDED.min_credit_score,
+                eligibility_criteria = EXCLUDED.eligibility_criteria,
+                key_benefits = EXCLUDED.key_benefits,
+                sharia_certified = EXCLUDED.sharia_certified,
+                active = EXCLUDED.active,
+                source_website_id = EXCLUDED.source_website_id,
+                source_url = EXCLUDED.source_url,
+                scraped_at = EXCLUDED.scraped_at,
+                data_quality_score = EXCLUDED.data_quality_score,
+                simhash = EXCLUDED.simhash
+            """;
+
+    private static final String MARK_APPROVED_SQL = """
+            UPDATE staging_products
+            SET approval_status = 'APPROVED', reviewed_by = ?, reviewed_at = NOW(),
+                review_notes = ?, updated_at = NOW()
+            WHERE id = ANY(?)
+            """;
+
+    private static final String COUNTER_STATS_SQL = """
+            SELECT source_website_id, scrape_log_id, approval_status, product_count
+            FROM staging_product_counts
+            WHERE product_count > 0
+            """;
+
+    private static final String LIVE_STATS_SQL = """
+            SELECT COALESCE(source_website_id, '') AS source_website_id,
+                   COALESCE(scrape_log_id, 0) AS scrape_log_id,
+                   approval_status, COUNT(*) AS product_count
+            FROM staging_products
+            GROUP BY 1, 2, 3
+            """;
+
+    private static final String SELECT_JOB_IDS_SQL = "SELECT id, job_id FROM scrape_logs WHERE id = ANY(?)";
+
+    @Value("${app.admin.stats.use-counters:true}")
+    private boolean useStatsCounters;
+
+    @Value("${app.admin.stats.recent-jobs:20}")
+    private int statsRecentJobs;
+
+    @Value("${app.admin.approval-batch-size:500}")
+    private int approvalBatchSize;
+
+    /**
+     * List staging products one keyset page at a time. Only the list columns are selected,
+     * and rows are located by seeking past the cursor's (sort value, id) instead of OFFSET.
+     */
+    @Transactional(readOnly = true)
+    public StagingProductPageDTO listStagingProducts(StagingProductQuery request) {
+        int size = Math.min(Math.max(request.getSize(), 1), MAX_PAGE_SIZE);
+        String sortAttribute = request.getSort().getAttribute();
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<StagingProductSummaryDTO> query = cb.createQuery(StagingProductSummaryDTO.class);
+        Root<StagingProduct> product = query.from(StagingProduct.class);
+
+        query.select(cb.construct(StagingProductSummaryDTO.class,
+                product.get("id"),
+                product.get("productCode"),
+                product.get("productName"),
+                product.get("category"),
+                product.get("sourceWebsiteId"),
+                product.get("scrapeLog").get("id"),
+                product.get("approvalStatus"),
+                product.get("aiSuggestedCategory"),
+                product.get("aiConfidence"),
+                product.get("dataQualityScore"),
+                product.get("createdAt")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (request.getStatus() != null) {
+            predicates.add(cb.equal(product.get("approvalStatus"), request.getStatus()));
+        }
+        if (request.getWebsiteId() != null) {
+            predicates.add(cb.equal(product.get("sourceWebsiteId"), request.getWebsiteId()));
+        }
+        if (request.getScrapeLogId() != null) {
+            predicates.add(cb.equal(product.get("scrapeLog").get("id"), request.getScrapeLogId()));
+        }
+        if (request.getJobId() != null) {
+            predicates.add(cb.equal(product.get("scrapeLog").get("jobId"), request.getJobId()));
+        }
+        if (request.getCreatedSince() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(product.get("createdAt"), request.getCreatedSince()));
+        }
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            predicates.add(afterCursor(cb, product, request));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+
+        if (request.isAscending()) {
+            query.orderBy(cb.asc(product.get(sortAttribute)), cb.asc(product.get("id")));
+        } else {
+            query.orderBy(cb.desc(product.get(sortAttribute)), cb.desc(product.get("id")));
+        }
+
+        // Fetch one extra row to find out whether another page follows
+        List<StagingProductSummaryDTO> items = new ArrayList<>(entityManager.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList());
+        boolean hasMore = items.size() > size;
+        if (hasMore) {
+            items = items.subList(0, size);
+        }
+
+        String nextCursor = hasMore ? encodeCursor(request.getSort(), items.get(items.size() - 1)) : null;
+
+        return StagingProductPageDTO.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .estimatedTotal(estimateCount(request))
+                .build();
     }
 
     /**
-     * Get all staging products
+     * Start of the look-back window for the staging list. Without an explicit number of
+     * days the configured admin window applies, unless a single scrape job or the PENDING
+     * review queue is requested (their rows may be older, and pending rows are never
+     * archived); 0 days disables the window.
      */
-    public List<StagingProductDTO> getAllStagingProducts() {
-        return stagingProductRepository.findAllOrderByCreatedAtDesc()
-                .stream()
-                .map(StagingProductDTO::fromEntity)
-                .collect(Collectors.toList());
+    public LocalDateTime resolveCreatedSince(Integer days, StagingProduct.ApprovalStatus status,
+                                             Long scrapeLogId, String jobId) {
+        if (days == null && (scrapeLogId != null || jobId != null
+                || status == StagingProduct.ApprovalStatus.PENDING)) {
+            return null;
+        }
+        int windowDays = days != null ? days : retentionConfig.getAdminWindowDays();
+        if (windowDays < 0) {
+            throw new IllegalArgumentException("days must not be negative");
+        }
+        return windowDays > 0 ? LocalDateTime.now().minusDays(windowDays) : null;
     }
 
     /**
@@ -54,6 +255,18 @@ public class StagingProductService {
                 .orElseThrow(() -> new RuntimeException("Staging product not found: " + id));
     }
 
+    /**
+     * Get the stored page content of a staging product, loaded from the blob store on demand
+     */
+    public Optional<String> getRawHtml(Long id) {
+        if (!stagingProductRepository.existsById(id)) {
+            throw new RuntimeException("Staging product not found: " + id);
+        }
+        return stagingProductRepository.findRawHtmlHashById(id)
+                .flatMap(rawHtmlBlobRepository::findById)
+                .map(this::decodeBlob);
+    }
+
     /**
      * Update staging product
      */
@@ -84,13 +297,22 @@ public class StagingProductService {
     }
 
     /**
-     * Approve single staging product and move to production
+     * Approve single staging product and move to production. A row flagged as a
+     * near-duplicate of an existing production product is refused unless
+     * {@code allowNearDuplicates} is set; giving it the duplicate's code updates that
+     * product instead.
      */
     @Transactional
-    public void approveStagingProduct(Long id, String reviewedBy, String reviewNotes) {
+    public void approveStagingProduct(Long id, String reviewedBy, String reviewNotes, boolean allowNearDuplicates) {
         StagingProduct stagingProduct = stagingProductRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Staging product not found: " + id));
 
+        String duplicateOf = stagingProduct.getNearDuplicateOf();
+        if (!allowNearDuplicates && duplicateOf != null && !duplicateOf.equals(stagingProduct.getProductCode())
+                && productRepository.findByProductCode(duplicateOf).isPresent()) {
+            throw new IllegalArgumentException(nearDuplicateMessage(duplicateOf));
+        }
+
         // Create or update product in production table
         Product product = productRepository.findByProductCode(stagingProduct.getProductCode())
                 .orElse(new Product());
@@ -105,22 +327,140 @@ public class StagingProductService {
         stagingProduct.setReviewedAt(LocalDateTime.now());
         stagingProduct.setReviewNotes(reviewNotes);
         stagingProductRepository.save(stagingProduct);
+        catalogChangeNotifier.publish();
 
         log.info("Approved staging product {} and moved to production", id);
     }
 
     /**
-     * Bulk approve multiple staging products
+     * Bulk approve multiple staging products with set-based statements: one read to
+     * classify the selected rows, batched INSERT ... SELECT ... ON CONFLICT upserts into
+     * products, and a single status update for all approved rows.
+     *
+     * When several selected rows share a product code, only the newest (by created_at) is
+     * written; the older ones are approved as superseded. Each batch runs in a savepoint and
+     * is replayed row by row if it fails, so one bad row only fails its own product code.
+     * Near-duplicates of existing production products are skipped unless
+     * {@code allowNearDuplicates} is set.
      */
     @Transactional
-    public void bulkApproveProducts(List<Long> productIds, String reviewedBy, String reviewNotes) {
-        for (Long id : productIds) {
-            try {
-                approveStagingProduct(id, reviewedBy, reviewNotes);
-            } catch (Exception e) {
-                log.error("Failed to approve product {}: {}", id, e.getMessage());
+    public BulkApprovalResultDTO bulkApproveProducts(List<Long> productIds, String reviewedBy, String reviewNotes,
+                                                     boolean allowNearDuplicates) {
+        List<Long> requestedIds = productIds.stream().filter(Objects::nonNull).distinct().toList();
+
+        Map<Long, String> invalidReasons = new HashMap<>();
+        Map<Long, String> nearDuplicateOf = new HashMap<>();
+        Map<Long, ApprovalCandidate> candidates = new HashMap<>();
+        jdbcTemplate.query(SELECT_APPROVAL_CANDIDATES_SQL, rs -> {
+            long id = rs.getLong("id");
+            String productCode = rs.getString("product_code");
+            candidates.put(id, new ApprovalCandidate(id, productCode, rs.getTimestamp("created_at").toLocalDateTime()));
+            String reason = validateForApproval(productCode, rs.getString("product_name"), rs.getString("category"));
+            String duplicateOf = rs.getString("near_duplicate_of");
+            if (reason != null) {
+                invalidReasons.put(id, reason);
+            } else if (!allowNearDuplicates && duplicateOf != null && !duplicateOf.equals(productCode)) {
+                nearDuplicateOf.put(id, duplicateOf);
+            }
+        }, (Object) requestedIds.toArray(new Long[0]));
+
+        // Only duplicates of products already in production block approval
+        if (!nearDuplicateOf.isEmpty()) {
+            Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(SELECT_EXISTING_PRODUCT_CODES_SQL,
+                    String.class, (Object) new HashSet<>(nearDuplicateOf.values()).toArray(new String[0])));
+            nearDuplicateOf.values().retainAll(existing);
+        }
+
+        // Newest valid row per product code, across the whole request rather than per batch
+        Map<String, ApprovalCandidate> newestByCode = new LinkedHashMap<>();
+        for (Long id : requestedIds) {
+            ApprovalCandidate candidate = candidates.get(id);
+            if (candidate != null && !invalidReasons.containsKey(id) && !nearDuplicateOf.containsKey(id)) {
+                newestByCode.merge(candidate.productCode(), candidate,
+                        (current, other) -> other.isNewerThan(current) ? other : current);
+            }
+        }
+
+        List<Long> sourceIds = newestByCode.values().stream().map(ApprovalCandidate::id).toList();
+        Map<Long, String> writeFailures = new HashMap<>();
+        for (int from = 0; from < sourceIds.size(); from += approvalBatchSize) {
+            upsertFromStaging(sourceIds.subList(from, Math.min(from + approvalBatchSize, sourceIds.size())), writeFailures);
+        }
+
+        List<Long> approvedIds = new ArrayList<>();
+        List<BulkApprovalResultDTO.ItemResult> results = new ArrayList<>(requestedIds.size());
+        for (Long id : requestedIds) {
+            ApprovalCandidate candidate = candidates.get(id);
+            if (candidate == null) {
+                results.add(new BulkApprovalResultDTO.ItemResult(
+                        id, BulkApprovalResultDTO.Status.NOT_FOUND, "Staging product not found: " + id));
+                continue;
+            }
+            if (invalidReasons.containsKey(id)) {
+                results.add(new BulkApprovalResultDTO.ItemResult(
+                        id, BulkApprovalResultDTO.Status.INVALID, invalidReasons.get(id)));
+                continue;
+            }
+            if (nearDuplicateOf.containsKey(id)) {
+                results.add(new BulkApprovalResultDTO.ItemResult(id, BulkApprovalResultDTO.Status.NEAR_DUPLICATE,
+                        nearDuplicateMessage(nearDuplicateOf.get(id))));
+                continue;
+            }
+            ApprovalCandidate source = newestByCode.get(candidate.productCode());
+            String failure = writeFailures.get(source.id());
+            if (failure != null) {
+                results.add(new BulkApprovalResultDTO.ItemResult(id, BulkApprovalResultDTO.Status.FAILED,
+                        "Failed to write product " + candidate.productCode() + ": " + failure));
+            } else {
+                approvedIds.add(id);
+                results.add(new BulkApprovalResultDTO.ItemResult(id, BulkApprovalResultDTO.Status.APPROVED,
+                        source.id() != id ? "Superseded by newer staging product " + source.id() : null));
             }
         }
+
+        if (!approvedIds.isEmpty()) {
+            jdbcTemplate.update(MARK_APPROVED_SQL, reviewedBy, reviewNotes, approvedIds.toArray(new Long[0]));
+            catalogChangeNotifier.publish();
+        }
+
+        log.info("Bulk approved {} of {} staging products ({} product codes failed to write)",
+                approvedIds.size(), requestedIds.size(), writeFailures.size());
+        return new BulkApprovalResultDTO(approvedIds.size(), requestedIds.size() - approvedIds.size(), results);
+    }
+
+    /**
+     * Upsert one batch of staging rows inside a savepoint, falling back to one row at a time
+     * on failure; rows that still fail are recorded with their error
+     */
+    private void upsertFromStaging(List<Long> ids, Map<Long, String> failures) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(UPSERT_PRODUCTS_FROM_STAGING_SQL)) {
+                Savepoint batchSavepoint = connection.setSavepoint();
+                try {
+                    ps.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+                    ps.executeUpdate();
+                    connection.releaseSavepoint(batchSavepoint);
+                    return null;
+                } catch (SQLException e) {
+                    connection.rollback(batchSavepoint);
+                    log.warn("Approval batch of {} products failed, retrying row by row: {}", ids.size(), e.getMessage());
+                }
+
+                for (Long id : ids) {
+                    Savepoint rowSavepoint = connection.setSavepoint();
+                    try {
+                        ps.setArray(1, connection.createArrayOf("bigint", new Object[]{id}));
+                        ps.executeUpdate();
+                        connection.releaseSavepoint(rowSavepoint);
+                    } catch (SQLException e) {
+                        connection.rollback(rowSavepoint);
+                        log.error("Failed to approve staging product {}: {}", id, e.getMessage());
+                        failures.put(id, e.getMessage());
+                    }
+                }
+                return null;
+            }
+        });
     }
 
     /**
@@ -150,18 +490,158 @@ public class StagingProductService {
     }
 
     /**
-     * Get counts by status
+     * Get counts by status with per-website and per-job breakdowns. Reads the
+     * trigger-maintained counter table, whose size depends on the number of websites
+     * and jobs rather than on the number of staging rows.
+     */
+    public StagingStatsDTO getStats() {
+        Map<String, Long> byStatus = new HashMap<>();
+        Map<String, Map<String, Long>> byWebsite = new TreeMap<>();
+        Map<Long, StagingStatsDTO.JobStats> byJob = new TreeMap<>(Comparator.reverseOrder());
+
+        jdbcTemplate.query(useStatsCounters ? COUNTER_STATS_SQL : LIVE_STATS_SQL, rs -> {
+            String websiteId = rs.getString("source_website_id");
+            long scrapeLogId = rs.getLong("scrape_log_id");
+            String status = rs.getString("approval_status");
+            long count = rs.getLong("product_count");
+
+            byStatus.merge(status, count, Long::sum);
+            if (!websiteId.isEmpty()) {
+                byWebsite.computeIfAbsent(websiteId, k -> new HashMap<>()).merge(status, count, Long::sum);
+            }
+            if (scrapeLogId != 0) {
+                byJob.computeIfAbsent(scrapeLogId, k -> new StagingStatsDTO.JobStats(
+                        k, null, websiteId.isEmpty() ? null : websiteId, new HashMap<>()))
+                        .getCounts().merge(status, count, Long::sum);
+            }
+        });
+
+        // scrape_logs is only consulted for the jobs that are actually reported
+        List<StagingStatsDTO.JobStats> recentJobs = byJob.values().stream().limit(statsRecentJobs).toList();
+        if (!recentJobs.isEmpty()) {
+            Map<Long, StagingStatsDTO.JobStats> reported = new HashMap<>();
+            recentJobs.forEach(job -> reported.put(job.getScrapeLogId(), job));
+            jdbcTemplate.query(SELECT_JOB_IDS_SQL,
+                    rs -> { reported.get(rs.getLong("id")).setJobId(rs.getString("job_id")); },
+                    (Object) reported.keySet().toArray(new Long[0]));
+        }
+
+        long pending = byStatus.getOrDefault(StagingProduct.ApprovalStatus.PENDING.name(), 0L);
+        long approved = byStatus.getOrDefault(StagingProduct.ApprovalStatus.APPROVED.name(), 0L);
+        long rejected = byStatus.getOrDefault(StagingProduct.ApprovalStatus.REJECTED.name(), 0L);
+        return new StagingStatsDTO(pending, approved, rejected, pending + approved + rejected, byWebsite, recentJobs);
+    }
+
+    /**
+     * Keyset predicate selecting rows strictly after the cursor in the requested order
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate afterCursor(CriteriaBuilder cb, Root<StagingProduct> product, StagingProductQuery request) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(request.getCursor()), StandardCharsets.UTF_8)
+                    .split("\\|", 3);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 3 || !parts[0].equals(request.getSort().name())) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort order");
+        }
+
+        Long lastId;
+        Comparable lastValue;
+        try {
+            lastId = Long.valueOf(parts[1]);
+            lastValue = request.getSort() == StagingProductQuery.SortField.CREATED_AT
+                    ? LocalDateTime.parse(parts[2])
+                    : parts[2];
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        Path sortPath = product.get(request.getSort().getAttribute());
+        Path<Long> idPath = product.get("id");
+        if (request.isAscending()) {
+            return cb.or(cb.greaterThan(sortPath, lastValue),
+                    cb.and(cb.equal(sortPath, lastValue), cb.greaterThan(idPath, lastId)));
+        }
+        return cb.or(cb.lessThan(sortPath, lastValue),
+                cb.and(cb.equal(sortPath, lastValue), cb.lessThan(idPath, lastId)));
+    }
+
+    private String encodeCursor(StagingProductQuery.SortField sort, StagingProductSummaryDTO last) {
+        Object value = sort == StagingProductQuery.SortField.CREATED_AT ? last.getCreatedAt() : last.getProductName();
+        String raw = sort.name() + "|" + last.getId() + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Row estimate for the list filters, read from the planner instead of running COUNT(*)
+     */
+    private long estimateCount(StagingProductQuery request) {
+        StringBuilder sql = new StringBuilder("EXPLAIN (FORMAT JSON) SELECT 1 FROM staging_products sp");
+        List<Object> args = new ArrayList<>();
+        if (request.getJobId() != null) {
+            sql.append(" JOIN scrape_logs sl ON sl.id = sp.scrape_log_id AND sl.job_id = ?");
+            args.add(request.getJobId());
+        }
+        sql.append(" WHERE TRUE");
+        if (request.getStatus() != null) {
+            sql.append(" AND sp.approval_status = ?");
+            args.add(request.getStatus().name());
+        }
+        if (request.getWebsiteId() != null) {
+            sql.append(" AND sp.source_website_id = ?");
+            args.add(request.getWebsiteId());
+        }
+        if (request.getScrapeLogId() != null) {
+            sql.append(" AND sp.scrape_log_id = ?");
+            args.add(request.getScrapeLogId());
+        }
+        if (request.getCreatedSince() != null) {
+            sql.append(" AND sp.created_at >= ?");
+            args.add(Timestamp.valueOf(request.getCreatedSince()));
+        }
+
+        try {
+            String plan = jdbcTemplate.queryForObject(sql.toString(), String.class, args.toArray());
+            return objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows").asLong(-1);
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Failed to estimate staging product count: {}", e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Check the columns that are NOT NULL in products; returns the reason or null if valid
      */
-    public long getPendingCount() {
-        return stagingProductRepository.countByApprovalStatus(StagingProduct.ApprovalStatus.PENDING);
+    private static String nearDuplicateMessage(String duplicateOf) {
+        return "Near-duplicate of production product " + duplicateOf
+                + "; use its product code to update it, or approve with allowNearDuplicates";
     }
 
-    public long getApprovedCount() {
-        return stagingProductRepository.countByApprovalStatus(StagingProduct.ApprovalStatus.APPROVED);
+    private String validateForApproval(String productCode, String productName, String category) {
+        if (productCode == null || productCode.isBlank()) {
+            return "Product code is required";
+        }
+        if (productName == null || productName.isBlank()) {
+            return "Product name is required";
+        }
+        if (category == null || category.isBlank()) {
+            return "Category is required";
+        }
+        return null;
     }
 
-    public long getRejectedCount() {
-        return stagingProductRepository.countByApprovalStatus(StagingProduct.ApprovalStatus.REJECTED);
+    private String decodeBlob(RawHtmlBlob blob) {
+        if (blob.getEncoding() == RawHtmlBlob.Encoding.IDENTITY) {
+            return new String(blob.getContent(), StandardCharsets.UTF_8);
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(blob.getContent()))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decompress page content " + blob.getContentHash(), e);
+        }
     }
 
     /**
@@ -186,5 +666,14 @@ public class StagingProductService {
         product.setSourceUrl(staging.getSourceUrl());
         product.setScrapedAt(staging.getScrapedAt());
         product.setDataQualityScore(staging.getDataQualityScore());
+        product.setSimhash(staging.getSimhash());
+    }
+
+    private record ApprovalCandidate(long id, String productCode, LocalDateTime createdAt) {
+
+        boolean isNewerThan(ApprovalCandidate other) {
+            int byCreated = createdAt.compareTo(other.createdAt);
+            return byCreated != 0 ? byCreated > 0 : id > other.id;
+        }
     }
 }
@@ -0,0 +1,38 @@
+package com.smartguide.poc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the asynchronous recommendation audit log
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.audit")
+@Data
+public class AuditConfig {
+
+    private Boolean enabled = true;
+
+    /**
+     * Ring buffer slots; rounded up to a power of two
+     */
+    private Integer bufferCapacity = 8192;
+
+    /**
+     * Maximum records written per COPY
+     */
+    private Integer batchSize = 1000;
+
+    /**
+     * Maximum time a partial batch waits before it is written
+     */
+    private Long flushIntervalMs = 500L;
+
+    /**
+     * Buffer fill ratio above which only one in {@code samplingRate} records is kept
+     */
+    private Double samplingThreshold = 0.8;
+
+    private Integer samplingRate = 10;
+}
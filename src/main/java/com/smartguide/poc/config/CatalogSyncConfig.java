@@ -0,0 +1,42 @@
+package com.smartguide.poc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for propagating catalog changes between service instances
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.catalog-sync")
+@Data
+public class CatalogSyncConfig {
+
+    /**
+     * When disabled, catalog changes only invalidate the caches of the instance making them
+     */
+    private Boolean enabled = true;
+
+    /**
+     * NOTIFY channel; must be a plain lower-case identifier
+     */
+    private String channel = "catalog_changed";
+
+    /**
+     * Longest wait for a notification before the listen connection is checked
+     */
+    private Integer listenTimeoutMs = 1000;
+
+    /**
+     * How often the version row is read over the listen connection, which also detects
+     * a connection that died silently
+     */
+    private Long connectedPollIntervalMs = 60000L;
+
+    /**
+     * How often the version row is polled while the listen connection is down
+     */
+    private Long fallbackPollIntervalMs = 5000L;
+
+    private Long reconnectDelayMs = 5000L;
+}
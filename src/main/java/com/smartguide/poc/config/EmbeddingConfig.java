@@ -0,0 +1,97 @@
+package com.smartguide.poc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for embedding-based semantic product retrieval
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.embedding")
+@Data
+public class EmbeddingConfig {
+
+    private Boolean enabled = true;
+
+    /**
+     * ollama, or hashing for the local feature-hashing stand-in (no model server needed)
+     */
+    private String provider = "ollama";
+
+    /**
+     * Ollama embedding model; its host is app.llm.ollama.host
+     */
+    private String ollamaModel = "nomic-embed-text";
+
+    /**
+     * Vector size of the hashing stand-in
+     */
+    private Integer hashingDimensions = 256;
+
+    /**
+     * Timeout of embedding a user request on the recommendation path
+     */
+    private Long queryTimeoutMs = 2000L;
+
+    /**
+     * Timeout of embedding one batch of products
+     */
+    private Long batchTimeoutMs = 60000L;
+
+    private Integer batchSize = 32;
+
+    /**
+     * Share of the final relevance score taken by semantic similarity
+     */
+    private Double weight = 0.2;
+
+    /**
+     * Nearest products retrieved per request
+     */
+    private Integer topK = 10;
+
+    /**
+     * Nearest products added to the candidates even outside the mapped categories
+     */
+    private Integer candidateCount = 5;
+
+    /**
+     * Cosine similarity a neighbour needs to be added as a candidate
+     */
+    private Double minCandidateSimilarity = 0.6;
+
+    /**
+     * Embedded user requests kept in memory
+     */
+    private Integer queryCacheSize = 1000;
+
+    private Hnsw hnsw = new Hnsw();
+
+    /**
+     * On-disk snapshot of the index, so restarts do not rebuild the graph
+     */
+    private String snapshotPath = "./data/product-embeddings.hnsw";
+
+    private Long snapshotIntervalMs = 300000L;
+
+    /**
+     * How often the catalog version is checked for products to embed
+     */
+    private Long syncIntervalMs = 5000L;
+
+    @Data
+    public static class Hnsw {
+        /**
+         * Links per node on the upper layers (twice this on the bottom layer)
+         */
+        private Integer m = 16;
+
+        private Integer efConstruction = 200;
+
+        /**
+         * Candidate list size of a query; higher is slower with better recall
+         */
+        private Integer efSearch = 64;
+    }
+}
@@ -0,0 +1,64 @@
+package com.smartguide.poc.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Marks the admin beans and the springdoc (API docs) beans lazy, so they are created
+ * by the first request that needs them rather than during startup. Request mappings of
+ * lazy controllers are still registered from the bean type. Beans with @Scheduled
+ * methods stay eager, because their schedules are registered when they are created.
+ */
+@Component
+public class LazyAdminBeansPostProcessor implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private static final String ADMIN_PACKAGE = "com.smartguide.poc.admin";
+    private static final String DOCS_PACKAGE = "org.springdoc";
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        if (!environment.getProperty("app.startup.lazy-admin-beans", Boolean.class, true)) {
+            return;
+        }
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+            if (definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE || !definition.isSingleton()) {
+                continue;
+            }
+            Class<?> type = beanFactory.getType(beanName, false);
+            if (type != null && isAdminOrDocs(type) && !needsEagerInit(type)) {
+                definition.setLazyInit(true);
+            }
+        }
+    }
+
+    private static boolean isAdminOrDocs(Class<?> type) {
+        String packageName = type.getPackageName();
+        return packageName.startsWith(ADMIN_PACKAGE) || packageName.startsWith(DOCS_PACKAGE);
+    }
+
+    private static boolean needsEagerInit(Class<?> type) {
+        if (SmartInitializingSingleton.class.isAssignableFrom(type)) {
+            return true;
+        }
+        boolean[] scheduled = {false};
+        ReflectionUtils.doWithMethods(type, method -> scheduled[0] = true,
+                method -> AnnotationUtils.findAnnotation(method, Scheduled.class) != null);
+        return scheduled[0];
+    }
+}
@@ -0,0 +1,57 @@
+package com.smartguide.poc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the recommendation event log and popularity signal
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.popularity")
+@Data
+public class PopularityConfig {
+
+    /**
+     * Count-min sketch columns per row; error is about total weight / width
+     */
+    private Integer sketchWidth = 4096;
+
+    /**
+     * Count-min sketch rows (independent hash functions)
+     */
+    private Integer sketchDepth = 4;
+
+    /**
+     * Time for an event's contribution to popularity to halve
+     */
+    private Double halfLifeHours = 72.0;
+
+    private Long decayIntervalMs = 60000L;
+
+    private Long snapshotIntervalMs = 300000L;
+
+    /**
+     * Names this instance's popularity snapshot; defaults to the host name. Must be
+     * stable across restarts and unique among instances sharing a database.
+     */
+    private String instanceId;
+
+    /**
+     * Decayed weight at which popularity reaches 0.5 of its maximum contribution
+     */
+    private Double saturation = 20.0;
+
+    private Double impressionWeight = 0.1;
+    private Double clickWeight = 1.0;
+    private Double acceptWeight = 5.0;
+
+    /**
+     * Capacity of the in-memory queue in front of the event log writer
+     */
+    private Integer writerQueueCapacity = 10000;
+
+    private Integer writerBatchSize = 500;
+
+    private Long writerFlushMillis = 200L;
+}
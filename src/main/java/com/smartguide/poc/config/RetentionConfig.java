@@ -0,0 +1,43 @@
+package com.smartguide.poc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for partition maintenance and retention of scrape data
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.retention")
+@Data
+public class RetentionConfig {
+
+    private Boolean enabled = true;
+
+    private String cron = "0 30 3 * * *";
+
+    /**
+     * Monthly partitions created ahead of the current month
+     */
+    private Integer monthsAhead = 2;
+
+    /**
+     * Approved and rejected staging rows older than this move to staging_products_archive
+     */
+    private Integer archiveAfterDays = 90;
+
+    /**
+     * Scrape logs older than this are deleted once none of their staging rows remain
+     */
+    private Integer scrapeLogRetentionDays = 365;
+
+    /**
+     * Rows moved per archive statement
+     */
+    private Integer archiveBatchSize = 5000;
+
+    /**
+     * Default look-back of the admin staging list; 0 lists every partition
+     */
+    private Integer adminWindowDays = 90;
+}
@@ -0,0 +1,46 @@
+package com.smartguide.poc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for BM25 lexical retrieval over the product catalog
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.search")
+@Data
+public class SearchConfig {
+
+    private Boolean enabled = true;
+
+    /**
+     * Share of the final relevance score taken by the lexical score
+     */
+    private Double weight = 0.25;
+
+    /**
+     * BM25 term frequency saturation
+     */
+    private Double k1 = 1.2;
+
+    /**
+     * BM25 document length normalization (0 = none, 1 = full)
+     */
+    private Double b = 0.75;
+
+    /**
+     * Times a product name term is counted relative to description and benefit terms
+     */
+    private Integer nameBoost = 2;
+
+    /**
+     * Best lexical matches added to the candidates even outside the mapped categories
+     */
+    private Integer candidateCount = 5;
+
+    /**
+     * Lexical matches scoring below this share of the best match are not added as candidates
+     */
+    private Double minCandidateScore = 0.5;
+}
@@ -0,0 +1,41 @@
+package com.smartguide.poc.config;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for startup work that can be skipped
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.startup")
+@Data
+@Slf4j
+public class StartupConfig {
+
+    /**
+     * Create admin and API docs beans on first use instead of at startup
+     */
+    private Boolean lazyAdminBeans = true;
+
+    /**
+     * Run Flyway migrations on startup; off on read-only replicas. Unlike
+     * spring.flyway.enabled this is read at runtime, so it also applies to AOT builds,
+     * where auto-configuration conditions are fixed at build time.
+     */
+    private Boolean runMigrations = true;
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy() {
+        return flyway -> {
+            if (Boolean.TRUE.equals(runMigrations)) {
+                flyway.migrate();
+            } else {
+                log.info("Skipping Flyway migrations (app.startup.run-migrations=false)");
+            }
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package com.smartguide.poc.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measures startup from JVM launch: until the application is ready, and until the first
+ * request has been served (what an autoscaled pod actually waits for). Both are logged
+ * and reported by the health endpoint.
+ */
+@Component
+@Slf4j
+public class StartupTimer extends OncePerRequestFilter implements ApplicationListener<ApplicationReadyEvent> {
+
+    private volatile long readyMillis = -1;
+    private volatile long firstRequestMillis = -1;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        readyMillis = uptimeMillis();
+        log.info("Application ready {}ms after JVM start", readyMillis);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (firstRequestMillis < 0) {
+                recordFirstRequest(request.getRequestURI());
+            }
+        }
+    }
+
+    private synchronized void recordFirstRequest(String uri) {
+        if (firstRequestMillis < 0) {
+            firstRequestMillis = uptimeMillis();
+            log.info("First request ({}) served {}ms after JVM start", uri, firstRequestMillis);
+        }
+    }
+
+    public Map<String, Object> timings() {
+        Map<String, Object> timings = new LinkedHashMap<>();
+        timings.put("readyMillis", readyMillis >= 0 ? readyMillis : null);
+        timings.put("firstRequestMillis", firstRequestMillis >= 0 ? firstRequestMillis : null);
+        return timings;
+    }
+
+    private static long uptimeMillis() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+}
@@ -0,0 +1,69 @@
+package com.smartguide.poc.controller;
+
+import com.smartguide.poc.dto.ErrorResponse;
+import com.smartguide.poc.dto.RecommendationEvent;
+import com.smartguide.poc.dto.RecommendationEventRequest;
+import com.smartguide.poc.service.PopularityTracker;
+import com.smartguide.poc.service.RecommendationEventWriter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * REST Controller for recommendation feedback events (impressions, clicks, acceptances)
+ */
+@RestController
+@RequestMapping("/api/v1")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Events", description = "Recommendation feedback used for popularity ranking")
+public class EventController {
+
+    private final PopularityTracker popularityTracker;
+    private final RecommendationEventWriter eventWriter;
+
+    @PostMapping("/events")
+    @Operation(summary = "Record recommendation events",
+            description = "Events update the popularity signal immediately and are written to the event log asynchronously")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Events accepted"),
+            @ApiResponse(responseCode = "400", description = "Invalid request",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<Map<String, Object>> recordEvents(@Valid @RequestBody RecommendationEventRequest request) {
+        LocalDateTime receivedAt = LocalDateTime.now();
+        int accepted = 0;
+        for (RecommendationEvent event : request.getEvents()) {
+            if (event.getOccurredAt() == null || event.getOccurredAt().isAfter(receivedAt)) {
+                event.setOccurredAt(receivedAt);
+            }
+            popularityTracker.record(event);
+            if (eventWriter.offer(event)) {
+                accepted++;
+            }
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "accepted");
+        response.put("accepted", accepted);
+        response.put("dropped", request.getEvents().size() - accepted);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+}
@@ -0,0 +1,77 @@
+package com.smartguide.poc.controller;
+
+import com.smartguide.poc.dto.ErrorResponse;
+import com.smartguide.poc.dto.ExtractedProduct;
+import com.smartguide.poc.dto.ProductExtractionRequest;
+import com.smartguide.poc.dto.ProductExtractionResponse;
+import com.smartguide.poc.service.LLMService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST Controller for LLM-based structured extraction of scraped product pages
+ */
+@RestController
+@RequestMapping("/api/v1")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Extraction", description = "Structured product data extraction used by the scraper")
+public class ExtractionController {
+
+    private final LLMService llmService;
+
+    @PostMapping("/extract")
+    @Operation(summary = "Extract product fields", description = "Extract structured product fields from a batch of product page texts")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful extraction",
+                    content = @Content(schema = @Schema(implementation = ProductExtractionResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "LLM extraction failed",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<?> extractProducts(
+            @Valid @RequestBody ProductExtractionRequest request) {
+
+        long startTime = System.currentTimeMillis();
+
+        try {
+            log.info("Processing extraction request with {} items", request.getItems().size());
+
+            List<ExtractedProduct> products = llmService.extractProductDetails(request.getItems());
+
+            return ResponseEntity.ok(ProductExtractionResponse.builder()
+                    .status("success")
+                    .products(products)
+                    .processingTimeMs(System.currentTimeMillis() - startTime)
+                    .build());
+
+        } catch (Exception e) {
+            log.error("Error extracting product details: {}", e.getMessage(), e);
+
+            ErrorResponse errorResponse = ErrorResponse.builder()
+                    .status("error")
+                    .errorCode("EXTRACTION_ERROR")
+                    .message("Failed to extract product details: " + e.getMessage())
+                    .details(Map.of("processingTimeMs", System.currentTimeMillis() - startTime))
+                    .build();
+
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+}
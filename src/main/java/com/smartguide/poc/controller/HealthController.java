@@ -1,7 +1,9 @@
 package com.smartguide.poc.controller;
 
+import com.smartguide.poc.config.StartupTimer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -13,9 +15,12 @@ import java.util.Map;
  * Health check and root endpoints
  */
 @RestController
+@RequiredArgsConstructor
 @Tag(name = "Health", description = "Health check endpoints")
 public class HealthController {
 
+    private final StartupTimer startupTimer;
+
     @GetMapping("/")
     @Operation(summary = "Root endpoint", description = "Get API information")
     public ResponseEntity<Map<String, Object>> root() {
@@ -35,6 +40,7 @@ public class HealthController {
         response.put("status", "healthy");
         response.put("timestamp", System.currentTimeMillis());
         response.put("service", "smart-guide-poc");
+        response.put("startup", startupTimer.timings());
 
         return ResponseEntity.ok(response);
     }
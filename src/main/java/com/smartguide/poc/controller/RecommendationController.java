@@ -5,6 +5,7 @@ import com.smartguide.poc.entity.Product;
 import com.smartguide.poc.service.LLMService;
 import com.smartguide.poc.service.ProductService;
 import com.smartguide.poc.service.RulesEngine;
+import com.smartguide.poc.service.audit.RecommendationAuditLog;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -34,6 +35,7 @@ public class RecommendationController {
     private final LLMService llmService;
     private final RulesEngine rulesEngine;
     private final ProductService productService;
+    private final RecommendationAuditLog auditLog;
 
     @PostMapping("/recommend")
     @Operation(summary = "Get product recommendations", description = "Process user input and return recommended banking products")
@@ -78,7 +80,8 @@ public class RecommendationController {
             List<Map<String, Object>> rankedProducts = productService.getRecommendations(
                     filters,
                     intentData,
-                    categories
+                    categories,
+                    request.getUserInput()
             );
 
             // Step 5: Build response
@@ -132,6 +135,8 @@ public class RecommendationController {
                     .message(message)
                     .build();
 
+            auditLog.record(request, response);
+
             return ResponseEntity.ok(response);
 
         } catch (Exception e) {
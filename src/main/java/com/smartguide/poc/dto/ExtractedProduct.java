@@ -0,0 +1,60 @@
+package com.smartguide.poc.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Structured product fields extracted by the LLM from a product page
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Extracted product fields")
+public class ExtractedProduct {
+
+    @Schema(description = "Item id from the request", example = "0")
+    private String id;
+
+    @Schema(description = "Product name", example = "Voyager Travel Credit Card")
+    private String productName;
+
+    @Schema(description = "Product code", example = "CC_TRAVEL_01")
+    private String productCode;
+
+    @Schema(description = "Product category", example = "CREDIT_CARD")
+    private String category;
+
+    @Schema(description = "Product sub-category", example = "TRAVEL")
+    private String subCategory;
+
+    @Schema(description = "Product description")
+    private String description;
+
+    @Schema(description = "Islamic structure", example = "Murabaha")
+    private String islamicStructure;
+
+    @Schema(description = "Annual rate", example = "4.5")
+    private BigDecimal annualRate;
+
+    @Schema(description = "Annual fee", example = "150.0")
+    private BigDecimal annualFee;
+
+    @Schema(description = "Minimum income requirement", example = "50000.0")
+    private BigDecimal minIncome;
+
+    @Schema(description = "Minimum credit score", example = "650")
+    private Integer minCreditScore;
+
+    @Schema(description = "Key benefits of the product")
+    private List<String> keyBenefits;
+
+    @Schema(description = "Whether the product is Sharia certified", example = "true")
+    private Boolean shariaCertified;
+}
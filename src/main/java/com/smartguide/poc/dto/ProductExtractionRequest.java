@@ -0,0 +1,53 @@
+package com.smartguide.poc.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for structured product extraction from scraped page content
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Batch of product pages to extract structured data from")
+public class ProductExtractionRequest {
+
+    /**
+     * Limits the scraper's ExtractionLimits mirrors; change both together
+     */
+    public static final int MAX_ITEMS = 20;
+    public static final int MAX_CONTENT_CHARS = 8000;
+
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = MAX_ITEMS, message = "At most {max} items can be extracted per request")
+    @Valid
+    @Schema(description = "Product pages to extract, processed in a single prompt")
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Single product page")
+    public static class Item {
+
+        @NotBlank(message = "Item id cannot be empty")
+        @Schema(description = "Caller-assigned id used to match results", example = "0")
+        private String id;
+
+        @Schema(description = "URL the content was scraped from")
+        private String sourceUrl;
+
+        @NotBlank(message = "Item content cannot be empty")
+        @Size(max = MAX_CONTENT_CHARS, message = "Item content must be at most {max} characters")
+        @Schema(description = "Page text reduced from the rendered HTML")
+        private String content;
+    }
+}
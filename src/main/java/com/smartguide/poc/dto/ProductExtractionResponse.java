@@ -0,0 +1,29 @@
+package com.smartguide.poc.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for structured product extraction
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Structured product extraction response")
+public class ProductExtractionResponse {
+
+    @Schema(description = "Response status", example = "success")
+    private String status;
+
+    @Schema(description = "Extracted products, one per request item that could be parsed")
+    private List<ExtractedProduct> products;
+
+    @Schema(description = "Processing time in milliseconds", example = "2300")
+    private Long processingTimeMs;
+}
@@ -0,0 +1,52 @@
+package com.smartguide.poc.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A client-reported interaction with a recommended product
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Recommendation feedback event")
+public class RecommendationEvent {
+
+    @NotNull
+    @Schema(description = "Interaction type", example = "CLICK")
+    private EventType eventType;
+
+    @NotBlank
+    @Size(max = 50)
+    @Schema(description = "Product code the event refers to", example = "CC_TRAVEL_01")
+    private String productCode;
+
+    @Size(max = 100)
+    @Schema(description = "Customer segment the recommendation was made for", example = "salaried-25-34")
+    private String segment;
+
+    @Size(max = 100)
+    private String sessionId;
+
+    @Size(max = 100)
+    private String intent;
+
+    @Schema(description = "1-based position of the product in the recommendation list")
+    private Integer rank;
+
+    @Schema(description = "When the interaction happened; defaults to the time it was received")
+    private LocalDateTime occurredAt;
+
+    public enum EventType {
+        IMPRESSION,
+        CLICK,
+        ACCEPT
+    }
+}
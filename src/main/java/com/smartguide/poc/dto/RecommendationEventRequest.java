@@ -0,0 +1,24 @@
+package com.smartguide.poc.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Batch of recommendation feedback events
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendationEventRequest {
+
+    @NotEmpty(message = "At least one event is required")
+    @Size(max = 500, message = "At most 500 events per request")
+    @Valid
+    private List<RecommendationEvent> events;
+}
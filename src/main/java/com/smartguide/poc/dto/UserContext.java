@@ -19,4 +19,13 @@ public class UserContext {
     private BigDecimal minIncome;
     private Integer creditScore;
     private Integer age;
+    private String nationality;
+    private String employmentType;
+    private Integer employmentMonths;
+    private Boolean student;
+    private Boolean firstTimeBuyer;
+    private Boolean propertyOwner;
+
+    // Customer segment used for segment-level popularity, e.g. "salaried-25-34"
+    private String segment;
 }
@@ -87,4 +87,8 @@ public class Product {
 
     @Column(name = "data_quality_score", precision = 3, scale = 2)
     private BigDecimal dataQualityScore;
+
+    // Near-duplicate fingerprint, computed by the scraper
+    @Column(name = "simhash")
+    private Long simhash;
 }
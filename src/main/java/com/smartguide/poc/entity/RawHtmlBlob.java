@@ -0,0 +1,43 @@
+package com.smartguide.poc.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * RawHtmlBlob Entity - content-addressed, compressed page content of staging products
+ */
+@Entity
+@Table(name = "raw_html_blobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RawHtmlBlob {
+
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "encoding", nullable = false, length = 20)
+    private Encoding encoding;
+
+    @Column(name = "content", nullable = false)
+    private byte[] content;
+
+    @Column(name = "original_size", nullable = false)
+    private Integer originalSize;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    public enum Encoding {
+        GZIP,
+        IDENTITY
+    }
+}
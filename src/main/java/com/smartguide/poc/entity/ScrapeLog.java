@@ -48,6 +48,9 @@ public class ScrapeLog {
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
 
+    @Column(name = "config_version", length = 64)
+    private String configVersion;
+
     @CreationTimestamp
     @Column(name = "started_at", updatable = false)
     private LocalDateTime startedAt;
@@ -38,6 +38,9 @@ public class ScrapeSource {
     @Column(name = "active")
     private Boolean active = true;
 
+    @Column(name = "schedule_cron", length = 100)
+    private String scheduleCron;
+
     @Column(name = "last_scraped_at")
     private LocalDateTime lastScrapedAt;
 
@@ -86,8 +86,17 @@ public class StagingProduct {
     @Column(name = "data_quality_score", precision = 3, scale = 2)
     private BigDecimal dataQualityScore;
 
-    @Column(name = "raw_html", columnDefinition = "TEXT")
-    private String rawHtml;
+    // Page content lives in raw_html_blobs and is only loaded on demand
+    @Column(name = "raw_html_hash", length = 64)
+    private String rawHtmlHash;
+
+    // Near-duplicate detection: fingerprint, and the product this one resembles
+    // when it kept its own scraped code
+    @Column(name = "simhash")
+    private Long simhash;
+
+    @Column(name = "near_duplicate_of", length = 50)
+    private String nearDuplicateOf;
 
     // Staging/approval metadata
     @ManyToOne(fetch = FetchType.LAZY)
@@ -50,6 +50,19 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             @Param("creditScore") Integer creditScore
     );
 
+    /**
+     * Id and eligibility criteria of every active product, for building the eligibility index
+     */
+    @Query("SELECT p.id, p.eligibilityCriteria FROM Product p WHERE p.active = true")
+    List<Object[]> findActiveEligibilityCriteria();
+
+    /**
+     * Id, name, description and key benefits of every recommendable product, for building the BM25 index
+     */
+    @Query("SELECT p.id, p.productName, p.description, p.keyBenefits FROM Product p " +
+           "WHERE p.active = true AND p.shariaCertified = true")
+    List<Object[]> findSearchableText();
+
     /**
      * Find products by category with basic filters
      */
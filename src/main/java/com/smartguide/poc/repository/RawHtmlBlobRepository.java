@@ -0,0 +1,12 @@
+package com.smartguide.poc.repository;
+
+import com.smartguide.poc.entity.RawHtmlBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for RawHtmlBlob entity
+ */
+@Repository
+public interface RawHtmlBlobRepository extends JpaRepository<RawHtmlBlob, String> {
+}
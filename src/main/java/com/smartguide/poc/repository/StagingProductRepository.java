@@ -4,9 +4,11 @@ import com.smartguide.poc.entity.ScrapeLog;
 import com.smartguide.poc.entity.StagingProduct;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for StagingProduct entity
@@ -23,11 +25,8 @@ public interface StagingProductRepository extends JpaRepository<StagingProduct,
             StagingProduct.ApprovalStatus status
     );
 
-    @Query("SELECT sp FROM StagingProduct sp WHERE sp.approvalStatus = 'PENDING' ORDER BY sp.createdAt DESC")
-    List<StagingProduct> findAllPendingOrderByCreatedAtDesc();
-
-    @Query("SELECT sp FROM StagingProduct sp ORDER BY sp.createdAt DESC")
-    List<StagingProduct> findAllOrderByCreatedAtDesc();
+    @Query("SELECT sp.rawHtmlHash FROM StagingProduct sp WHERE sp.id = :id")
+    Optional<String> findRawHtmlHashById(@Param("id") Long id);
 
     long countByApprovalStatus(StagingProduct.ApprovalStatus status);
 
@@ -0,0 +1,156 @@
+package com.smartguide.poc.service;
+
+import com.smartguide.poc.config.CatalogSyncConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Keeps the local catalog version in step with changes made by other instances.
+ *
+ * A dedicated connection, outside the pool since it is held for the life of the
+ * service, LISTENs on the catalog channel and feeds every announced version to
+ * {@link CatalogVersion}; the caches keyed on it rebuild on their next use. The version
+ * row is also read over that connection on connect (to catch up on anything missed)
+ * and periodically (to detect a connection that died silently). While the connection
+ * is down the row is polled through the pool instead, and the listener reconnects.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CatalogChangeListener {
+
+    private static final String SELECT_VERSION_SQL = "SELECT version FROM catalog_version WHERE id = 1";
+
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogVersion catalogVersion;
+    private final CatalogSyncConfig config;
+
+    private Thread listener;
+    private volatile boolean running;
+    private volatile boolean listening;
+
+    @PostConstruct
+    public void start() {
+        if (!Boolean.TRUE.equals(config.getEnabled())) {
+            return;
+        }
+        if (!config.getChannel().matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("app.catalog-sync.channel must be a lower-case identifier");
+        }
+        running = true;
+        listener = new Thread(this::listen, "catalog-change-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+            listener.join(config.getListenTimeoutMs() * 2L);
+        }
+    }
+
+    public boolean isListening() {
+        return listening;
+    }
+
+    /**
+     * Polling fallback while the listen connection is down
+     */
+    @Scheduled(fixedDelayString = "${app.catalog-sync.fallback-poll-interval-ms:5000}")
+    public void pollWhileDisconnected() {
+        if (!running || listening) {
+            return;
+        }
+        try {
+            Long shared = jdbcTemplate.queryForObject(SELECT_VERSION_SQL, Long.class);
+            if (shared != null && catalogVersion.observe(shared)) {
+                log.info("Catalog version {} picked up by polling", shared);
+            }
+        } catch (DataAccessException e) {
+            log.debug("Failed to poll the catalog version: {}", e.getMessage());
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + config.getChannel());
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                listening = true;
+                log.info("Listening for catalog changes on channel {}", config.getChannel());
+
+                long nextCheck = 0;
+                while (running) {
+                    if (System.currentTimeMillis() >= nextCheck) {
+                        observe(readVersion(connection), "check");
+                        nextCheck = System.currentTimeMillis() + config.getConnectedPollIntervalMs();
+                    }
+                    PGNotification[] notifications = pgConnection.getNotifications(config.getListenTimeoutMs());
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        try {
+                            observe(Long.parseLong(notification.getParameter()), "notification");
+                        } catch (NumberFormatException e) {
+                            log.warn("Ignoring catalog notification with payload '{}'", notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Catalog change listener disconnected, polling until it reconnects: {}", e.getMessage());
+                }
+            } finally {
+                listening = false;
+            }
+
+            if (running) {
+                try {
+                    Thread.sleep(config.getReconnectDelayMs());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private long readVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(SELECT_VERSION_SQL)) {
+            if (!rs.next()) {
+                throw new SQLException("catalog_version row is missing");
+            }
+            return rs.getLong(1);
+        }
+    }
+
+    private void observe(long shared, String source) {
+        if (catalogVersion.observe(shared)) {
+            log.debug("Catalog version {} observed by {}", shared, source);
+        }
+    }
+}
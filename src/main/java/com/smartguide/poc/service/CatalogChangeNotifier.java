@@ -0,0 +1,47 @@
+package com.smartguide.poc.service;
+
+import com.smartguide.poc.config.CatalogSyncConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes changes of the products table to every service instance.
+ *
+ * The shared version row is incremented and announced with pg_notify in the caller's
+ * transaction. NOTIFY is transactional, so other instances hear about the new version
+ * only if and when the change commits, never before the new catalog is readable.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CatalogChangeNotifier {
+
+    private static final String BUMP_AND_NOTIFY_SQL = """
+            WITH bumped AS (
+                UPDATE catalog_version SET version = version + 1, updated_at = NOW()
+                WHERE id = 1
+                RETURNING version
+            )
+            SELECT version, pg_notify(?, version::text) FROM bumped
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogVersion catalogVersion;
+    private final CatalogSyncConfig config;
+
+    /**
+     * Record a catalog change; must run inside the transaction that changes products
+     */
+    public void publish() {
+        if (!Boolean.TRUE.equals(config.getEnabled())) {
+            catalogVersion.bumpAfterCommit();
+            return;
+        }
+        long shared = jdbcTemplate.queryForObject(BUMP_AND_NOTIFY_SQL,
+                (rs, rowNum) -> rs.getLong("version"), config.getChannel());
+        catalogVersion.observeAfterCommit(shared);
+        log.debug("Published catalog version {}", shared);
+    }
+}
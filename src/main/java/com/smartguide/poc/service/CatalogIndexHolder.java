@@ -0,0 +1,107 @@
+package com.smartguide.poc.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Holds an index derived from the catalog and rebuilds it when the catalog version moves.
+ *
+ * Only the very first build blocks callers. Later rebuilds run on a background thread
+ * while callers keep reading the previous index, and the finished index replaces it in a
+ * single volatile write, so readers never see a partly built one.
+ */
+@Slf4j
+public class CatalogIndexHolder<T> {
+
+    private final String name;
+    private final LongSupplier currentVersion;
+    private final LongFunction<T> builder;
+    private final ToLongFunction<T> versionOf;
+    private final ExecutorService rebuilder;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile T index;
+
+    public CatalogIndexHolder(String name, LongSupplier currentVersion, LongFunction<T> builder,
+                              ToLongFunction<T> versionOf) {
+        this.name = name;
+        this.currentVersion = currentVersion;
+        this.builder = builder;
+        this.versionOf = versionOf;
+        this.rebuilder = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, name + "-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * The index of the current catalog version, or the previous index while the new one
+     * is being built
+     */
+    public T get() {
+        T current = index;
+        if (current != null) {
+            if (versionOf.applyAsLong(current) != currentVersion.getAsLong()) {
+                scheduleRebuild();
+            }
+            return current;
+        }
+        synchronized (this) {
+            if (index == null) {
+                index = builder.apply(currentVersion.getAsLong());
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Build the first index in the background, e.g. once the application is ready
+     */
+    public void warmUp() {
+        try {
+            rebuilder.execute(() -> {
+                try {
+                    get();
+                } catch (RuntimeException e) {
+                    log.error("Building the initial {} failed", name, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Not warming up {}: shut down", name);
+        }
+    }
+
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private void scheduleRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuilder.execute(this::rebuild);
+        } catch (RejectedExecutionException e) {
+            rebuilding.set(false);
+        }
+    }
+
+    private void rebuild() {
+        try {
+            // Changes made while building leave the new index stale, which triggers another rebuild
+            index = builder.apply(currentVersion.getAsLong());
+        } catch (RuntimeException e) {
+            log.error("Rebuilding {} failed, still serving catalog version {}", name, versionOf.applyAsLong(index), e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+}
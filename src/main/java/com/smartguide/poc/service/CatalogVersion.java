@@ -0,0 +1,81 @@
+package com.smartguide.poc.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the production catalog. Caches derived from the products table
+ * compare against it and rebuild when it moves.
+ *
+ * The local version moves on its own changes and on every newer shared version (the
+ * catalog_version row) observed from other instances, once per shared version however
+ * often it is reported.
+ */
+@Component
+@Slf4j
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong(1);
+    private final AtomicLong sharedVersion = new AtomicLong(0);
+
+    public long current() {
+        return version.get();
+    }
+
+    public long currentShared() {
+        return sharedVersion.get();
+    }
+
+    /**
+     * Bump the version once the surrounding transaction commits, so a rebuild triggered
+     * by the new version can never read the pre-commit catalog
+     */
+    public void bumpAfterCommit() {
+        afterCommit(this::bump);
+    }
+
+    /**
+     * Observe a shared version written by the surrounding transaction once it commits
+     */
+    public void observeAfterCommit(long shared) {
+        afterCommit(() -> observe(shared));
+    }
+
+    /**
+     * Bump the local version if the shared version is newer than any seen so far
+     */
+    public boolean observe(long shared) {
+        long seen = sharedVersion.get();
+        while (shared > seen) {
+            if (sharedVersion.compareAndSet(seen, shared)) {
+                bump();
+                return true;
+            }
+            seen = sharedVersion.get();
+        }
+        return false;
+    }
+
+    public long bump() {
+        long next = version.incrementAndGet();
+        log.debug("Catalog version is now {}", next);
+        return next;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
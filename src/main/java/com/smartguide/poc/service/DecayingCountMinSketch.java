@@ -0,0 +1,156 @@
+package com.smartguide.poc.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Count-min sketch of weighted counts whose cells can be decayed in place.
+ *
+ * Cells hold doubles (stored as raw long bits) so weights can be fractional and decay
+ * is a multiplication. Reads are lock-free; writers share a read lock and {@link #decay}
+ * takes the write lock, so a decay never interleaves with a half-applied update.
+ */
+public final class DecayingCountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final AtomicLongArray cells;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public DecayingCountMinSketch(int depth, int width) {
+        this.depth = depth;
+        this.width = width;
+        this.cells = new AtomicLongArray(depth * width);
+    }
+
+    public void add(String key, double weight) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        lock.readLock().lock();
+        try {
+            for (int row = 0; row < depth; row++) {
+                int index = row * width + Math.floorMod(h1 + row * h2, width);
+                long current;
+                long updated;
+                do {
+                    current = cells.get(index);
+                    updated = Double.doubleToRawLongBits(Double.longBitsToDouble(current) + weight);
+                } while (!cells.compareAndSet(index, current, updated));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimated weight of the key: never under the true value, over by at most
+     * about total weight / width with high probability
+     */
+    public double estimate(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        double min = Double.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + Math.floorMod(h1 + row * h2, width);
+            min = Math.min(min, Double.longBitsToDouble(cells.get(index)));
+        }
+        return min;
+    }
+
+    /**
+     * Multiply every cell by the factor
+     */
+    public void decay(double factor) {
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < cells.length(); i++) {
+                double value = Double.longBitsToDouble(cells.get(i)) * factor;
+                // Flush values that have decayed to noise back to zero
+                cells.set(i, Double.doubleToRawLongBits(value < 1e-6 ? 0.0 : value));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public byte[] toBytes() {
+        lock.writeLock().lock();
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(8 + cells.length() * 8);
+            buffer.putInt(depth).putInt(width);
+            for (int i = 0; i < cells.length(); i++) {
+                buffer.putLong(cells.get(i));
+            }
+            return buffer.array();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Restore cells from {@link #toBytes()}; returns false if the snapshot has a different shape
+     */
+    public boolean restore(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.remaining() < 8 || buffer.getInt() != depth || buffer.getInt() != width
+                || buffer.remaining() != cells.length() * 8) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < cells.length(); i++) {
+                cells.set(i, buffer.getLong());
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add the cells of a {@link #toBytes()} snapshot, scaled by the factor, to this sketch's
+     * cells. Sketches of the same shape merge cell by cell into the sketch of all their
+     * events. Returns false if the snapshot has a different shape.
+     */
+    public boolean merge(byte[] bytes, double factor) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.remaining() < 8 || buffer.getInt() != depth || buffer.getInt() != width
+                || buffer.remaining() != cells.length() * 8) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < cells.length(); i++) {
+                double value = Double.longBitsToDouble(cells.get(i))
+                        + Double.longBitsToDouble(buffer.getLong()) * factor;
+                cells.set(i, Double.doubleToRawLongBits(value));
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a over UTF-8 bytes with a final avalanche step; the two halves
+     * seed the row hashes (h1 + row * h2)
+     */
+    private static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        // Keep h2 odd so no row degenerates to the same column as another
+        return hash | 1L << 32;
+    }
+}
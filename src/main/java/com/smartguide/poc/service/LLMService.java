@@ -4,17 +4,21 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smartguide.poc.config.LLMConfig;
+import com.smartguide.poc.dto.ExtractedProduct;
+import com.smartguide.poc.dto.ProductExtractionRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
 import java.time.Duration;
 import java.util.*;
 
 /**
- * Service for extracting intent from user input using LLM
+ * Service for extracting intent from user input and structured product
+ * data from scraped pages using LLM
  * Supports both Azure OpenAI and Ollama
  */
 @Service
@@ -51,6 +55,36 @@ public class LLMService {
             If the intent is unclear, use "GENERAL" with lower confidence.
             """;
 
+    private static final String EXTRACTION_PROMPT = """
+            You are a data extraction assistant for Islamic banking product pages.
+            For every item, extract the product details from the page text and return a JSON response.
+
+            Response format:
+            {
+                "products": [
+                    {
+                        "id": "item id exactly as given",
+                        "productName": "Full name of the product",
+                        "productCode": "Product code or identifier, or null",
+                        "category": "CREDIT_CARD | FINANCING | CASA | INVESTMENT | INSURANCE",
+                        "subCategory": "Sub-category if applicable, or null",
+                        "description": "Brief description of the product",
+                        "islamicStructure": "Murabaha, Tawarruq, Musharakah, Ijara, etc., or null",
+                        "annualRate": number or null,
+                        "annualFee": number or null,
+                        "minIncome": number or null,
+                        "minCreditScore": number or null,
+                        "keyBenefits": ["benefit", "..."],
+                        "shariaCertified": true or false
+                    }
+                ]
+            }
+
+            Return exactly one entry per item. Use null for fields not stated on the page.
+            """;
+
+    private static final int EXTRACTION_TOKENS_PER_ITEM = 400;
+
     private final LLMConfig llmConfig;
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
@@ -82,7 +116,61 @@ public class LLMService {
     /**
      * Extract intent using Azure OpenAI
      */
-    private Map<String, Object> extractIntentAzure(String userInput, String language) {
+    private Map<String, Object> extractIntentAzure(String userInput, String language) throws JsonProcessingException {
+        String content = completeAzure(SYSTEM_PROMPT,
+                String.format("Extract intent from this %s text: %s", language, userInput),
+                200, Duration.ofSeconds(30));
+        return validateIntentResponse(objectMapper.readTree(content));
+    }
+
+    /**
+     * Extract intent using Ollama
+     */
+    private Map<String, Object> extractIntentOllama(String userInput, String language) throws JsonProcessingException {
+        String prompt = String.format("%s\n\nExtract intent from this %s text: %s",
+                SYSTEM_PROMPT, language, userInput);
+        String content = completeOllama(prompt, 200, Duration.ofMillis(llmConfig.getOllama().getTimeout()));
+        return validateIntentResponse(objectMapper.readTree(content));
+    }
+
+    /**
+     * Extract structured product fields from the text content of one or more product pages.
+     * All items are sent in a single prompt; results are matched back to items by id.
+     */
+    public List<ExtractedProduct> extractProductDetails(List<ProductExtractionRequest.Item> items) {
+        StringBuilder userPrompt = new StringBuilder();
+        userPrompt.append("Extract product information for each of the following ")
+                .append(items.size()).append(" product pages.\n");
+        for (ProductExtractionRequest.Item item : items) {
+            userPrompt.append("\n### Item id: ").append(item.getId()).append("\n");
+            if (item.getSourceUrl() != null) {
+                userPrompt.append("URL: ").append(item.getSourceUrl()).append("\n");
+            }
+            userPrompt.append(item.getContent()).append("\n");
+        }
+
+        int maxTokens = EXTRACTION_TOKENS_PER_ITEM * items.size();
+        try {
+            String content;
+            if ("azure".equalsIgnoreCase(llmConfig.getProvider())) {
+                content = completeAzure(EXTRACTION_PROMPT, userPrompt.toString(), maxTokens, Duration.ofSeconds(60));
+            } else if ("ollama".equalsIgnoreCase(llmConfig.getProvider())) {
+                content = completeOllama(EXTRACTION_PROMPT + "\n\n" + userPrompt, maxTokens,
+                        Duration.ofMillis(llmConfig.getOllama().getTimeout() * 2L));
+            } else {
+                throw new IllegalArgumentException("Unknown LLM provider: " + llmConfig.getProvider());
+            }
+            return parseExtractionResponse(objectMapper.readTree(content));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("LLM returned invalid extraction JSON", e);
+        }
+    }
+
+    /**
+     * Run a chat completion against Azure OpenAI and return the message content
+     */
+    private String completeAzure(String systemPrompt, String userPrompt, int maxTokens, Duration timeout)
+            throws JsonProcessingException {
         String url = String.format("%s/openai/deployments/%s/chat/completions?api-version=%s",
                 llmConfig.getAzure().getEndpoint(),
                 llmConfig.getAzure().getDeploymentName(),
@@ -90,11 +178,11 @@ public class LLMService {
 
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("messages", Arrays.asList(
-                Map.of("role", "system", "content", SYSTEM_PROMPT),
-                Map.of("role", "user", "content", String.format("Extract intent from this %s text: %s", language, userInput))
+                Map.of("role", "system", "content", systemPrompt),
+                Map.of("role", "user", "content", userPrompt)
         ));
         requestBody.put("temperature", 0.3);
-        requestBody.put("max_tokens", 200);
+        requestBody.put("max_tokens", maxTokens);
         requestBody.put("response_format", Map.of("type", "json_object"));
 
         try {
@@ -105,23 +193,22 @@ public class LLMService {
                     .bodyValue(requestBody)
                     .retrieve()
                     .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(30))
+                    .timeout(timeout)
                     .block();
 
-            return parseAzureResponse(response);
-        } catch (Exception e) {
+            JsonNode root = objectMapper.readTree(response);
+            return root.path("choices").get(0).path("message").path("content").asText();
+        } catch (RuntimeException e) {
             log.error("Azure OpenAI error: {}", e.getMessage());
             throw e;
         }
     }
 
     /**
-     * Extract intent using Ollama
+     * Run a JSON-mode generation against Ollama and return the generated text
      */
-    private Map<String, Object> extractIntentOllama(String userInput, String language) {
+    private String completeOllama(String prompt, int maxTokens, Duration timeout) throws JsonProcessingException {
         String url = llmConfig.getOllama().getHost() + "/api/generate";
-        String prompt = String.format("%s\n\nExtract intent from this %s text: %s",
-                SYSTEM_PROMPT, language, userInput);
 
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("model", llmConfig.getOllama().getModel());
@@ -130,7 +217,7 @@ public class LLMService {
         requestBody.put("stream", false);
         requestBody.put("options", Map.of(
                 "temperature", 0.3,
-                "num_predict", 200
+                "num_predict", maxTokens
         ));
 
         try {
@@ -140,34 +227,64 @@ public class LLMService {
                     .bodyValue(requestBody)
                     .retrieve()
                     .bodyToMono(String.class)
-                    .timeout(Duration.ofMillis(llmConfig.getOllama().getTimeout()))
+                    .timeout(timeout)
                     .block();
 
-            return parseOllamaResponse(response);
-        } catch (Exception e) {
+            JsonNode root = objectMapper.readTree(response);
+            return root.path("response").asText();
+        } catch (RuntimeException e) {
             log.error("Ollama error: {}", e.getMessage());
             throw e;
         }
     }
 
     /**
-     * Parse Azure OpenAI response
+     * Parse the extraction response into one result per item
      */
-    private Map<String, Object> parseAzureResponse(String response) throws JsonProcessingException {
-        JsonNode root = objectMapper.readTree(response);
-        String content = root.path("choices").get(0).path("message").path("content").asText();
-        JsonNode intentData = objectMapper.readTree(content);
-        return validateIntentResponse(intentData);
+    private List<ExtractedProduct> parseExtractionResponse(JsonNode response) {
+        List<ExtractedProduct> results = new ArrayList<>();
+        for (JsonNode node : response.path("products")) {
+            ExtractedProduct product = ExtractedProduct.builder()
+                    .id(textOrNull(node, "id"))
+                    .productName(textOrNull(node, "productName"))
+                    .productCode(textOrNull(node, "productCode"))
+                    .category(textOrNull(node, "category"))
+                    .subCategory(textOrNull(node, "subCategory"))
+                    .description(textOrNull(node, "description"))
+                    .islamicStructure(textOrNull(node, "islamicStructure"))
+                    .annualRate(decimalOrNull(node, "annualRate"))
+                    .annualFee(decimalOrNull(node, "annualFee"))
+                    .minIncome(decimalOrNull(node, "minIncome"))
+                    .minCreditScore(node.path("minCreditScore").isNumber() ? node.path("minCreditScore").asInt() : null)
+                    .keyBenefits(node.path("keyBenefits").isArray()
+                            ? objectMapper.convertValue(node.path("keyBenefits"),
+                                    objectMapper.getTypeFactory().constructCollectionType(List.class, String.class))
+                            : null)
+                    .shariaCertified(node.path("shariaCertified").isBoolean() ? node.path("shariaCertified").asBoolean() : null)
+                    .build();
+            if (product.getId() != null) {
+                results.add(product);
+            }
+        }
+        return results;
     }
 
-    /**
-     * Parse Ollama response
-     */
-    private Map<String, Object> parseOllamaResponse(String response) throws JsonProcessingException {
-        JsonNode root = objectMapper.readTree(response);
-        String content = root.path("response").asText();
-        JsonNode intentData = objectMapper.readTree(content);
-        return validateIntentResponse(intentData);
+    private String textOrNull(JsonNode node, String field) {
+        JsonNode value = node.path(field);
+        return value.isNull() || value.isMissingNode() || value.asText().isBlank() ? null : value.asText();
+    }
+
+    private BigDecimal decimalOrNull(JsonNode node, String field) {
+        JsonNode value = node.path(field);
+        if (value.isNumber()) {
+            return value.decimalValue();
+        }
+        try {
+            String cleaned = value.asText("").replaceAll("[^0-9.-]", "");
+            return cleaned.isEmpty() ? null : new BigDecimal(cleaned);
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
     /**
@@ -0,0 +1,186 @@
+package com.smartguide.poc.service;
+
+import com.smartguide.poc.config.PopularityConfig;
+import com.smartguide.poc.dto.RecommendationEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Time-decayed popularity per product, globally and per customer segment.
+ *
+ * Weighted event counts live in a count-min sketch that is decayed in place on a
+ * schedule (exponential, configurable half-life) and snapshotted to the database so
+ * restarts keep the signal. Lookups are a few array reads, with no database access.
+ *
+ * Each instance only sees the events it receives, so it snapshots its own events under
+ * its own key. On startup it serves the cell-wise sum of every instance's snapshot,
+ * while continuing to snapshot only its own events, so nothing is counted twice.
+ * Between restarts an instance does not see the other instances' new events.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PopularityTracker {
+
+    private static final String SNAPSHOT_KEY_PREFIX = "popularity:";
+
+    // Single snapshot written before snapshots were kept per instance
+    private static final String LEGACY_SNAPSHOT_KEY = "popularity";
+
+    // snapshot_key is VARCHAR(50)
+    private static final int MAX_INSTANCE_ID_LENGTH = 50 - SNAPSHOT_KEY_PREFIX.length();
+
+    private static final String UPSERT_SNAPSHOT_SQL = """
+            INSERT INTO ranking_snapshots (snapshot_key, payload, taken_at)
+            VALUES (?, ?, ?)
+            ON CONFLICT (snapshot_key) DO UPDATE SET payload = EXCLUDED.payload, taken_at = EXCLUDED.taken_at
+            """;
+
+    private final PopularityConfig popularityConfig;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Events of every instance, as of their last snapshots, plus this instance's since; serves lookups
+    private DecayingCountMinSketch sketch;
+    // Events received by this instance only; the part it snapshots
+    private DecayingCountMinSketch localSketch;
+    private String snapshotKey;
+    private long lastDecayNanos;
+
+    @PostConstruct
+    public void init() {
+        sketch = new DecayingCountMinSketch(popularityConfig.getSketchDepth(), popularityConfig.getSketchWidth());
+        localSketch = new DecayingCountMinSketch(popularityConfig.getSketchDepth(), popularityConfig.getSketchWidth());
+        snapshotKey = SNAPSHOT_KEY_PREFIX + instanceId();
+        lastDecayNanos = System.nanoTime();
+        restoreSnapshots();
+    }
+
+    public void record(RecommendationEvent event) {
+        double weight = switch (event.getEventType()) {
+            case IMPRESSION -> popularityConfig.getImpressionWeight();
+            case CLICK -> popularityConfig.getClickWeight();
+            case ACCEPT -> popularityConfig.getAcceptWeight();
+        };
+        add(globalKey(event.getProductCode()), weight);
+        if (event.getSegment() != null && !event.getSegment().isBlank()) {
+            add(segmentKey(event.getProductCode(), event.getSegment()), weight);
+        }
+    }
+
+    /**
+     * Popularity in [0, 1). With a segment, the segment's own signal is blended with
+     * the global one so sparse segments still get a sensible value.
+     */
+    public double popularity(String productCode, String segment) {
+        double global = saturate(sketch.estimate(globalKey(productCode)));
+        if (segment == null || segment.isBlank()) {
+            return global;
+        }
+        double local = saturate(sketch.estimate(segmentKey(productCode, segment)));
+        return 0.6 * local + 0.4 * global;
+    }
+
+    @Scheduled(fixedDelayString = "${app.popularity.decay-interval-ms:60000}")
+    public void decay() {
+        long now = System.nanoTime();
+        double elapsedHours = (now - lastDecayNanos) / 3_600_000_000_000.0;
+        lastDecayNanos = now;
+        double factor = decayFactor(elapsedHours);
+        sketch.decay(factor);
+        localSketch.decay(factor);
+    }
+
+    @Scheduled(fixedDelayString = "${app.popularity.snapshot-interval-ms:300000}",
+            initialDelayString = "${app.popularity.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        try {
+            jdbcTemplate.update(UPSERT_SNAPSHOT_SQL, snapshotKey, localSketch.toBytes(), Timestamp.valueOf(LocalDateTime.now()));
+            log.debug("Saved popularity snapshot");
+        } catch (DataAccessException e) {
+            log.warn("Failed to save popularity snapshot: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
+
+    /**
+     * Merge every instance's snapshot into the served sketch; only this instance's own
+     * snapshot goes back into the sketch it snapshots
+     */
+    private void restoreSnapshots() {
+        try {
+            List<Snapshot> rows = jdbcTemplate.query(
+                    "SELECT snapshot_key, payload, taken_at FROM ranking_snapshots WHERE snapshot_key = ? OR snapshot_key LIKE ?",
+                    (rs, rowNum) -> new Snapshot(rs.getString("snapshot_key"), rs.getBytes("payload"),
+                            rs.getTimestamp("taken_at").toLocalDateTime()),
+                    LEGACY_SNAPSHOT_KEY, SNAPSHOT_KEY_PREFIX + "%");
+            for (Snapshot snapshot : rows) {
+                // Age the restored counts by the time since the snapshot was taken
+                double hoursSince = Duration.between(snapshot.takenAt(), LocalDateTime.now()).toMillis() / 3_600_000.0;
+                double factor = decayFactor(Math.max(0, hoursSince));
+                if (!sketch.merge(snapshot.payload(), factor)) {
+                    log.warn("Ignoring popularity snapshot {} with a different sketch shape", snapshot.key());
+                    continue;
+                }
+                if (snapshot.key().equals(snapshotKey)) {
+                    localSketch.merge(snapshot.payload(), factor);
+                }
+                log.info("Restored popularity snapshot {} from {}", snapshot.key(), snapshot.takenAt());
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to restore popularity snapshots: {}", e.getMessage());
+        }
+    }
+
+    private void add(String key, double weight) {
+        sketch.add(key, weight);
+        localSketch.add(key, weight);
+    }
+
+    private String instanceId() {
+        String id = popularityConfig.getInstanceId();
+        if (id == null || id.isBlank()) {
+            try {
+                id = InetAddress.getLocalHost().getHostName();
+            } catch (UnknownHostException e) {
+                id = "local";
+            }
+        }
+        return id.length() > MAX_INSTANCE_ID_LENGTH ? id.substring(0, MAX_INSTANCE_ID_LENGTH) : id;
+    }
+
+    private double decayFactor(double elapsedHours) {
+        return Math.pow(0.5, elapsedHours / popularityConfig.getHalfLifeHours());
+    }
+
+    private double saturate(double weight) {
+        return weight / (weight + popularityConfig.getSaturation());
+    }
+
+    private static String globalKey(String productCode) {
+        return productCode;
+    }
+
+    private static String segmentKey(String productCode, String segment) {
+        return productCode + '\u0000' + segment;
+    }
+
+    private record Snapshot(String key, byte[] payload, LocalDateTime takenAt) {
+    }
+}
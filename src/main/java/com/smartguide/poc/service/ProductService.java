@@ -1,10 +1,18 @@
 package com.smartguide.poc.service;
 
+import com.smartguide.poc.dto.UserContext;
 import com.smartguide.poc.entity.Product;
 import com.smartguide.poc.repository.ProductRepository;
+import com.smartguide.poc.config.EmbeddingConfig;
+import com.smartguide.poc.config.SearchConfig;
+import com.smartguide.poc.service.eligibility.EligibilityEngine;
+import com.smartguide.poc.service.search.Bm25Index;
+import com.smartguide.poc.service.search.LexicalSearch;
+import com.smartguide.poc.service.search.SemanticSearch;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
@@ -27,6 +35,12 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final EntityManager entityManager;
+    private final EligibilityEngine eligibilityEngine;
+    private final PopularityTracker popularityTracker;
+    private final LexicalSearch lexicalSearch;
+    private final SearchConfig searchConfig;
+    private final SemanticSearch semanticSearch;
+    private final EmbeddingConfig embeddingConfig;
 
     /**
      * Get product recommendations based on filters and intent
@@ -35,30 +49,57 @@ public class ProductService {
             Map<String, Object> filters,
             Map<String, Object> intentData,
             Map<String, Object> categories) {
+        return getRecommendations(filters, intentData, categories, null);
+    }
 
-        List<Product> products = queryProducts(filters);
+    /**
+     * Get product recommendations, also matching the user's own words against product
+     * names, descriptions and benefits, lexically (BM25) and semantically (nearest product
+     * embeddings). The best matches of both become candidates even outside the mapped
+     * categories, and both scores are blended into the ranking.
+     */
+    public List<Map<String, Object>> getRecommendations(
+            Map<String, Object> filters,
+            Map<String, Object> intentData,
+            Map<String, Object> categories,
+            String userInput) {
+
+        UserContext userContext = (UserContext) filters.get("user_context");
+        Bm25Index.Scores lexicalScores = lexicalSearch.search(userInput);
+        List<Long> lexicalMatches = lexicalScores != null
+                ? lexicalScores.top(searchConfig.getCandidateCount(), searchConfig.getMinCandidateScore())
+                : List.of();
+        SemanticSearch.Matches semanticMatches = semanticSearch.search(userInput);
+        Set<Long> textMatches = new LinkedHashSet<>(lexicalMatches);
+        if (semanticMatches != null) {
+            textMatches.addAll(semanticMatches.top(embeddingConfig.getCandidateCount(),
+                    embeddingConfig.getMinCandidateSimilarity()));
+        }
+        List<Product> products = eligibilityEngine.filterEligible(queryProducts(filters, textMatches), userContext);
 
         if (products.isEmpty()) {
             log.warn("No products found with filters, getting fallback products");
-            products = getFallbackProducts();
+            products = eligibilityEngine.filterEligible(getFallbackProducts(), userContext);
         }
 
         // Add categories to intent data for ranking
         Map<String, Object> enrichedIntentData = new HashMap<>(intentData);
         enrichedIntentData.put("primary_category", categories.get("primary"));
         enrichedIntentData.put("secondary_categories", categories.get("secondary"));
+        enrichedIntentData.put("segment", userContext != null ? userContext.getSegment() : null);
 
-        List<Map<String, Object>> rankedProducts = rankProducts(products, enrichedIntentData);
+        List<Map<String, Object>> rankedProducts = rankProducts(products, enrichedIntentData, lexicalScores, semanticMatches);
 
         // Return top 5
         return rankedProducts.stream().limit(5).collect(Collectors.toList());
     }
 
     /**
-     * Query products from database with filters
+     * Query products from database with filters; products in {@code textMatches} pass
+     * the category filter regardless of their category
      */
     @SuppressWarnings("unchecked")
-    private List<Product> queryProducts(Map<String, Object> filters) {
+    private List<Product> queryProducts(Map<String, Object> filters, Collection<Long> textMatches) {
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         CriteriaQuery<Product> query = cb.createQuery(Product.class);
         Root<Product> product = query.from(Product.class);
@@ -68,17 +109,20 @@ public class ProductService {
         // Category filter
         List<String> categories = (List<String>) filters.get("categories");
         if (categories != null && !categories.isEmpty()) {
-            predicates.add(product.get("category").in(categories));
+            Predicate inCategories = product.get("category").in(categories);
+            predicates.add(textMatches.isEmpty()
+                    ? inCategories
+                    : cb.or(inCategories, product.get("id").in(textMatches)));
         }
 
-        // Active filter
+        // Active and Sharia certified filters are rendered as literal boolean tests rather than
+        // bind parameters, so the planner can match the partial index idx_products_recommendable
         if (filters.containsKey("active")) {
-            predicates.add(cb.equal(product.get("active"), filters.get("active")));
+            predicates.add(booleanFilter(cb, product.get("active"), filters.get("active")));
         }
 
-        // Sharia certified filter
         if (filters.containsKey("sharia_certified")) {
-            predicates.add(cb.equal(product.get("shariaCertified"), filters.get("sharia_certified")));
+            predicates.add(booleanFilter(cb, product.get("shariaCertified"), filters.get("sharia_certified")));
         }
 
         // User income filter
@@ -112,6 +156,10 @@ public class ProductService {
         return entityManager.createQuery(query).getResultList();
     }
 
+    private Predicate booleanFilter(CriteriaBuilder cb, Expression<Boolean> attribute, Object value) {
+        return Boolean.TRUE.equals(value) ? cb.isTrue(attribute) : cb.isFalse(attribute);
+    }
+
     /**
      * Get generic fallback products when no specific matches
      */
@@ -127,11 +175,13 @@ public class ProductService {
     /**
      * Rank products based on relevance to intent
      */
-    private List<Map<String, Object>> rankProducts(List<Product> products, Map<String, Object> intentData) {
+    private List<Map<String, Object>> rankProducts(List<Product> products, Map<String, Object> intentData,
+                                                   Bm25Index.Scores lexicalScores,
+                                                   SemanticSearch.Matches semanticMatches) {
         List<Map<String, Object>> scoredProducts = new ArrayList<>();
 
         for (Product product : products) {
-            double score = calculateRelevanceScore(product, intentData);
+            double score = calculateRelevanceScore(product, intentData, lexicalScores, semanticMatches);
             String reason = generateReason(product, intentData);
 
             Map<String, Object> scoredProduct = new HashMap<>();
@@ -157,9 +207,14 @@ public class ProductService {
      * - Recency: 20%
      * - Popularity: 15%
      * - Benefit alignment: 15%
+     * When the user's words match the catalog, this score is blended with the normalized
+     * BM25 score (app.search.weight) and the normalized embedding similarity
+     * (app.embedding.weight); a signal that is absent for the request takes no share.
      */
     @SuppressWarnings("unchecked")
-    private double calculateRelevanceScore(Product product, Map<String, Object> intentData) {
+    private double calculateRelevanceScore(Product product, Map<String, Object> intentData,
+                                           Bm25Index.Scores lexicalScores,
+                                           SemanticSearch.Matches semanticMatches) {
         double score = 0.0;
 
         String primaryCategory = (String) intentData.get("primary_category");
@@ -188,13 +243,9 @@ public class ProductService {
             score += 0.10;
         }
 
-        // 3. Popularity (15%) - Simplified for POC
-        List<String> popularProducts = Arrays.asList("CC_TRAVEL_01", "CASA_SAV_01", "FIN_HOME_01");
-        if (popularProducts.contains(product.getProductCode())) {
-            score += 0.15;
-        } else {
-            score += 0.08;
-        }
+        // 3. Popularity (15%) - decayed engagement from recommendation events
+        double popularity = popularityTracker.popularity(product.getProductCode(), (String) intentData.get("segment"));
+        score += 0.08 + 0.07 * popularity;
 
         // 4. Benefit alignment (15%)
         String intent = (String) intentData.get("intent");
@@ -204,6 +255,14 @@ public class ProductService {
             score += 0.05;
         }
 
+        double lexicalWeight = lexicalScores != null && !lexicalScores.isEmpty() ? searchConfig.getWeight() : 0.0;
+        double semanticWeight = semanticMatches != null && !semanticMatches.isEmpty() ? embeddingConfig.getWeight() : 0.0;
+        if (lexicalWeight > 0 || semanticWeight > 0) {
+            score = (1 - lexicalWeight - semanticWeight) * score
+                    + (lexicalWeight > 0 ? lexicalWeight * lexicalScores.normalized(product.getId()) : 0.0)
+                    + (semanticWeight > 0 ? semanticWeight * semanticMatches.normalized(product.getId()) : 0.0);
+        }
+
         return Math.min(1.0, Math.max(0.0, score));
     }
 
@@ -0,0 +1,119 @@
+package com.smartguide.poc.service;
+
+import com.smartguide.poc.config.PopularityConfig;
+import com.smartguide.poc.dto.RecommendationEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends recommendation events to the event log off the request path.
+ *
+ * Requests only enqueue; a single background thread drains the queue and writes
+ * batches with one JDBC batch insert. When the queue is full new events are dropped
+ * (and counted) instead of blocking the caller.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RecommendationEventWriter {
+
+    private static final String INSERT_EVENT_SQL = """
+            INSERT INTO recommendation_events
+                (event_type, product_code, segment, session_id, intent, rank, occurred_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PopularityConfig popularityConfig;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private BlockingQueue<RecommendationEvent> queue;
+    private Thread worker;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(popularityConfig.getWriterQueueCapacity());
+        running = true;
+        worker = new Thread(this::drain, "recommendation-event-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Enqueue an event for writing; returns false if it was dropped because the queue is full
+     */
+    public boolean offer(RecommendationEvent event) {
+        if (queue.offer(event)) {
+            return true;
+        }
+        long total = dropped.incrementAndGet();
+        if (total % 1000 == 1) {
+            log.warn("Recommendation event queue full, {} events dropped so far", total);
+        }
+        return false;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void drain() {
+        int batchSize = popularityConfig.getWriterBatchSize();
+        List<RecommendationEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                RecommendationEvent first = queue.poll(popularityConfig.getWriterFlushMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+            } catch (InterruptedException e) {
+                // Shutting down: write whatever is still queued, then exit
+                queue.drainTo(batch);
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<RecommendationEvent> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, batch, batch.size(), (ps, event) -> {
+                ps.setString(1, event.getEventType().name());
+                ps.setString(2, event.getProductCode());
+                ps.setString(3, event.getSegment());
+                ps.setString(4, event.getSessionId());
+                ps.setString(5, event.getIntent());
+                ps.setObject(6, event.getRank());
+                ps.setTimestamp(7, Timestamp.valueOf(event.getOccurredAt()));
+            });
+        } catch (Exception e) {
+            dropped.addAndGet(batch.size());
+            log.error("Failed to write {} recommendation events: {}", batch.size(), e.getMessage());
+        }
+    }
+}
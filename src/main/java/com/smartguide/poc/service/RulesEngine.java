@@ -100,6 +100,9 @@ public class RulesEngine {
             if (userContext.getAge() != null) {
                 filters.put("user_age", userContext.getAge());
             }
+
+            // Evaluated in-process against product eligibility criteria
+            filters.put("user_context", userContext);
         }
 
         return filters;
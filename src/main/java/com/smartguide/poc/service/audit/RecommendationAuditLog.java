@@ -0,0 +1,251 @@
+package com.smartguide.poc.service.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartguide.poc.config.AuditConfig;
+import com.smartguide.poc.dto.ProductRecommendation;
+import com.smartguide.poc.dto.RecommendationRequest;
+import com.smartguide.poc.dto.RecommendationResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit trail of served recommendations, kept off the request path.
+ *
+ * Request threads push records into a lock-free ring buffer. A background thread
+ * drains it and writes batches into the monthly-partitioned recommendation_audit table
+ * with COPY. Under load the buffer sheds records instead of slowing requests. Above
+ * the sampling threshold only one in N records is kept, carrying a weight of N. A
+ * full buffer drops records. Every loss is counted and reported by {@link #metrics()}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RecommendationAuditLog {
+
+    private static final String COPY_SQL = """
+            COPY recommendation_audit (request_id, served_at, user_input, language, intent, confidence,
+                user_context, recommendations, processing_time_ms, sample_weight)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+
+    private final AuditConfig auditConfig;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong captured = new AtomicLong();
+    private final AtomicLong sampledOut = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong writeFailures = new AtomicLong();
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final Set<YearMonth> knownPartitions = ConcurrentHashMap.newKeySet();
+
+    private MpscRingBuffer<AuditRecord> buffer;
+    private Thread writer;
+    private volatile boolean running;
+
+    private record AuditRecord(String requestId, LocalDateTime servedAt, RecommendationRequest request,
+                               RecommendationResponse response, int sampleWeight) {
+    }
+
+    @PostConstruct
+    public void start() {
+        buffer = new MpscRingBuffer<>(auditConfig.getBufferCapacity());
+        if (!auditConfig.getEnabled()) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drain, "recommendation-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Capture a served recommendation; never blocks
+     */
+    public void record(RecommendationRequest request, RecommendationResponse response) {
+        if (!running) {
+            return;
+        }
+        captured.incrementAndGet();
+
+        int weight = 1;
+        if (buffer.size() >= buffer.capacity() * auditConfig.getSamplingThreshold()) {
+            int rate = auditConfig.getSamplingRate();
+            if (sampleCounter.incrementAndGet() % rate != 0) {
+                sampledOut.incrementAndGet();
+                return;
+            }
+            weight = rate;
+        }
+
+        AuditRecord record = new AuditRecord(UUID.randomUUID().toString(), LocalDateTime.now(), request, response, weight);
+        if (!buffer.offer(record)) {
+            dropped.addAndGet(weight);
+        }
+    }
+
+    /**
+     * Counters since startup. sampledOut records are represented by a weighted
+     * sibling row, dropped and writeFailures records are lost.
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", running);
+        metrics.put("captured", captured.get());
+        metrics.put("written", written.get());
+        metrics.put("sampledOut", sampledOut.get());
+        metrics.put("dropped", dropped.get());
+        metrics.put("writeFailures", writeFailures.get());
+        metrics.put("buffered", buffer.size());
+        metrics.put("bufferCapacity", buffer.capacity());
+        return metrics;
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void drain() {
+        int batchSize = auditConfig.getBatchSize();
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(auditConfig.getFlushIntervalMs());
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        long batchStarted = System.nanoTime();
+
+        while (true) {
+            AuditRecord record = buffer.poll();
+            if (record != null) {
+                if (batch.isEmpty()) {
+                    batchStarted = System.nanoTime();
+                }
+                batch.add(record);
+                if (batch.size() < batchSize) {
+                    continue;
+                }
+            }
+
+            boolean stopping = !running;
+            boolean due = !batch.isEmpty() && System.nanoTime() - batchStarted >= flushIntervalNanos;
+            if (batch.size() >= batchSize || due || (stopping && record == null)) {
+                if (!batch.isEmpty()) {
+                    write(batch);
+                    batch.clear();
+                }
+                if (stopping && record == null) {
+                    return;
+                }
+            }
+            if (record == null) {
+                LockSupport.parkNanos(Math.min(flushIntervalNanos, TimeUnit.MILLISECONDS.toNanos(50)));
+            }
+        }
+    }
+
+    private void write(List<AuditRecord> batch) {
+        try {
+            for (AuditRecord record : batch) {
+                ensurePartition(record.servedAt());
+            }
+
+            byte[] csv = toCsv(batch);
+            jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+                try {
+                    return new CopyManager(con.unwrap(BaseConnection.class))
+                            .copyIn(COPY_SQL, new ByteArrayInputStream(csv));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            for (AuditRecord record : batch) {
+                written.addAndGet(record.sampleWeight());
+            }
+        } catch (Exception e) {
+            for (AuditRecord record : batch) {
+                writeFailures.addAndGet(record.sampleWeight());
+            }
+            log.error("Failed to write {} recommendation audit records: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private void ensurePartition(LocalDateTime servedAt) {
+        YearMonth month = YearMonth.from(servedAt);
+        if (knownPartitions.contains(month)) {
+            return;
+        }
+        jdbcTemplate.queryForList("SELECT ensure_recommendation_audit_partition(?)", Timestamp.valueOf(servedAt));
+        knownPartitions.add(month);
+    }
+
+    private byte[] toCsv(List<AuditRecord> batch) throws JsonProcessingException {
+        StringBuilder csv = new StringBuilder(batch.size() * 512);
+        for (AuditRecord record : batch) {
+            RecommendationRequest request = record.request();
+            RecommendationResponse response = record.response();
+            List<Map<String, Object>> ranked = new ArrayList<>();
+            if (response.getRecommendations() != null) {
+                for (ProductRecommendation recommendation : response.getRecommendations()) {
+                    Map<String, Object> item = new LinkedHashMap<>();
+                    item.put("rank", recommendation.getRank());
+                    item.put("productCode", recommendation.getProductCode());
+                    item.put("score", recommendation.getRelevanceScore());
+                    ranked.add(item);
+                }
+            }
+
+            appendField(csv, record.requestId()).append(',');
+            appendField(csv, Timestamp.valueOf(record.servedAt()).toString()).append(',');
+            appendField(csv, request.getUserInput()).append(',');
+            appendField(csv, request.getLanguage()).append(',');
+            appendField(csv, response.getIntent() != null ? response.getIntent().getDetectedIntent() : null).append(',');
+            appendField(csv, response.getIntent() != null ? response.getIntent().getConfidence() : null).append(',');
+            appendField(csv, request.getUserContext() != null
+                    ? objectMapper.writeValueAsString(request.getUserContext()) : null).append(',');
+            appendField(csv, objectMapper.writeValueAsString(ranked)).append(',');
+            appendField(csv, response.getProcessingTimeMs()).append(',');
+            appendField(csv, record.sampleWeight()).append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Quoted CSV field; null becomes an unquoted empty field, which COPY reads as NULL
+     */
+    private static StringBuilder appendField(StringBuilder csv, Object value) {
+        if (value == null) {
+            return csv;
+        }
+        return csv.append('"').append(value.toString().replace("\"", "\"\"")).append('"');
+    }
+}
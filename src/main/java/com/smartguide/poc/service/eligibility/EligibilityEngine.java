@@ -0,0 +1,99 @@
+package com.smartguide.poc.service.eligibility;
+
+import com.smartguide.poc.dto.UserContext;
+import com.smartguide.poc.entity.Product;
+import com.smartguide.poc.repository.ProductRepository;
+import com.smartguide.poc.service.CatalogIndexHolder;
+import com.smartguide.poc.service.CatalogVersion;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluates product eligibility criteria against a user context.
+ *
+ * Criteria are compiled into rules and indexed once per catalog version; requests
+ * only intersect bitmaps, so no criteria JSON is interpreted on the request path.
+ * Rebuilds run in the background and requests keep using the previous index meanwhile;
+ * products missing from it are checked by compiling their criteria directly.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class EligibilityEngine {
+
+    private final ProductRepository productRepository;
+    private final CatalogVersion catalogVersion;
+
+    private CatalogIndexHolder<EligibilityIndex> index;
+
+    @PostConstruct
+    public void init() {
+        index = new CatalogIndexHolder<>("eligibility-index", catalogVersion::current, this::buildIndex,
+                EligibilityIndex::getCatalogVersion);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        index.warmUp();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        index.shutdown();
+    }
+
+    /**
+     * Drop products the user is not eligible for, keeping the input order
+     */
+    public List<Product> filterEligible(List<Product> products, UserContext user) {
+        if (user == null || products.isEmpty()) {
+            return products;
+        }
+
+        EligibilityIndex current = index.get();
+        BitSet eligible = current.eligible(user);
+
+        List<Product> result = new ArrayList<>(products.size());
+        for (Product product : products) {
+            int ordinal = current.ordinalOf(product.getId());
+            boolean accepted = ordinal >= 0
+                    ? eligible.get(ordinal)
+                    // Not in this catalog version (e.g. inactive): compile its criteria directly
+                    : EligibilityRules.test(EligibilityRules.compile(product.getEligibilityCriteria()), user);
+            if (accepted) {
+                result.add(product);
+            }
+        }
+
+        if (result.size() < products.size()) {
+            log.debug("Eligibility pruned {} of {} candidate products", products.size() - result.size(), products.size());
+        }
+        return result;
+    }
+
+    private EligibilityIndex buildIndex(long version) {
+        long start = System.currentTimeMillis();
+        Map<Long, List<EligibilityRule>> rules = new LinkedHashMap<>();
+        for (Object[] row : productRepository.findActiveEligibilityCriteria()) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> criteria = (Map<String, Object>) row[1];
+            rules.put((Long) row[0], EligibilityRules.compile(criteria));
+        }
+
+        EligibilityIndex built = EligibilityIndex.build(version, rules);
+        log.info("Built eligibility index for catalog version {}: {} products in {}ms",
+                version, built.size(), System.currentTimeMillis() - start);
+        return built;
+    }
+}
@@ -0,0 +1,171 @@
+package com.smartguide.poc.service.eligibility;
+
+import com.smartguide.poc.dto.UserContext;
+
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Bitmap index over the compiled eligibility rules of one catalog version.
+ *
+ * Each product gets an ordinal; for every user attribute the index holds the set of
+ * ordinals that accept a given value, so the eligible set for a user is a handful of
+ * bitmap intersections independent of how many rules each product has.
+ */
+public final class EligibilityIndex {
+
+    private final long catalogVersion;
+    private final Map<Long, Integer> ordinalByProductId = new HashMap<>();
+    private final BitSet all = new BitSet();
+
+    // byAge[a] = products accepting age a
+    private final BitSet[] byAge = new BitSet[EligibilityRules.MAX_AGE + 1];
+
+    private final BitSet nationalityUnrestricted = new BitSet();
+    private final Map<String, BitSet> nationalityAllowed = new HashMap<>();
+
+    private final BitSet employmentUnrestricted = new BitSet();
+    private final Map<String, BitSet> employmentAllowed = new HashMap<>();
+
+    // Cumulative: entry t holds every product whose minimum employment months is <= t
+    private final BitSet employmentMonthsUnrestricted = new BitSet();
+    private final TreeMap<Integer, BitSet> employmentMonthsAtMost = new TreeMap<>();
+
+    private final Map<EligibilityRule.Flag, BitSet> requiresFlag = new EnumMap<>(EligibilityRule.Flag.class);
+
+    private EligibilityIndex(long catalogVersion) {
+        this.catalogVersion = catalogVersion;
+        for (int age = 0; age < byAge.length; age++) {
+            byAge[age] = new BitSet();
+        }
+        for (EligibilityRule.Flag flag : EligibilityRule.Flag.values()) {
+            requiresFlag.put(flag, new BitSet());
+        }
+    }
+
+    /**
+     * Build the index from compiled rules keyed by product id
+     */
+    public static EligibilityIndex build(long catalogVersion, Map<Long, List<EligibilityRule>> rulesByProductId) {
+        EligibilityIndex index = new EligibilityIndex(catalogVersion);
+        Map<Integer, BitSet> monthThresholds = new TreeMap<>();
+
+        int ordinal = 0;
+        for (Map.Entry<Long, List<EligibilityRule>> entry : rulesByProductId.entrySet()) {
+            index.ordinalByProductId.put(entry.getKey(), ordinal);
+            index.all.set(ordinal);
+
+            int minAge = 0;
+            int maxAge = EligibilityRules.MAX_AGE;
+            boolean nationalityRestricted = false;
+            boolean employmentRestricted = false;
+            int minEmploymentMonths = 0;
+
+            for (EligibilityRule rule : entry.getValue()) {
+                if (rule instanceof EligibilityRule.AgeRange range) {
+                    minAge = Math.max(0, range.minAge());
+                    maxAge = Math.min(EligibilityRules.MAX_AGE, range.maxAge());
+                } else if (rule instanceof EligibilityRule.NationalityIn nationality) {
+                    nationalityRestricted = true;
+                    for (String value : nationality.allowed()) {
+                        index.nationalityAllowed.computeIfAbsent(value, k -> new BitSet()).set(ordinal);
+                    }
+                } else if (rule instanceof EligibilityRule.EmploymentTypeIn employment) {
+                    employmentRestricted = true;
+                    for (String value : employment.allowed()) {
+                        index.employmentAllowed.computeIfAbsent(value, k -> new BitSet()).set(ordinal);
+                    }
+                } else if (rule instanceof EligibilityRule.MinEmploymentMonths months) {
+                    minEmploymentMonths = months.months();
+                } else if (rule instanceof EligibilityRule.RequiredFlag required) {
+                    index.requiresFlag.get(required.flag()).set(ordinal);
+                }
+            }
+
+            for (int age = minAge; age <= maxAge; age++) {
+                index.byAge[age].set(ordinal);
+            }
+            if (!nationalityRestricted) {
+                index.nationalityUnrestricted.set(ordinal);
+            }
+            if (!employmentRestricted) {
+                index.employmentUnrestricted.set(ordinal);
+            }
+            if (minEmploymentMonths <= 0) {
+                index.employmentMonthsUnrestricted.set(ordinal);
+            } else {
+                monthThresholds.computeIfAbsent(minEmploymentMonths, k -> new BitSet()).set(ordinal);
+            }
+            ordinal++;
+        }
+
+        BitSet cumulative = new BitSet();
+        for (Map.Entry<Integer, BitSet> threshold : monthThresholds.entrySet()) {
+            cumulative.or(threshold.getValue());
+            index.employmentMonthsAtMost.put(threshold.getKey(), (BitSet) cumulative.clone());
+        }
+        return index;
+    }
+
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    /**
+     * Ordinal of the product in this index, or -1 if it was not part of the catalog version
+     */
+    public int ordinalOf(Long productId) {
+        Integer ordinal = ordinalByProductId.get(productId);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    /**
+     * Ordinals of all products the user is eligible for
+     */
+    public BitSet eligible(UserContext user) {
+        BitSet result = (BitSet) all.clone();
+
+        if (user.getAge() != null) {
+            int age = Math.max(0, Math.min(EligibilityRules.MAX_AGE, user.getAge()));
+            result.and(byAge[age]);
+        }
+
+        String nationality = EligibilityRules.normalizeCode(user.getNationality());
+        if (nationality != null) {
+            result.and(union(nationalityUnrestricted, nationalityAllowed.get(nationality)));
+        }
+
+        String employment = EligibilityRules.normalizeEmployment(user.getEmploymentType());
+        if (employment != null) {
+            result.and(union(employmentUnrestricted, employmentAllowed.get(employment)));
+        }
+
+        if (user.getEmploymentMonths() != null) {
+            Map.Entry<Integer, BitSet> floor = employmentMonthsAtMost.floorEntry(user.getEmploymentMonths());
+            result.and(union(employmentMonthsUnrestricted, floor != null ? floor.getValue() : null));
+        }
+
+        for (EligibilityRule.Flag flag : EligibilityRule.Flag.values()) {
+            if (Boolean.FALSE.equals(flag.read(user))) {
+                result.andNot(requiresFlag.get(flag));
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return ordinalByProductId.size();
+    }
+
+    private static BitSet union(BitSet base, BitSet extra) {
+        BitSet result = (BitSet) base.clone();
+        if (extra != null) {
+            result.or(extra);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,83 @@
+package com.smartguide.poc.service.eligibility;
+
+import com.smartguide.poc.dto.UserContext;
+
+import java.util.Set;
+
+/**
+ * A single compiled eligibility condition of a product.
+ *
+ * Rules only reject a user on information the user actually provided: when the
+ * attribute a rule needs is missing from the context, the rule passes.
+ */
+public sealed interface EligibilityRule {
+
+    boolean test(UserContext user);
+
+    /**
+     * Inclusive age range; either bound may be open
+     */
+    record AgeRange(int minAge, int maxAge) implements EligibilityRule {
+        @Override
+        public boolean test(UserContext user) {
+            return user.getAge() == null || (user.getAge() >= minAge && user.getAge() <= maxAge);
+        }
+    }
+
+    /**
+     * Nationality must be one of the allowed values (upper-cased)
+     */
+    record NationalityIn(Set<String> allowed) implements EligibilityRule {
+        @Override
+        public boolean test(UserContext user) {
+            String nationality = EligibilityRules.normalizeCode(user.getNationality());
+            return nationality == null || allowed.contains(nationality);
+        }
+    }
+
+    /**
+     * Employment type must be one of the allowed values (normalized, e.g. "self-employed")
+     */
+    record EmploymentTypeIn(Set<String> allowed) implements EligibilityRule {
+        @Override
+        public boolean test(UserContext user) {
+            String employment = EligibilityRules.normalizeEmployment(user.getEmploymentType());
+            return employment == null || allowed.contains(employment);
+        }
+    }
+
+    /**
+     * Minimum months with the current employer
+     */
+    record MinEmploymentMonths(int months) implements EligibilityRule {
+        @Override
+        public boolean test(UserContext user) {
+            return user.getEmploymentMonths() == null || user.getEmploymentMonths() >= months;
+        }
+    }
+
+    /**
+     * A yes/no attribute the user must have
+     */
+    record RequiredFlag(Flag flag) implements EligibilityRule {
+        @Override
+        public boolean test(UserContext user) {
+            Boolean value = flag.read(user);
+            return value == null || value;
+        }
+    }
+
+    enum Flag {
+        STUDENT,
+        FIRST_TIME_BUYER,
+        PROPERTY_OWNER;
+
+        Boolean read(UserContext user) {
+            return switch (this) {
+                case STUDENT -> user.getStudent();
+                case FIRST_TIME_BUYER -> user.getFirstTimeBuyer();
+                case PROPERTY_OWNER -> user.getPropertyOwner();
+            };
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.smartguide.poc.service.eligibility;
+
+import com.smartguide.poc.dto.UserContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Compiles a product's eligibility_criteria document into {@link EligibilityRule}s.
+ *
+ * Recognized keys: age_min, age_max, nationality, employment, employment_months,
+ * student, first_time_buyer and property_owned. Other keys (risk_profile, business_age,
+ * ...) describe the product rather than the applicant and are ignored.
+ */
+public final class EligibilityRules {
+
+    static final int MAX_AGE = 120;
+
+    private EligibilityRules() {
+    }
+
+    public static List<EligibilityRule> compile(Map<String, Object> criteria) {
+        List<EligibilityRule> rules = new ArrayList<>();
+        if (criteria == null || criteria.isEmpty()) {
+            return rules;
+        }
+
+        Integer ageMin = toInteger(criteria.get("age_min"));
+        Integer ageMax = toInteger(criteria.get("age_max"));
+        if (ageMin != null || ageMax != null) {
+            rules.add(new EligibilityRule.AgeRange(
+                    ageMin != null ? ageMin : 0,
+                    ageMax != null ? ageMax : MAX_AGE));
+        }
+
+        Set<String> nationalities = toValueSet(criteria.get("nationality"), EligibilityRules::normalizeCode);
+        if (!nationalities.isEmpty()) {
+            rules.add(new EligibilityRule.NationalityIn(Set.copyOf(nationalities)));
+        }
+
+        Set<String> employment = toValueSet(criteria.get("employment"), EligibilityRules::normalizeEmployment);
+        if (!employment.isEmpty()) {
+            rules.add(new EligibilityRule.EmploymentTypeIn(Set.copyOf(employment)));
+        }
+
+        Integer employmentMonths = toInteger(criteria.get("employment_months"));
+        if (employmentMonths != null && employmentMonths > 0) {
+            rules.add(new EligibilityRule.MinEmploymentMonths(employmentMonths));
+        }
+
+        if (Boolean.TRUE.equals(criteria.get("student"))) {
+            rules.add(new EligibilityRule.RequiredFlag(EligibilityRule.Flag.STUDENT));
+        }
+        if (Boolean.TRUE.equals(criteria.get("first_time_buyer"))) {
+            rules.add(new EligibilityRule.RequiredFlag(EligibilityRule.Flag.FIRST_TIME_BUYER));
+        }
+        if (Boolean.TRUE.equals(criteria.get("property_owned"))) {
+            rules.add(new EligibilityRule.RequiredFlag(EligibilityRule.Flag.PROPERTY_OWNER));
+        }
+
+        return rules;
+    }
+
+    public static boolean test(List<EligibilityRule> rules, UserContext user) {
+        for (EligibilityRule rule : rules) {
+            if (!rule.test(user)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String normalizeCode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.strip().toUpperCase(Locale.ROOT);
+    }
+
+    static String normalizeEmployment(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.strip().toLowerCase(Locale.ROOT).replaceAll("[\\s_]+", "-");
+    }
+
+    private static Integer toInteger(Object value) {
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        if (value instanceof String text) {
+            try {
+                return Integer.valueOf(text.strip());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Accepts a list or a single string such as "salaried or self-employed"
+     */
+    private static Set<String> toValueSet(Object value, UnaryOperator<String> normalizer) {
+        Set<String> values = new LinkedHashSet<>();
+        if (value instanceof Collection<?> items) {
+            for (Object item : items) {
+                if (item != null) {
+                    values.addAll(toValueSet(item.toString(), normalizer));
+                }
+            }
+        } else if (value instanceof String text) {
+            for (String part : text.split("(?i)\\s+or\\s+|,|/")) {
+                String normalized = normalizer.apply(part);
+                if (normalized != null) {
+                    values.add(normalized);
+                }
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,220 @@
+package com.smartguide.poc.service.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverted index with BM25 scoring over the products of one catalog version.
+ *
+ * Each product gets an ordinal. A term's postings are two parallel primitive arrays:
+ * ordinals, and the term's complete BM25 contribution to that product (idf, term
+ * frequency saturation and length normalization are all applied at build time). A query
+ * is therefore a scan over the postings of its few terms, adding floats into an
+ * accumulator, with no boxing, division or per-document lookups.
+ */
+public final class Bm25Index {
+
+    private final long catalogVersion;
+    private final long[] productIds;
+    private final Map<Long, Integer> ordinalByProductId;
+    private final Map<String, Integer> termIds;
+    private final int[][] postingOrdinals;
+    private final float[][] postingImpacts;
+
+    private Bm25Index(long catalogVersion, long[] productIds, Map<String, Integer> termIds,
+                      int[][] postingOrdinals, float[][] postingImpacts) {
+        this.catalogVersion = catalogVersion;
+        this.productIds = productIds;
+        this.termIds = termIds;
+        this.postingOrdinals = postingOrdinals;
+        this.postingImpacts = postingImpacts;
+        this.ordinalByProductId = new HashMap<>(productIds.length * 2);
+        for (int ordinal = 0; ordinal < productIds.length; ordinal++) {
+            ordinalByProductId.put(productIds[ordinal], ordinal);
+        }
+    }
+
+    /**
+     * Text of one product to index
+     */
+    public record Document(long productId, String name, String description, List<String> benefits) {
+    }
+
+    /**
+     * Build the index; name terms are counted {@code nameBoost} times
+     */
+    public static Bm25Index build(long catalogVersion, List<Document> documents, double k1, double b, int nameBoost) {
+        int documentCount = documents.size();
+        long[] productIds = new long[documentCount];
+        List<Map<String, Integer>> termCounts = new ArrayList<>(documentCount);
+        int[] lengths = new int[documentCount];
+        long totalLength = 0;
+
+        Map<String, Integer> termIds = new HashMap<>();
+        List<Integer> documentFrequencies = new ArrayList<>();
+        for (int ordinal = 0; ordinal < documentCount; ordinal++) {
+            Document document = documents.get(ordinal);
+            productIds[ordinal] = document.productId();
+
+            Map<String, Integer> counts = new HashMap<>();
+            int length = count(counts, document.name(), nameBoost);
+            length += count(counts, document.description(), 1);
+            if (document.benefits() != null) {
+                for (String benefit : document.benefits()) {
+                    length += count(counts, benefit, 1);
+                }
+            }
+            for (String term : counts.keySet()) {
+                Integer termId = termIds.get(term);
+                if (termId == null) {
+                    termIds.put(term, documentFrequencies.size());
+                    documentFrequencies.add(1);
+                } else {
+                    documentFrequencies.set(termId, documentFrequencies.get(termId) + 1);
+                }
+            }
+            termCounts.add(counts);
+            lengths[ordinal] = length;
+            totalLength += length;
+        }
+
+        int termCount = documentFrequencies.size();
+        int[][] postingOrdinals = new int[termCount][];
+        float[][] postingImpacts = new float[termCount][];
+        double[] idf = new double[termCount];
+        for (int termId = 0; termId < termCount; termId++) {
+            int df = documentFrequencies.get(termId);
+            postingOrdinals[termId] = new int[df];
+            postingImpacts[termId] = new float[df];
+            // Lucene-style idf: stays positive even for terms found in most documents
+            idf[termId] = Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+        }
+
+        double averageLength = documentCount > 0 ? Math.max(1.0, (double) totalLength / documentCount) : 1.0;
+
+        // Ordinals are visited in order, so every postings list comes out sorted
+        int[] filled = new int[termCount];
+        for (int ordinal = 0; ordinal < documentCount; ordinal++) {
+            double lengthNorm = k1 * (1 - b + b * lengths[ordinal] / averageLength);
+            for (Map.Entry<String, Integer> entry : termCounts.get(ordinal).entrySet()) {
+                int termId = termIds.get(entry.getKey());
+                int tf = entry.getValue();
+                int slot = filled[termId]++;
+                postingOrdinals[termId][slot] = ordinal;
+                postingImpacts[termId][slot] = (float) (idf[termId] * tf * (k1 + 1) / (tf + lengthNorm));
+            }
+        }
+
+        return new Bm25Index(catalogVersion, productIds, termIds, postingOrdinals, postingImpacts);
+    }
+
+    private static int count(Map<String, Integer> counts, String text, int weight) {
+        List<String> tokens = TextAnalyzer.analyze(text);
+        for (String token : tokens) {
+            counts.merge(token, weight, Integer::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    /**
+     * Score every product against the query; each distinct query term counts once
+     */
+    public Scores search(String query) {
+        float[] scores = new float[productIds.length];
+        boolean matchedAny = false;
+        for (String term : new LinkedHashSet<>(TextAnalyzer.analyze(query))) {
+            Integer termId = termIds.get(term);
+            if (termId == null) {
+                continue;
+            }
+            int[] ordinals = postingOrdinals[termId];
+            float[] impacts = postingImpacts[termId];
+            for (int i = 0; i < ordinals.length; i++) {
+                scores[ordinals[i]] += impacts[i];
+            }
+            matchedAny = true;
+        }
+        return new Scores(matchedAny ? scores : null);
+    }
+
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    public int size() {
+        return productIds.length;
+    }
+
+    public int termCount() {
+        return termIds.size();
+    }
+
+    /**
+     * BM25 scores of one query
+     */
+    public final class Scores {
+        // Null when no query term is in the index
+        private final float[] scores;
+        private final float best;
+
+        private Scores(float[] scores) {
+            this.scores = scores;
+            float max = 0;
+            if (scores != null) {
+                for (float score : scores) {
+                    max = Math.max(max, score);
+                }
+            }
+            this.best = max;
+        }
+
+        public boolean isEmpty() {
+            return best == 0;
+        }
+
+        /**
+         * Score relative to the best match of the query, in [0, 1]; 0 for unindexed products
+         */
+        public double normalized(Long productId) {
+            Integer ordinal = productId != null && best > 0 ? ordinalByProductId.get(productId) : null;
+            return ordinal == null ? 0.0 : scores[ordinal] / best;
+        }
+
+        /**
+         * Product ids of up to {@code limit} best matches scoring at least {@code minNormalized}, best first
+         */
+        public List<Long> top(int limit, double minNormalized) {
+            if (best == 0 || limit <= 0) {
+                return List.of();
+            }
+            // Sorted insertion into a small primitive buffer, best first
+            int[] topOrdinals = new int[limit];
+            float[] topScores = new float[limit];
+            int size = 0;
+            float threshold = Math.max(Float.MIN_VALUE, (float) (minNormalized * best));
+            for (int ordinal = 0; ordinal < scores.length; ordinal++) {
+                float score = scores[ordinal];
+                if (score < threshold || (size == limit && score <= topScores[limit - 1])) {
+                    continue;
+                }
+                int position = size < limit ? size++ : limit - 1;
+                while (position > 0 && topScores[position - 1] < score) {
+                    topOrdinals[position] = topOrdinals[position - 1];
+                    topScores[position] = topScores[position - 1];
+                    position--;
+                }
+                topOrdinals[position] = ordinal;
+                topScores[position] = score;
+            }
+
+            List<Long> ids = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                ids.add(productIds[topOrdinals[i]]);
+            }
+            return ids;
+        }
+    }
+}
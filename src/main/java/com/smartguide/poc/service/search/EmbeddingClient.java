@@ -0,0 +1,20 @@
+package com.smartguide.poc.service.search;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Turns text into embedding vectors. Implementations are selected with app.embedding.provider.
+ */
+public interface EmbeddingClient {
+
+    /**
+     * Name of the model; vectors of different models are never mixed
+     */
+    String model();
+
+    /**
+     * One vector per text, in order
+     */
+    List<float[]> embed(List<String> texts, Duration timeout);
+}
@@ -0,0 +1,68 @@
+package com.smartguide.poc.service.search;
+
+import com.smartguide.poc.config.EmbeddingConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local stand-in for an embedding model: signed feature hashing of analyzed terms and
+ * their character trigrams. It runs on the CPU with no model server and is
+ * deterministic, which suits tests, benchmarks and offline development; it captures
+ * shared vocabulary and spelling variants, not meaning.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.embedding", name = "provider", havingValue = "hashing")
+public class HashingEmbeddingClient implements EmbeddingClient {
+
+    private final int dimensions;
+
+    public HashingEmbeddingClient(EmbeddingConfig embeddingConfig) {
+        this.dimensions = embeddingConfig.getHashingDimensions();
+    }
+
+    @Override
+    public String model() {
+        return "hashing:" + dimensions;
+    }
+
+    @Override
+    public List<float[]> embed(List<String> texts, Duration timeout) {
+        List<float[]> vectors = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            vectors.add(embed(text));
+        }
+        return vectors;
+    }
+
+    private float[] embed(String text) {
+        float[] vector = new float[dimensions];
+        for (String term : TextAnalyzer.analyze(text)) {
+            add(vector, term, 1.0f);
+            String padded = "#" + term + "#";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                add(vector, padded.substring(i, i + 3), 0.5f);
+            }
+        }
+        return vector;
+    }
+
+    private void add(float[] vector, String feature, float weight) {
+        long hash = fnv1a(feature);
+        int slot = (int) Long.remainderUnsigned(hash, dimensions);
+        vector[slot] += (hash >>> 63) == 0 ? weight : -weight;
+    }
+
+    private static long fnv1a(String feature) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : feature.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
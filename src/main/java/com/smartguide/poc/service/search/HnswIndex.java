@@ -0,0 +1,596 @@
+package com.smartguide.poc.service.search;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hierarchical navigable small world graph over unit-length vectors, for approximate
+ * nearest neighbour search by cosine similarity.
+ *
+ * Vectors sit in one flat float array and links in per-node, per-layer int arrays whose
+ * first element is the link count. Neighbours are chosen with the HNSW heuristic (a
+ * candidate is kept only if it is closer to the new node than to every neighbour
+ * already kept), which keeps the graph navigable across clusters. Replacing or removing
+ * a vector leaves a tombstone that still routes searches but is never returned; loading
+ * a snapshot that was written without tombstones compacts them away.
+ *
+ * Searches share a read lock and run concurrently; inserts take the write lock.
+ */
+public final class HnswIndex {
+
+    private static final int MAGIC = 0x484E5357;
+    private static final int FORMAT_VERSION = 1;
+
+    private final int dimensions;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random = new Random(42);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int size;
+    private long[] ids;
+    private float[] vectors;
+    private int[][][] links;
+    private boolean[] deleted;
+    private final Map<Long, Integer> nodeById = new HashMap<>();
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    public HnswIndex(int dimensions, int m, int efConstruction) {
+        if (dimensions <= 0 || m < 2 || efConstruction < 1) {
+            throw new IllegalArgumentException("Invalid HNSW parameters");
+        }
+        this.dimensions = dimensions;
+        this.m = m;
+        this.maxM0 = 2 * m;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+        int capacity = 1024;
+        this.ids = new long[capacity];
+        this.vectors = new float[capacity * dimensions];
+        this.links = new int[capacity][][];
+        this.deleted = new boolean[capacity];
+    }
+
+    /**
+     * One search result
+     */
+    public record Neighbor(long id, float similarity) {
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Number of searchable vectors
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodeById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return nodeById.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of all searchable vectors
+     */
+    public long[] ids() {
+        lock.readLock().lock();
+        try {
+            return nodeById.keySet().stream().mapToLong(Long::longValue).toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copy of the stored vector, or null
+     */
+    public float[] vector(long id) {
+        lock.readLock().lock();
+        try {
+            Integer node = nodeById.get(id);
+            return node == null ? null : Arrays.copyOfRange(vectors, node * dimensions, (node + 1) * dimensions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Insert or replace the vector of an id; the vector must have unit length
+     */
+    public void put(long id, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions, got " + vector.length);
+        }
+        lock.writeLock().lock();
+        try {
+            Integer previous = nodeById.remove(id);
+            if (previous != null) {
+                deleted[previous] = true;
+            }
+            insert(id, vector);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer node = nodeById.remove(id);
+            if (node != null) {
+                deleted[node] = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate k nearest neighbours, most similar first
+     */
+    public List<Neighbor> search(float[] query, int k, int ef) {
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0 || k <= 0) {
+                return List.of();
+            }
+            int node = entryPoint;
+            for (int level = maxLevel; level > 0; level--) {
+                node = greedyClosest(query, node, level);
+            }
+            NodeHeap results = searchLayer(query, node, Math.max(ef, k), 0);
+            int[] ordered = results.drainAscending();
+
+            List<Neighbor> neighbors = new ArrayList<>(k);
+            for (int i = 0; i < ordered.length && neighbors.size() < k; i++) {
+                if (!deleted[ordered[i]]) {
+                    neighbors.add(new Neighbor(ids[ordered[i]], 1 - distance(query, ordered[i])));
+                }
+            }
+            return neighbors;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Exact k nearest neighbours by a full scan, as the reference for recall measurements
+     */
+    public List<Neighbor> bruteForce(float[] query, int k) {
+        lock.readLock().lock();
+        try {
+            NodeHeap nearest = new NodeHeap(k + 1, true);
+            for (int node = 0; node < size; node++) {
+                if (deleted[node]) {
+                    continue;
+                }
+                float distance = distance(query, node);
+                if (nearest.size() < k || distance < nearest.peekKey()) {
+                    nearest.push(node, distance);
+                    if (nearest.size() > k) {
+                        nearest.pop();
+                    }
+                }
+            }
+            int[] ordered = nearest.drainAscending();
+            List<Neighbor> neighbors = new ArrayList<>(ordered.length);
+            for (int node : ordered) {
+                neighbors.add(new Neighbor(ids[node], 1 - distance(query, node)));
+            }
+            return neighbors;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(long id, float[] vector) {
+        int node = size++;
+        ensureCapacity(size);
+        ids[node] = id;
+        System.arraycopy(vector, 0, vectors, node * dimensions, dimensions);
+        nodeById.put(id, node);
+
+        int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+        links[node] = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            links[node][l] = new int[1 + (l == 0 ? maxM0 : m)];
+        }
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+
+        int closest = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            closest = greedyClosest(vector, closest, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            int[] candidates = searchLayer(vector, closest, efConstruction, l).drainAscending();
+            int[] selected = selectNeighbors(node, candidates, m);
+            int[] nodeLinks = links[node][l];
+            nodeLinks[0] = selected.length;
+            System.arraycopy(selected, 0, nodeLinks, 1, selected.length);
+            for (int neighbor : selected) {
+                link(neighbor, node, l);
+            }
+            closest = candidates[0];
+        }
+
+        if (level > maxLevel) {
+            entryPoint = node;
+            maxLevel = level;
+        }
+    }
+
+    /**
+     * Add a back link, pruning the neighbour's links with the heuristic when full
+     */
+    private void link(int from, int to, int level) {
+        int[] fromLinks = links[from][level];
+        int count = fromLinks[0];
+        if (count < fromLinks.length - 1) {
+            fromLinks[++count] = to;
+            fromLinks[0] = count;
+            return;
+        }
+
+        int[] candidates = new int[count + 1];
+        System.arraycopy(fromLinks, 1, candidates, 0, count);
+        candidates[count] = to;
+        float[] distances = new float[candidates.length];
+        for (int i = 0; i < candidates.length; i++) {
+            distances[i] = distance(from, candidates[i]);
+        }
+        sortByDistance(candidates, distances);
+
+        int[] selected = selectNeighbors(from, candidates, fromLinks.length - 1);
+        fromLinks[0] = selected.length;
+        System.arraycopy(selected, 0, fromLinks, 1, selected.length);
+    }
+
+    /**
+     * HNSW neighbour heuristic over candidates sorted by distance to the base node
+     */
+    private int[] selectNeighbors(int base, int[] sortedCandidates, int limit) {
+        int[] selected = new int[Math.min(limit, sortedCandidates.length)];
+        int count = 0;
+        for (int candidate : sortedCandidates) {
+            if (count == selected.length) {
+                break;
+            }
+            if (candidate == base) {
+                continue;
+            }
+            float toBase = distance(base, candidate);
+            boolean keep = true;
+            for (int i = 0; i < count; i++) {
+                if (distance(selected[i], candidate) < toBase) {
+                    keep = false;
+                    break;
+                }
+            }
+            if (keep) {
+                selected[count++] = candidate;
+            }
+        }
+        return count == selected.length ? selected : Arrays.copyOf(selected, count);
+    }
+
+    private int greedyClosest(float[] query, int start, int level) {
+        int current = start;
+        float currentDistance = distance(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[] nodeLinks = links[current][level];
+            for (int i = 1; i <= nodeLinks[0]; i++) {
+                float distance = distance(query, nodeLinks[i]);
+                if (distance < currentDistance) {
+                    current = nodeLinks[i];
+                    currentDistance = distance;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Best-first search of one layer; returns up to ef nearest nodes as a max-heap
+     */
+    private NodeHeap searchLayer(float[] query, int start, int ef, int level) {
+        BitSet visited = new BitSet(size);
+        NodeHeap candidates = new NodeHeap(ef * 2, false);
+        NodeHeap results = new NodeHeap(ef + 1, true);
+
+        float startDistance = distance(query, start);
+        visited.set(start);
+        candidates.push(start, startDistance);
+        results.push(start, startDistance);
+
+        while (candidates.size() > 0) {
+            if (candidates.peekKey() > results.peekKey() && results.size() >= ef) {
+                break;
+            }
+            int current = candidates.pop();
+            int[] nodeLinks = links[current][level];
+            for (int i = 1; i <= nodeLinks[0]; i++) {
+                int neighbor = nodeLinks[i];
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                float distance = distance(query, neighbor);
+                if (results.size() < ef || distance < results.peekKey()) {
+                    candidates.push(neighbor, distance);
+                    results.push(neighbor, distance);
+                    if (results.size() > ef) {
+                        results.pop();
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private float distance(float[] query, int node) {
+        int offset = node * dimensions;
+        float dot = 0;
+        for (int i = 0; i < dimensions; i++) {
+            dot += query[i] * vectors[offset + i];
+        }
+        return 1 - dot;
+    }
+
+    private float distance(int a, int b) {
+        int offsetA = a * dimensions;
+        int offsetB = b * dimensions;
+        float dot = 0;
+        for (int i = 0; i < dimensions; i++) {
+            dot += vectors[offsetA + i] * vectors[offsetB + i];
+        }
+        return 1 - dot;
+    }
+
+    private static void sortByDistance(int[] nodes, float[] distances) {
+        // Insertion sort; lists are at most 2M + 1 long
+        for (int i = 1; i < nodes.length; i++) {
+            int node = nodes[i];
+            float distance = distances[i];
+            int j = i - 1;
+            while (j >= 0 && distances[j] > distance) {
+                nodes[j + 1] = nodes[j];
+                distances[j + 1] = distances[j];
+                j--;
+            }
+            nodes[j + 1] = node;
+            distances[j + 1] = distance;
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        vectors = Arrays.copyOf(vectors, capacity * dimensions);
+        links = Arrays.copyOf(links, capacity);
+        deleted = Arrays.copyOf(deleted, capacity);
+    }
+
+    /**
+     * Serialize the graph. Tombstones are dropped: live nodes are renumbered and links to
+     * removed nodes left out, so a reloaded index is compact.
+     */
+    public void write(DataOutput out) throws IOException {
+        lock.readLock().lock();
+        try {
+            int[] renumbered = new int[size];
+            int live = 0;
+            for (int node = 0; node < size; node++) {
+                renumbered[node] = deleted[node] ? -1 : live++;
+            }
+            int liveEntryPoint = entryPoint;
+            int liveMaxLevel = maxLevel;
+            if (entryPoint >= 0 && deleted[entryPoint]) {
+                // Promote the live node with the most layers
+                liveEntryPoint = -1;
+                liveMaxLevel = -1;
+                for (int node = 0; node < size; node++) {
+                    if (!deleted[node] && links[node].length - 1 > liveMaxLevel) {
+                        liveEntryPoint = node;
+                        liveMaxLevel = links[node].length - 1;
+                    }
+                }
+            }
+
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(dimensions);
+            out.writeInt(m);
+            out.writeInt(efConstruction);
+            out.writeInt(live);
+            out.writeInt(liveEntryPoint < 0 ? -1 : renumbered[liveEntryPoint]);
+            out.writeInt(liveMaxLevel);
+            for (int node = 0; node < size; node++) {
+                if (deleted[node]) {
+                    continue;
+                }
+                out.writeLong(ids[node]);
+                int offset = node * dimensions;
+                for (int i = 0; i < dimensions; i++) {
+                    out.writeFloat(vectors[offset + i]);
+                }
+                out.writeInt(links[node].length);
+                for (int[] levelLinks : links[node]) {
+                    int liveLinks = 0;
+                    for (int i = 1; i <= levelLinks[0]; i++) {
+                        if (!deleted[levelLinks[i]]) {
+                            liveLinks++;
+                        }
+                    }
+                    out.writeInt(liveLinks);
+                    for (int i = 1; i <= levelLinks[0]; i++) {
+                        if (!deleted[levelLinks[i]]) {
+                            out.writeInt(renumbered[levelLinks[i]]);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Read a graph written by {@link #write}
+     */
+    public static HnswIndex read(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Not an HNSW index snapshot");
+        }
+        HnswIndex index = new HnswIndex(in.readInt(), in.readInt(), in.readInt());
+        int count = in.readInt();
+        index.entryPoint = in.readInt();
+        index.maxLevel = in.readInt();
+        index.ensureCapacity(count);
+        for (int node = 0; node < count; node++) {
+            long id = in.readLong();
+            index.ids[node] = id;
+            index.nodeById.put(id, node);
+            int offset = node * index.dimensions;
+            for (int i = 0; i < index.dimensions; i++) {
+                index.vectors[offset + i] = in.readFloat();
+            }
+            int levels = in.readInt();
+            index.links[node] = new int[levels][];
+            for (int l = 0; l < levels; l++) {
+                int[] levelLinks = new int[1 + (l == 0 ? index.maxM0 : index.m)];
+                levelLinks[0] = in.readInt();
+                for (int i = 1; i <= levelLinks[0]; i++) {
+                    levelLinks[i] = in.readInt();
+                }
+                index.links[node][l] = levelLinks;
+            }
+        }
+        index.size = count;
+        return index;
+    }
+
+    /**
+     * Binary heap of nodes keyed by distance, on primitive arrays
+     */
+    private static final class NodeHeap {
+        private final boolean max;
+        private int[] nodes;
+        private float[] keys;
+        private int size;
+
+        NodeHeap(int capacity, boolean max) {
+            this.max = max;
+            this.nodes = new int[Math.max(capacity, 4)];
+            this.keys = new float[nodes.length];
+        }
+
+        int size() {
+            return size;
+        }
+
+        float peekKey() {
+            return keys[0];
+        }
+
+        void push(int node, float key) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!before(key, keys[parent])) {
+                    break;
+                }
+                nodes[i] = nodes[parent];
+                keys[i] = keys[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            keys[i] = key;
+        }
+
+        int pop() {
+            int top = nodes[0];
+            int lastNode = nodes[--size];
+            float lastKey = keys[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && before(keys[child + 1], keys[child])) {
+                    child++;
+                }
+                if (!before(keys[child], lastKey)) {
+                    break;
+                }
+                nodes[i] = nodes[child];
+                keys[i] = keys[child];
+                i = child;
+            }
+            nodes[i] = lastNode;
+            keys[i] = lastKey;
+            return top;
+        }
+
+        /**
+         * Empty the heap into an array ordered nearest first
+         */
+        int[] drainAscending() {
+            int[] ordered = new int[size];
+            if (max) {
+                for (int i = ordered.length - 1; i >= 0; i--) {
+                    ordered[i] = pop();
+                }
+            } else {
+                for (int i = 0; i < ordered.length; i++) {
+                    ordered[i] = pop();
+                }
+            }
+            return ordered;
+        }
+
+        private boolean before(float a, float b) {
+            return max ? a > b : a < b;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.smartguide.poc.service.search;
+
+import com.smartguide.poc.config.SearchConfig;
+import com.smartguide.poc.repository.ProductRepository;
+import com.smartguide.poc.service.CatalogIndexHolder;
+import com.smartguide.poc.service.CatalogVersion;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BM25 retrieval over the name, description and key benefits of recommendable products.
+ *
+ * The index is built once per catalog version, the same way as the eligibility index,
+ * and queries only read it, so the user's own words can be matched on the request path
+ * without touching the database. Rebuilds run in the background; queries keep using the
+ * previous version's index until the new one is swapped in.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class LexicalSearch {
+
+    private final ProductRepository productRepository;
+    private final CatalogVersion catalogVersion;
+    private final SearchConfig searchConfig;
+
+    private CatalogIndexHolder<Bm25Index> index;
+
+    @PostConstruct
+    public void init() {
+        index = new CatalogIndexHolder<>("bm25-index", catalogVersion::current, this::buildIndex,
+                Bm25Index::getCatalogVersion);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (Boolean.TRUE.equals(searchConfig.getEnabled())) {
+            index.warmUp();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        index.shutdown();
+    }
+
+    /**
+     * Scores of the query against the current catalog, or null when search is disabled
+     * or the query is blank
+     */
+    public Bm25Index.Scores search(String query) {
+        if (!Boolean.TRUE.equals(searchConfig.getEnabled()) || query == null || query.isBlank()) {
+            return null;
+        }
+        return index.get().search(query);
+    }
+
+    private Bm25Index buildIndex(long version) {
+        long start = System.currentTimeMillis();
+        List<Bm25Index.Document> documents = new ArrayList<>();
+        for (Object[] row : productRepository.findSearchableText()) {
+            @SuppressWarnings("unchecked")
+            List<String> benefits = (List<String>) row[3];
+            documents.add(new Bm25Index.Document((Long) row[0], (String) row[1], (String) row[2], benefits));
+        }
+
+        Bm25Index built = Bm25Index.build(version, documents, searchConfig.getK1(), searchConfig.getB(),
+                searchConfig.getNameBoost());
+        log.info("Built BM25 index for catalog version {}: {} products, {} terms in {}ms",
+                version, built.size(), built.termCount(), System.currentTimeMillis() - start);
+        return built;
+    }
+}
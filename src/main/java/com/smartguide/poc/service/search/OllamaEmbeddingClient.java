@@ -0,0 +1,73 @@
+package com.smartguide.poc.service.search;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartguide.poc.config.EmbeddingConfig;
+import com.smartguide.poc.config.LLMConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Embeddings from the Ollama /api/embed endpoint, on the host configured for the LLM
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.embedding", name = "provider", havingValue = "ollama", matchIfMissing = true)
+public class OllamaEmbeddingClient implements EmbeddingClient {
+
+    private final LLMConfig llmConfig;
+    private final EmbeddingConfig embeddingConfig;
+    private final ObjectMapper objectMapper;
+    private final WebClient webClient;
+
+    public OllamaEmbeddingClient(LLMConfig llmConfig, EmbeddingConfig embeddingConfig, ObjectMapper objectMapper) {
+        this.llmConfig = llmConfig;
+        this.embeddingConfig = embeddingConfig;
+        this.objectMapper = objectMapper;
+        this.webClient = WebClient.builder().build();
+    }
+
+    @Override
+    public String model() {
+        return "ollama:" + embeddingConfig.getOllamaModel();
+    }
+
+    @Override
+    public List<float[]> embed(List<String> texts, Duration timeout) {
+        String response = webClient.post()
+                .uri(llmConfig.getOllama().getHost() + "/api/embed")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("model", embeddingConfig.getOllamaModel(), "input", texts))
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(timeout)
+                .block();
+
+        JsonNode embeddings;
+        try {
+            embeddings = objectMapper.readTree(response).path("embeddings");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Ollama returned invalid embedding JSON", e);
+        }
+        if (embeddings.size() != texts.size()) {
+            throw new IllegalStateException("Ollama returned " + embeddings.size() + " embeddings for " + texts.size() + " texts");
+        }
+
+        List<float[]> vectors = new ArrayList<>(texts.size());
+        for (JsonNode embedding : embeddings) {
+            float[] vector = new float[embedding.size()];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = (float) embedding.get(i).asDouble();
+            }
+            vectors.add(vector);
+        }
+        return vectors;
+    }
+}
@@ -0,0 +1,468 @@
+package com.smartguide.poc.service.search;
+
+import com.smartguide.poc.config.EmbeddingConfig;
+import com.smartguide.poc.repository.ProductRepository;
+import com.smartguide.poc.service.CatalogVersion;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Semantic retrieval: the nearest products to the embedded user request in an
+ * in-memory HNSW index.
+ *
+ * Product text is embedded once. Whenever the catalog version moves (approvals bump it),
+ * recommendable products whose text hash differs from their stored embedding are
+ * embedded in batches and saved to product_embeddings, so each approved text is
+ * embedded exactly once per model. The index is snapshotted to disk; on startup the
+ * snapshot is loaded and only products whose text changed meanwhile are re-read or
+ * re-embedded. User requests are embedded on the request path through a small LRU cache.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class SemanticSearch {
+
+    private static final int SNAPSHOT_MAGIC = 0x454D4244;
+
+    private static final String SELECT_HASHES_SQL =
+            "SELECT product_id, text_hash FROM product_embeddings WHERE model = ?";
+
+    private static final String SELECT_VECTORS_SQL =
+            "SELECT product_id, text_hash, vector FROM product_embeddings WHERE model = ? AND product_id = ANY(?)";
+
+    private static final String UPSERT_EMBEDDING_SQL = """
+            INSERT INTO product_embeddings (product_id, model, dimensions, text_hash, vector, embedded_at)
+            VALUES (?, ?, ?, ?, ?, NOW())
+            ON CONFLICT (product_id, model) DO UPDATE SET
+                dimensions = EXCLUDED.dimensions,
+                text_hash = EXCLUDED.text_hash,
+                vector = EXCLUDED.vector,
+                embedded_at = EXCLUDED.embedded_at
+            """;
+
+    private final EmbeddingClient embeddingClient;
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogVersion catalogVersion;
+    private final EmbeddingConfig config;
+
+    private volatile HnswIndex index;
+    // Text hash of each indexed product, persisted with the snapshot
+    private final Map<Long, String> indexedHashes = new ConcurrentHashMap<>();
+    private Map<String, float[]> queryCache;
+    private long syncedVersion = -1;
+    private volatile boolean dirty;
+
+    @PostConstruct
+    public void init() {
+        queryCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, float[]> eldest) {
+                return size() > config.getQueryCacheSize();
+            }
+        };
+        if (Boolean.TRUE.equals(config.getEnabled())) {
+            restoreSnapshot();
+        }
+    }
+
+    /**
+     * Nearest products to the query, or null when semantic search is disabled, the index
+     * is empty or the query could not be embedded
+     */
+    public Matches search(String query) {
+        HnswIndex current = index;
+        if (!Boolean.TRUE.equals(config.getEnabled()) || query == null || query.isBlank()
+                || current == null || current.size() == 0) {
+            return null;
+        }
+        float[] vector = embedQuery(query);
+        if (vector == null || vector.length != current.dimensions()) {
+            return null;
+        }
+        return new Matches(current.search(vector, config.getTopK(), config.getHnsw().getEfSearch()));
+    }
+
+    private float[] embedQuery(String query) {
+        String key = query.strip().toLowerCase(Locale.ROOT);
+        synchronized (queryCache) {
+            float[] cached = queryCache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        try {
+            float[] vector = normalize(embeddingClient.embed(List.of(query),
+                    Duration.ofMillis(config.getQueryTimeoutMs())).get(0));
+            if (vector != null) {
+                synchronized (queryCache) {
+                    queryCache.put(key, vector);
+                }
+            }
+            return vector;
+        } catch (RuntimeException e) {
+            log.warn("Failed to embed query, skipping semantic retrieval: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Embed new and changed products once the catalog version moves
+     */
+    @Scheduled(fixedDelayString = "${app.embedding.sync-interval-ms:5000}")
+    public void sync() {
+        if (!Boolean.TRUE.equals(config.getEnabled())) {
+            return;
+        }
+        long version = catalogVersion.current();
+        if (version == syncedVersion) {
+            return;
+        }
+        try {
+            syncCatalog();
+            syncedVersion = version;
+        } catch (RuntimeException e) {
+            // Stay on the old version so the next run tries again
+            log.warn("Failed to sync product embeddings: {}", e.getMessage());
+        }
+    }
+
+    private void syncCatalog() {
+        long start = System.currentTimeMillis();
+        String model = embeddingClient.model();
+        Map<Long, String> storedHashes = new HashMap<>();
+        jdbcTemplate.query(SELECT_HASHES_SQL,
+                rs -> { storedHashes.put(rs.getLong("product_id"), rs.getString("text_hash")); }, model);
+
+        List<Long> toEmbed = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        List<String> hashes = new ArrayList<>();
+        List<Long> toLoad = new ArrayList<>();
+        Set<Long> current = new HashSet<>();
+        for (Object[] row : productRepository.findSearchableText()) {
+            Long productId = (Long) row[0];
+            @SuppressWarnings("unchecked")
+            String text = embeddingText((String) row[1], (String) row[2], (List<String>) row[3]);
+            String hash = sha256(text);
+            current.add(productId);
+            if (!hash.equals(storedHashes.get(productId))) {
+                toEmbed.add(productId);
+                texts.add(text);
+                hashes.add(hash);
+            } else if (!hash.equals(indexedHashes.get(productId))) {
+                toLoad.add(productId);
+            }
+        }
+
+        for (int from = 0; from < toEmbed.size(); from += config.getBatchSize()) {
+            int to = Math.min(from + config.getBatchSize(), toEmbed.size());
+            List<float[]> vectors = embeddingClient.embed(texts.subList(from, to),
+                    Duration.ofMillis(config.getBatchTimeoutMs()));
+            List<Object[]> rows = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                float[] vector = normalize(vectors.get(i - from));
+                if (vector == null) {
+                    continue;
+                }
+                rows.add(new Object[]{toEmbed.get(i), model, vector.length, hashes.get(i), toBytes(vector)});
+                addToIndex(toEmbed.get(i), hashes.get(i), vector);
+            }
+            jdbcTemplate.batchUpdate(UPSERT_EMBEDDING_SQL, rows);
+        }
+
+        if (!toLoad.isEmpty()) {
+            jdbcTemplate.query(SELECT_VECTORS_SQL, rs -> {
+                addToIndex(rs.getLong("product_id"), rs.getString("text_hash"), fromBytes(rs.getBytes("vector")));
+            }, model, toLoad.toArray(new Long[0]));
+        }
+
+        int removed = 0;
+        for (Long productId : new ArrayList<>(indexedHashes.keySet())) {
+            if (!current.contains(productId)) {
+                index.remove(productId);
+                indexedHashes.remove(productId);
+                removed++;
+            }
+        }
+
+        if (!toEmbed.isEmpty() || !toLoad.isEmpty() || removed > 0) {
+            dirty = true;
+            log.info("Synced product embeddings ({}): {} embedded, {} loaded, {} removed, {} indexed in {}ms",
+                    model, toEmbed.size(), toLoad.size(), removed, indexedHashes.size(),
+                    System.currentTimeMillis() - start);
+        }
+    }
+
+    private void addToIndex(long productId, String hash, float[] vector) {
+        HnswIndex current = index;
+        if (current == null || current.dimensions() != vector.length) {
+            // First vector, or the model now produces a different size: start over
+            current = new HnswIndex(vector.length, config.getHnsw().getM(), config.getHnsw().getEfConstruction());
+            indexedHashes.clear();
+            index = current;
+        }
+        current.put(productId, vector);
+        indexedHashes.put(productId, hash);
+    }
+
+    @Scheduled(fixedDelayString = "${app.embedding.snapshot-interval-ms:300000}",
+            initialDelayString = "${app.embedding.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        if (!dirty || index == null) {
+            return;
+        }
+        dirty = false;
+        Path path = Paths.get(config.getSnapshotPath());
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "embeddings", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeUTF(embeddingClient.model());
+                Map<Long, String> hashes = new HashMap<>(indexedHashes);
+                out.writeInt(hashes.size());
+                for (Map.Entry<Long, String> entry : hashes.entrySet()) {
+                    out.writeLong(entry.getKey());
+                    out.writeUTF(entry.getValue());
+                }
+                index.write(out);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Saved embedding index snapshot to {}", path);
+        } catch (IOException e) {
+            dirty = true;
+            log.warn("Failed to save embedding index snapshot: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
+
+    private void restoreSnapshot() {
+        Path path = Paths.get(config.getSnapshotPath());
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || !embeddingClient.model().equals(in.readUTF())) {
+                log.warn("Ignoring embedding index snapshot of another model");
+                return;
+            }
+            Map<Long, String> hashes = new HashMap<>();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                hashes.put(in.readLong(), in.readUTF());
+            }
+            index = HnswIndex.read(in);
+            indexedHashes.putAll(hashes);
+            log.info("Restored embedding index snapshot with {} products", index.size());
+        } catch (IOException | RuntimeException e) {
+            index = null;
+            indexedHashes.clear();
+            log.warn("Failed to restore embedding index snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Compare the HNSW index with an exact scan. Queries are indexed vectors with random
+     * noise added, so they are near the catalog without being copies of it.
+     */
+    public Map<String, Object> benchmark(int queries, int k, Integer ef) {
+        HnswIndex current = index;
+        if (current == null || current.size() == 0) {
+            throw new IllegalStateException("The embedding index is empty");
+        }
+        int efSearch = ef != null ? ef : config.getHnsw().getEfSearch();
+        long[] ids = current.ids();
+        Random random = new Random(7);
+
+        long[] hnswNanos = new long[queries];
+        long[] exactNanos = new long[queries];
+        double recallSum = 0;
+        for (int q = 0; q < queries; q++) {
+            float[] query = current.vector(ids[random.nextInt(ids.length)]);
+            float noise = (float) (0.5 / Math.sqrt(query.length));
+            for (int i = 0; i < query.length; i++) {
+                query[i] += (float) random.nextGaussian() * noise;
+            }
+            query = normalize(query);
+
+            long start = System.nanoTime();
+            List<HnswIndex.Neighbor> approximate = current.search(query, k, efSearch);
+            hnswNanos[q] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            List<HnswIndex.Neighbor> exact = current.bruteForce(query, k);
+            exactNanos[q] = System.nanoTime() - start;
+
+            Set<Long> exactIds = new HashSet<>();
+            exact.forEach(neighbor -> exactIds.add(neighbor.id()));
+            long found = approximate.stream().filter(neighbor -> exactIds.contains(neighbor.id())).count();
+            recallSum += exact.isEmpty() ? 1.0 : (double) found / exact.size();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("model", embeddingClient.model());
+        result.put("indexedProducts", ids.length);
+        result.put("dimensions", current.dimensions());
+        result.put("queries", queries);
+        result.put("k", k);
+        result.put("efSearch", efSearch);
+        result.put("recall", recallSum / queries);
+        result.put("hnswLatencyMicros", latencySummary(hnswNanos));
+        result.put("bruteForceLatencyMicros", latencySummary(exactNanos));
+        return result;
+    }
+
+    public Map<String, Object> status() {
+        HnswIndex current = index;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", config.getEnabled());
+        status.put("model", embeddingClient.model());
+        status.put("indexedProducts", current != null ? current.size() : 0);
+        status.put("dimensions", current != null ? current.dimensions() : null);
+        status.put("syncedCatalogVersion", syncedVersion);
+        synchronized (queryCache) {
+            status.put("cachedQueries", queryCache.size());
+        }
+        return status;
+    }
+
+    private static Map<String, Object> latencySummary(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("p50", sorted[sorted.length / 2] / 1000.0);
+        summary.put("p99", sorted[Math.min(sorted.length - 1, (int) (sorted.length * 0.99))] / 1000.0);
+        summary.put("max", sorted[sorted.length - 1] / 1000.0);
+        return summary;
+    }
+
+    private static String embeddingText(String name, String description, List<String> benefits) {
+        StringBuilder text = new StringBuilder(name != null ? name : "");
+        if (description != null && !description.isBlank()) {
+            text.append(". ").append(description);
+        }
+        if (benefits != null && !benefits.isEmpty()) {
+            text.append(". ").append(String.join("; ", benefits));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Scale to unit length so cosine similarity is a dot product; null for a zero vector
+     */
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float component : vector) {
+            norm += component * component;
+        }
+        if (norm == 0) {
+            return null;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] * scale;
+        }
+        return normalized;
+    }
+
+    private static byte[] toBytes(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    private static float[] fromBytes(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+
+    private static String sha256(String text) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Nearest products of one query
+     */
+    public static final class Matches {
+        private final List<HnswIndex.Neighbor> neighbors;
+        private final Map<Long, Float> similarityById;
+        private final float best;
+
+        private Matches(List<HnswIndex.Neighbor> neighbors) {
+            this.neighbors = neighbors;
+            this.similarityById = new HashMap<>(neighbors.size() * 2);
+            for (HnswIndex.Neighbor neighbor : neighbors) {
+                similarityById.put(neighbor.id(), neighbor.similarity());
+            }
+            this.best = neighbors.isEmpty() ? 0 : Math.max(0, neighbors.get(0).similarity());
+        }
+
+        public boolean isEmpty() {
+            return best == 0;
+        }
+
+        /**
+         * Similarity relative to the nearest product, in [0, 1]; 0 outside the top K
+         */
+        public double normalized(Long productId) {
+            Float similarity = productId != null && best > 0 ? similarityById.get(productId) : null;
+            return similarity == null ? 0.0 : Math.max(0, similarity) / best;
+        }
+
+        /**
+         * Product ids of up to {@code limit} nearest products with at least {@code minSimilarity}
+         */
+        public List<Long> top(int limit, double minSimilarity) {
+            return neighbors.stream()
+                    .filter(neighbor -> neighbor.similarity() >= minSimilarity)
+                    .limit(limit)
+                    .map(HnswIndex.Neighbor::id)
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.smartguide.poc.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Tokenizer shared by indexing and queries, for English and Arabic text.
+ *
+ * Text is NFKC-normalized and lower-cased; Arabic diacritics and tatweel are removed and
+ * letter variants folded (alef forms to bare alef, alef maqsura to ya, ta marbuta to ha).
+ * Tokens are split on anything that is not a letter or digit, stop words are dropped,
+ * and a light stemmer removes English plural endings and common Arabic prefixes and
+ * plural suffixes.
+ */
+public final class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            // English
+            "a", "an", "and", "are", "as", "at", "be", "by", "can", "for", "from", "has", "have",
+            "i", "in", "is", "it", "me", "my", "of", "on", "or", "our", "so", "that", "the", "this",
+            "to", "want", "was", "we", "with", "you", "your", "need", "looking", "would", "like",
+            // Arabic (already folded)
+            "في", "من", "علي", "الي", "عن", "مع", "او", "ان", "هذا", "هذه", "ذلك", "التي", "الذي",
+            "انا", "اريد", "لي", "كل", "ما", "لا", "هو", "هي"
+    );
+
+    private static final String[] ARABIC_PREFIXES = {"وال", "بال", "كال", "فال", "لل", "ال"};
+    private static final String[] ARABIC_SUFFIXES = {"ات", "ون", "ين", "ها", "يه"};
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String normalized = fold(Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT));
+
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addToken(tokens, normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static void addToken(List<String> tokens, String token) {
+        if (token.length() < 2 || STOP_WORDS.contains(token)) {
+            return;
+        }
+        String stemmed = isArabic(token) ? stemArabic(token) : stemEnglish(token);
+        if (stemmed.length() >= 2) {
+            tokens.add(stemmed);
+        }
+    }
+
+    /**
+     * Remove Arabic diacritics and tatweel and fold letter variants
+     */
+    private static String fold(String text) {
+        StringBuilder folded = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            // Harakat, superscript alef and tatweel
+            if ((c >= '\u064B' && c <= '\u065F') || c == '\u0670' || c == '\u0640') {
+                continue;
+            }
+            switch (c) {
+                case '\u0623', '\u0625', '\u0622', '\u0671' -> folded.append('\u0627'); // alef forms -> alef
+                case '\u0649' -> folded.append('\u064A');                               // alef maqsura -> ya
+                case '\u0629' -> folded.append('\u0647');                               // ta marbuta -> ha
+                case '\u0624' -> folded.append('\u0648');                               // waw hamza -> waw
+                case '\u0626' -> folded.append('\u064A');                               // ya hamza -> ya
+                default -> folded.append(c);
+            }
+        }
+        return folded.toString();
+    }
+
+    private static boolean isArabic(String token) {
+        return Character.UnicodeBlock.of(token.charAt(0)) == Character.UnicodeBlock.ARABIC;
+    }
+
+    private static String stemArabic(String token) {
+        for (String prefix : ARABIC_PREFIXES) {
+            if (token.startsWith(prefix) && token.length() - prefix.length() >= 3) {
+                token = token.substring(prefix.length());
+                break;
+            }
+        }
+        for (String suffix : ARABIC_SUFFIXES) {
+            if (token.endsWith(suffix) && token.length() - suffix.length() >= 3) {
+                return token.substring(0, token.length() - suffix.length());
+            }
+        }
+        return token;
+    }
+
+    private static String stemEnglish(String token) {
+        int length = token.length();
+        if (length > 4 && token.endsWith("ies")) {
+            return token.substring(0, length - 3) + "y";
+        }
+        if (length > 4 && (token.endsWith("ches") || token.endsWith("shes") || token.endsWith("xes") || token.endsWith("sses"))) {
+            return token.substring(0, length - 2);
+        }
+        if (length > 3 && token.endsWith("s") && !token.endsWith("ss") && !token.endsWith("us")) {
+            return token.substring(0, length - 1);
+        }
+        return token;
+    }
+}
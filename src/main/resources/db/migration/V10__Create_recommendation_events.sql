@@ -0,0 +1,26 @@
+-- Client feedback on recommendations: impressions, clicks and acceptances
+CREATE TABLE IF NOT EXISTS recommendation_events (
+    id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(20) NOT NULL,
+    product_code VARCHAR(50) NOT NULL,
+    segment VARCHAR(100),
+    session_id VARCHAR(100),
+    intent VARCHAR(100),
+    rank INTEGER,
+    occurred_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_recommendation_events_product_time
+    ON recommendation_events(product_code, occurred_at);
+
+-- Periodic snapshots of in-memory ranking state, restored on startup
+CREATE TABLE IF NOT EXISTS ranking_snapshots (
+    snapshot_key VARCHAR(50) PRIMARY KEY,
+    payload BYTEA NOT NULL,
+    taken_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+COMMENT ON TABLE recommendation_events IS 'Append-only log of recommendation impressions, clicks and acceptances';
+COMMENT ON COLUMN recommendation_events.event_type IS 'IMPRESSION, CLICK, ACCEPT';
+COMMENT ON TABLE ranking_snapshots IS 'Serialized popularity sketches and other ranking state';
@@ -0,0 +1,36 @@
+-- Compliance audit of every recommendation served, partitioned by month
+CREATE TABLE IF NOT EXISTS recommendation_audit (
+    id BIGSERIAL,
+    request_id VARCHAR(36) NOT NULL,
+    served_at TIMESTAMP NOT NULL,
+    user_input TEXT,
+    language VARCHAR(5),
+    intent VARCHAR(100),
+    confidence DECIMAL(4,3),
+    user_context JSONB,
+    recommendations JSONB,
+    processing_time_ms INTEGER,
+    sample_weight INTEGER NOT NULL DEFAULT 1,
+    PRIMARY KEY (id, served_at)
+) PARTITION BY RANGE (served_at);
+
+-- Create the monthly partition holding the given timestamp if it does not exist yet
+CREATE OR REPLACE FUNCTION ensure_recommendation_audit_partition(p_ts TIMESTAMP) RETURNS VOID AS $$
+DECLARE
+    start_ts TIMESTAMP := date_trunc('month', p_ts);
+    end_ts TIMESTAMP := date_trunc('month', p_ts) + INTERVAL '1 month';
+BEGIN
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF recommendation_audit FOR VALUES FROM (%L) TO (%L)',
+        'recommendation_audit_' || to_char(start_ts, 'YYYYMM'), start_ts, end_ts);
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT ensure_recommendation_audit_partition(NOW()::TIMESTAMP);
+SELECT ensure_recommendation_audit_partition((NOW() + INTERVAL '1 month')::TIMESTAMP);
+
+CREATE INDEX IF NOT EXISTS idx_recommendation_audit_served_at ON recommendation_audit(served_at);
+CREATE INDEX IF NOT EXISTS idx_recommendation_audit_request_id ON recommendation_audit(request_id);
+
+COMMENT ON TABLE recommendation_audit IS 'Audit trail of served recommendations, written asynchronously in batches';
+COMMENT ON COLUMN recommendation_audit.sample_weight IS 'Number of served recommendations this row stands for (>1 when sampled under load)';
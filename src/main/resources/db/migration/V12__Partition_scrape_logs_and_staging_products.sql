@@ -0,0 +1,226 @@
+-- Range-partition scrape_logs (by started_at) and staging_products (by created_at) by month,
+-- so old data can be archived and dropped per partition and recent-window queries prune.
+--
+-- Partitioned tables need the partition key in every unique constraint, so:
+--   * primary keys become (id, started_at) / (id, created_at); ids still come from the same sequences
+--   * scrape_logs.job_id is unique per (job_id, started_at)
+--   * the staging uniqueness rule becomes (scrape_log_id, product_code, created_at); the scraper
+--     writes every row of a job with the job's start time as created_at, so it stays per job
+--   * staging_products.scrape_log_id can no longer be a foreign key; the retention job removes
+--     staging rows together with their scrape logs instead of ON DELETE CASCADE
+
+-- Generic monthly partition helper
+CREATE OR REPLACE FUNCTION ensure_monthly_partition(p_parent TEXT, p_ts TIMESTAMP) RETURNS TEXT AS $$
+DECLARE
+    start_ts TIMESTAMP := date_trunc('month', p_ts);
+    partition_name TEXT := p_parent || '_p' || to_char(date_trunc('month', p_ts), 'YYYYMM');
+BEGIN
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+        partition_name, p_parent, start_ts, start_ts + INTERVAL '1 month');
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- ---------------------------------------------------------------------------
+-- staging_products
+-- ---------------------------------------------------------------------------
+DROP TRIGGER IF EXISTS trg_staging_product_counts_insert ON staging_products;
+DROP TRIGGER IF EXISTS trg_staging_product_counts_update ON staging_products;
+DROP TRIGGER IF EXISTS trg_staging_product_counts_delete ON staging_products;
+
+ALTER TABLE staging_products RENAME TO staging_products_unpartitioned;
+ALTER TABLE staging_products_unpartitioned RENAME CONSTRAINT staging_products_pkey TO staging_products_unpartitioned_pkey;
+ALTER SEQUENCE staging_products_id_seq OWNED BY NONE;
+
+CREATE TABLE staging_products (
+    id INTEGER NOT NULL DEFAULT nextval('staging_products_id_seq'),
+    product_code VARCHAR(50) NOT NULL,
+    product_name VARCHAR(255) NOT NULL,
+    category VARCHAR(100),
+    sub_category VARCHAR(100),
+    description TEXT,
+    islamic_structure VARCHAR(50),
+    annual_rate DECIMAL(5,2),
+    annual_fee DECIMAL(10,2),
+    min_income DECIMAL(12,2),
+    min_credit_score INT,
+    eligibility_criteria JSONB,
+    key_benefits JSONB,
+    sharia_certified BOOLEAN DEFAULT true,
+    active BOOLEAN DEFAULT true,
+    source_website_id VARCHAR(100),
+    source_url TEXT,
+    scraped_at TIMESTAMP,
+    data_quality_score DECIMAL(3,2),
+    raw_html_hash VARCHAR(64) REFERENCES raw_html_blobs(content_hash),
+    scrape_log_id INTEGER,
+    approval_status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    reviewed_by VARCHAR(100),
+    reviewed_at TIMESTAMP,
+    review_notes TEXT,
+    ai_suggested_category VARCHAR(100),
+    ai_confidence DECIMAL(3,2),
+    ai_categorization_json JSONB,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMP DEFAULT NOW(),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE staging_products_id_seq OWNED BY staging_products.id;
+
+DO $$
+DECLARE
+    month_start TIMESTAMP;
+BEGIN
+    FOR month_start IN
+        SELECT generate_series(
+            date_trunc('month', LEAST(COALESCE(MIN(created_at), NOW()), NOW())),
+            date_trunc('month', NOW() + INTERVAL '1 month'),
+            INTERVAL '1 month')
+        FROM staging_products_unpartitioned
+    LOOP
+        PERFORM ensure_monthly_partition('staging_products', month_start);
+    END LOOP;
+END $$;
+
+INSERT INTO staging_products (
+    id, product_code, product_name, category, sub_category, description, islamic_structure,
+    annual_rate, annual_fee, min_income, min_credit_score, eligibility_criteria, key_benefits,
+    sharia_certified, active, source_website_id, source_url, scraped_at, data_quality_score,
+    raw_html_hash, scrape_log_id, approval_status, reviewed_by, reviewed_at, review_notes,
+    ai_suggested_category, ai_confidence, ai_categorization_json, created_at, updated_at
+)
+SELECT
+    id, product_code, product_name, category, sub_category, description, islamic_structure,
+    annual_rate, annual_fee, min_income, min_credit_score, eligibility_criteria, key_benefits,
+    sharia_certified, active, source_website_id, source_url, scraped_at, data_quality_score,
+    raw_html_hash, scrape_log_id, approval_status, reviewed_by, reviewed_at, review_notes,
+    ai_suggested_category, ai_confidence, ai_categorization_json, COALESCE(created_at, NOW()), updated_at
+FROM staging_products_unpartitioned;
+
+DROP TABLE staging_products_unpartitioned;
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_staging_unique_product_per_job
+    ON staging_products(scrape_log_id, product_code, created_at);
+CREATE INDEX IF NOT EXISTS idx_staging_products_scrape_log ON staging_products(scrape_log_id);
+CREATE INDEX IF NOT EXISTS idx_staging_products_category ON staging_products(category);
+CREATE INDEX IF NOT EXISTS idx_staging_products_raw_html_hash ON staging_products(raw_html_hash);
+CREATE INDEX IF NOT EXISTS idx_staging_products_created_id ON staging_products(created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_staging_products_status_created_id
+    ON staging_products(approval_status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_staging_products_website_created_id
+    ON staging_products(source_website_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_staging_products_name_id ON staging_products(product_name, id);
+
+-- Counters were backfilled in V8 and the copy above ran without triggers, so they are still exact
+CREATE TRIGGER trg_staging_product_counts_insert
+    AFTER INSERT ON staging_products
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION staging_product_counts_apply();
+
+CREATE TRIGGER trg_staging_product_counts_update
+    AFTER UPDATE ON staging_products
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION staging_product_counts_apply();
+
+CREATE TRIGGER trg_staging_product_counts_delete
+    AFTER DELETE ON staging_products
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION staging_product_counts_apply();
+
+-- Reviewed rows moved out of the hot table by the retention job (page content is not kept)
+CREATE TABLE IF NOT EXISTS staging_products_archive (
+    id INTEGER NOT NULL,
+    product_code VARCHAR(50) NOT NULL,
+    product_name VARCHAR(255) NOT NULL,
+    category VARCHAR(100),
+    sub_category VARCHAR(100),
+    description TEXT,
+    islamic_structure VARCHAR(50),
+    annual_rate DECIMAL(5,2),
+    annual_fee DECIMAL(10,2),
+    min_income DECIMAL(12,2),
+    min_credit_score INT,
+    eligibility_criteria JSONB,
+    key_benefits JSONB,
+    sharia_certified BOOLEAN,
+    active BOOLEAN,
+    source_website_id VARCHAR(100),
+    source_url TEXT,
+    scraped_at TIMESTAMP,
+    data_quality_score DECIMAL(3,2),
+    scrape_log_id INTEGER,
+    approval_status VARCHAR(20) NOT NULL,
+    reviewed_by VARCHAR(100),
+    reviewed_at TIMESTAMP,
+    review_notes TEXT,
+    ai_suggested_category VARCHAR(100),
+    ai_confidence DECIMAL(3,2),
+    ai_categorization_json JSONB,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    archived_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id, created_at)
+);
+
+CREATE INDEX IF NOT EXISTS idx_staging_archive_product_code ON staging_products_archive(product_code);
+
+-- ---------------------------------------------------------------------------
+-- scrape_logs
+-- ---------------------------------------------------------------------------
+ALTER TABLE scrape_logs RENAME TO scrape_logs_unpartitioned;
+ALTER TABLE scrape_logs_unpartitioned RENAME CONSTRAINT scrape_logs_pkey TO scrape_logs_unpartitioned_pkey;
+ALTER TABLE scrape_logs_unpartitioned RENAME CONSTRAINT scrape_logs_job_id_key TO scrape_logs_unpartitioned_job_id_key;
+ALTER SEQUENCE scrape_logs_id_seq OWNED BY NONE;
+
+CREATE TABLE scrape_logs (
+    id INTEGER NOT NULL DEFAULT nextval('scrape_logs_id_seq'),
+    source_id INTEGER REFERENCES scrape_sources(id) ON DELETE CASCADE,
+    job_id VARCHAR(100) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    products_found INTEGER DEFAULT 0,
+    products_saved INTEGER DEFAULT 0,
+    products_updated INTEGER DEFAULT 0,
+    products_skipped INTEGER DEFAULT 0,
+    error_message TEXT,
+    started_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    completed_at TIMESTAMP,
+    PRIMARY KEY (id, started_at)
+) PARTITION BY RANGE (started_at);
+
+ALTER SEQUENCE scrape_logs_id_seq OWNED BY scrape_logs.id;
+
+DO $$
+DECLARE
+    month_start TIMESTAMP;
+BEGIN
+    FOR month_start IN
+        SELECT generate_series(
+            date_trunc('month', LEAST(COALESCE(MIN(started_at), NOW()), NOW())),
+            date_trunc('month', NOW() + INTERVAL '1 month'),
+            INTERVAL '1 month')
+        FROM scrape_logs_unpartitioned
+    LOOP
+        PERFORM ensure_monthly_partition('scrape_logs', month_start);
+    END LOOP;
+END $$;
+
+INSERT INTO scrape_logs (
+    id, source_id, job_id, status, products_found, products_saved, products_updated,
+    products_skipped, error_message, started_at, completed_at
+)
+SELECT
+    id, source_id, job_id, status, products_found, products_saved, products_updated,
+    products_skipped, error_message, COALESCE(started_at, NOW()), completed_at
+FROM scrape_logs_unpartitioned;
+
+DROP TABLE scrape_logs_unpartitioned;
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_scrape_logs_job_id ON scrape_logs(job_id, started_at);
+CREATE INDEX IF NOT EXISTS idx_scrape_logs_status ON scrape_logs(status);
+CREATE INDEX IF NOT EXISTS idx_scrape_logs_source_id ON scrape_logs(source_id, started_at DESC);
+
+COMMENT ON TABLE staging_products IS 'Staging area for scraped products pending human review and approval (partitioned by created_at month)';
+COMMENT ON TABLE staging_products_archive IS 'Reviewed staging products moved out of staging_products by the retention job';
+COMMENT ON TABLE scrape_logs IS 'Historical log of all scraping jobs executed (partitioned by started_at month)';
@@ -0,0 +1,9 @@
+-- Per-site schedule for the scraper's scheduler (Spring cron: second minute hour day month weekday)
+ALTER TABLE scrape_sources ADD COLUMN IF NOT EXISTS schedule_cron VARCHAR(100);
+
+UPDATE scrape_sources SET schedule_cron = '0 0 2 * * *' WHERE schedule_cron IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_scrape_sources_scheduled
+    ON scrape_sources(website_id) WHERE active AND schedule_cron IS NOT NULL;
+
+COMMENT ON COLUMN scrape_sources.schedule_cron IS 'Cron expression for scheduled scrapes; NULL disables scheduling';
@@ -0,0 +1,4 @@
+-- Version (content checksum) of the scraper config a job ran with
+ALTER TABLE scrape_logs ADD COLUMN IF NOT EXISTS config_version VARCHAR(64);
+
+COMMENT ON COLUMN scrape_logs.config_version IS 'Checksum of the scraper config the job was pinned to when it started';
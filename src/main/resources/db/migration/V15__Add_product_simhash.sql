@@ -0,0 +1,13 @@
+-- 64-bit SimHash fingerprints of name, description and benefits, used by the scraper to
+-- link near-duplicate products (same product under another URL or generated code)
+ALTER TABLE products ADD COLUMN IF NOT EXISTS simhash BIGINT;
+
+ALTER TABLE staging_products ADD COLUMN IF NOT EXISTS simhash BIGINT;
+ALTER TABLE staging_products ADD COLUMN IF NOT EXISTS near_duplicate_of VARCHAR(50);
+
+ALTER TABLE staging_products_archive ADD COLUMN IF NOT EXISTS simhash BIGINT;
+ALTER TABLE staging_products_archive ADD COLUMN IF NOT EXISTS near_duplicate_of VARCHAR(50);
+
+COMMENT ON COLUMN products.simhash IS 'SimHash of the normalized name, description and key benefits';
+COMMENT ON COLUMN staging_products.simhash IS 'SimHash of the normalized name, description and key benefits';
+COMMENT ON COLUMN staging_products.near_duplicate_of IS 'Product code of a near-duplicate that kept its own scraped code';
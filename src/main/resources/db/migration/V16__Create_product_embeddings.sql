@@ -0,0 +1,15 @@
+-- Embedding vectors of product text, computed once per product text and model and
+-- loaded into the in-memory HNSW index used for semantic retrieval
+CREATE TABLE IF NOT EXISTS product_embeddings (
+    product_id INTEGER NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    model VARCHAR(100) NOT NULL,
+    dimensions INTEGER NOT NULL,
+    text_hash VARCHAR(64) NOT NULL,
+    vector BYTEA NOT NULL,
+    embedded_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (product_id, model)
+);
+
+COMMENT ON TABLE product_embeddings IS 'Unit-length embedding vectors of product name, description and benefits';
+COMMENT ON COLUMN product_embeddings.text_hash IS 'SHA-256 of the embedded text; a different hash means the product must be re-embedded';
+COMMENT ON COLUMN product_embeddings.vector IS 'Little-endian float32 components';
@@ -0,0 +1,12 @@
+-- Shared catalog version. Every change to products increments it in the same transaction
+-- and announces the new value with NOTIFY, so all service instances invalidate their
+-- catalog caches; instances that missed the notification catch up by polling this row.
+CREATE TABLE IF NOT EXISTS catalog_version (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    version BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+INSERT INTO catalog_version (id, version) VALUES (1, 1) ON CONFLICT (id) DO NOTHING;
+
+COMMENT ON TABLE catalog_version IS 'Single row; version of the products table shared by all service instances';
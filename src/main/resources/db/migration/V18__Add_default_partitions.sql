@@ -0,0 +1,46 @@
+-- Catch-all partitions, so rows dated outside the monthly partitions (a missed maintenance
+-- run, a clock far ahead) are still written instead of failing the insert
+CREATE TABLE IF NOT EXISTS staging_products_default PARTITION OF staging_products DEFAULT;
+CREATE TABLE IF NOT EXISTS scrape_logs_default PARTITION OF scrape_logs DEFAULT;
+
+-- A month partition cannot be created while the default partition holds rows of that month,
+-- so such rows are moved into the new partition before it is attached
+CREATE OR REPLACE FUNCTION ensure_monthly_partition(p_parent TEXT, p_ts TIMESTAMP) RETURNS TEXT AS $$
+DECLARE
+    start_ts TIMESTAMP := date_trunc('month', p_ts);
+    end_ts TIMESTAMP := date_trunc('month', p_ts) + INTERVAL '1 month';
+    partition_name TEXT := p_parent || '_p' || to_char(date_trunc('month', p_ts), 'YYYYMM');
+    default_name TEXT := p_parent || '_default';
+    key_column TEXT;
+    stranded BOOLEAN := false;
+BEGIN
+    IF to_regclass(quote_ident(partition_name)) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+
+    IF to_regclass(quote_ident(default_name)) IS NOT NULL THEN
+        SELECT a.attname INTO key_column
+        FROM pg_partitioned_table pt
+        JOIN pg_attribute a ON a.attrelid = pt.partrelid AND a.attnum = pt.partattrs[0]
+        WHERE pt.partrelid = p_parent::regclass;
+
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE %I >= %L AND %I < %L)',
+            default_name, key_column, start_ts, key_column, end_ts) INTO stranded;
+    END IF;
+
+    IF NOT stranded THEN
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+            partition_name, p_parent, start_ts, end_ts);
+        RETURN partition_name;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name, p_parent);
+    EXECUTE format(
+        'WITH moved AS (DELETE FROM %I WHERE %I >= %L AND %I < %L RETURNING *) INSERT INTO %I SELECT * FROM moved',
+        default_name, key_column, start_ts, key_column, end_ts, partition_name);
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+        p_parent, partition_name, start_ts, end_ts);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,9 @@
+-- V6 set raw_html_blobs.content to STORAGE EXTERNAL, which turned off TOAST compression
+-- for the uncompressed IDENTITY rows migrated from staging_products. Gzip rows gain little
+-- from EXTENDED, since pglz gives up early on incompressible data, so restore the default.
+ALTER TABLE raw_html_blobs ALTER COLUMN content SET STORAGE EXTENDED;
+
+-- Storage settings only apply to new values: rewrite the legacy rows so TOAST compresses them
+UPDATE raw_html_blobs
+SET content = content || ''::bytea
+WHERE encoding = 'IDENTITY';
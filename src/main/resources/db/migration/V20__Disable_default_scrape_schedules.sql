@@ -0,0 +1,4 @@
+-- V13 gave every existing site the nightly schedule '0 0 2 * * *', so upgrading started
+-- scraping all active sites. Scheduling is opt-in: NULL (disabled) unless set per site.
+-- A site that should keep the nightly run needs its schedule_cron set again after this.
+UPDATE scrape_sources SET schedule_cron = NULL WHERE schedule_cron = '0 0 2 * * *';
@@ -0,0 +1,38 @@
+-- Content-addressed store for scraped page content, kept out of staging_products rows
+CREATE TABLE IF NOT EXISTS raw_html_blobs (
+    content_hash VARCHAR(64) PRIMARY KEY,  -- SHA-256 (hex) of the uncompressed content
+    encoding VARCHAR(20) NOT NULL,         -- GZIP, IDENTITY
+    content BYTEA NOT NULL,
+    original_size INT NOT NULL,
+    created_at TIMESTAMP DEFAULT NOW()
+);
+
+-- Content is already compressed by the writer, so skip TOAST compression
+ALTER TABLE raw_html_blobs ALTER COLUMN content SET STORAGE EXTERNAL;
+
+ALTER TABLE staging_products
+ADD COLUMN IF NOT EXISTS raw_html_hash VARCHAR(64) REFERENCES raw_html_blobs(content_hash);
+
+-- Move existing content into the blob store (stored as-is; new rows are written gzip-compressed)
+INSERT INTO raw_html_blobs (content_hash, encoding, content, original_size)
+SELECT DISTINCT ON (content_hash) content_hash, 'IDENTITY', content, octet_length(content)
+FROM (
+    SELECT encode(sha256(convert_to(raw_html, 'UTF8')), 'hex') AS content_hash,
+           convert_to(raw_html, 'UTF8') AS content
+    FROM staging_products
+    WHERE raw_html IS NOT NULL
+) existing
+ON CONFLICT (content_hash) DO NOTHING;
+
+UPDATE staging_products
+SET raw_html_hash = encode(sha256(convert_to(raw_html, 'UTF8')), 'hex')
+WHERE raw_html IS NOT NULL;
+
+ALTER TABLE staging_products DROP COLUMN IF EXISTS raw_html;
+
+CREATE INDEX IF NOT EXISTS idx_staging_products_raw_html_hash ON staging_products(raw_html_hash);
+
+-- Comments for documentation
+COMMENT ON TABLE raw_html_blobs IS 'Deduplicated, compressed page content referenced by staging products';
+COMMENT ON COLUMN raw_html_blobs.encoding IS 'GZIP or IDENTITY (uncompressed UTF-8)';
+COMMENT ON COLUMN staging_products.raw_html_hash IS 'SHA-256 of the page content stored in raw_html_blobs';
@@ -0,0 +1,16 @@
+-- Indexes backing keyset pagination of the admin staging list (sort value, id)
+CREATE INDEX IF NOT EXISTS idx_staging_products_created_id
+    ON staging_products(created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_staging_products_status_created_id
+    ON staging_products(approval_status, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_staging_products_website_created_id
+    ON staging_products(source_website_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_staging_products_name_id
+    ON staging_products(product_name, id);
+
+-- Superseded by the composite indexes above
+DROP INDEX IF EXISTS idx_staging_products_status;
+DROP INDEX IF EXISTS idx_staging_products_website;
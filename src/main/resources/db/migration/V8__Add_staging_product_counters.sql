@@ -0,0 +1,84 @@
+-- Every staging row is counted under a status, so the status can no longer be NULL
+UPDATE staging_products SET approval_status = 'PENDING' WHERE approval_status IS NULL;
+ALTER TABLE staging_products ALTER COLUMN approval_status SET NOT NULL;
+
+-- Pre-aggregated staging product counts per website, scrape job and approval status.
+-- Maintained by statement-level triggers so dashboard statistics never scan staging_products.
+CREATE TABLE IF NOT EXISTS staging_product_counts (
+    source_website_id VARCHAR(100) NOT NULL DEFAULT '',
+    scrape_log_id INTEGER NOT NULL DEFAULT 0,
+    approval_status VARCHAR(20) NOT NULL,
+    product_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (source_website_id, scrape_log_id, approval_status)
+);
+
+-- Apply the net change of one statement: +1 for each new row, -1 for each old row.
+-- Transition tables let a batched insert or bulk status update touch each counter once.
+CREATE OR REPLACE FUNCTION staging_product_counts_apply() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO staging_product_counts AS c (source_website_id, scrape_log_id, approval_status, product_count)
+        SELECT COALESCE(source_website_id, ''), COALESCE(scrape_log_id, 0), approval_status, COUNT(*)
+        FROM new_rows
+        GROUP BY 1, 2, 3
+        ON CONFLICT (source_website_id, scrape_log_id, approval_status)
+            DO UPDATE SET product_count = c.product_count + EXCLUDED.product_count;
+    ELSIF TG_OP = 'DELETE' THEN
+        UPDATE staging_product_counts c
+        SET product_count = c.product_count - d.cnt
+        FROM (
+            SELECT COALESCE(source_website_id, '') AS website_id, COALESCE(scrape_log_id, 0) AS log_id,
+                   approval_status, COUNT(*) AS cnt
+            FROM old_rows
+            GROUP BY 1, 2, 3
+        ) d
+        WHERE c.source_website_id = d.website_id
+          AND c.scrape_log_id = d.log_id
+          AND c.approval_status = d.approval_status;
+    ELSE
+        INSERT INTO staging_product_counts AS c (source_website_id, scrape_log_id, approval_status, product_count)
+        SELECT website_id, log_id, approval_status, SUM(delta)
+        FROM (
+            SELECT COALESCE(source_website_id, '') AS website_id, COALESCE(scrape_log_id, 0) AS log_id,
+                   approval_status, 1 AS delta
+            FROM new_rows
+            UNION ALL
+            SELECT COALESCE(source_website_id, ''), COALESCE(scrape_log_id, 0), approval_status, -1
+            FROM old_rows
+        ) changes
+        GROUP BY 1, 2, 3
+        HAVING SUM(delta) <> 0
+        ON CONFLICT (source_website_id, scrape_log_id, approval_status)
+            DO UPDATE SET product_count = c.product_count + EXCLUDED.product_count;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_staging_product_counts_insert ON staging_products;
+CREATE TRIGGER trg_staging_product_counts_insert
+    AFTER INSERT ON staging_products
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION staging_product_counts_apply();
+
+DROP TRIGGER IF EXISTS trg_staging_product_counts_update ON staging_products;
+CREATE TRIGGER trg_staging_product_counts_update
+    AFTER UPDATE ON staging_products
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION staging_product_counts_apply();
+
+DROP TRIGGER IF EXISTS trg_staging_product_counts_delete ON staging_products;
+CREATE TRIGGER trg_staging_product_counts_delete
+    AFTER DELETE ON staging_products
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION staging_product_counts_apply();
+
+-- Backfill from existing rows
+INSERT INTO staging_product_counts (source_website_id, scrape_log_id, approval_status, product_count)
+SELECT COALESCE(source_website_id, ''), COALESCE(scrape_log_id, 0), approval_status, COUNT(*)
+FROM staging_products
+GROUP BY 1, 2, 3
+ON CONFLICT (source_website_id, scrape_log_id, approval_status)
+    DO UPDATE SET product_count = EXCLUDED.product_count;
+
+COMMENT ON TABLE staging_product_counts IS 'Trigger-maintained staging product counts by website, scrape job and approval status';
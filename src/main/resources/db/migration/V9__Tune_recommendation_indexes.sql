@@ -0,0 +1,24 @@
+-- Index tuning for the recommendation query, which filters on
+-- category IN (...) AND active AND sharia_certified AND min_income / min_credit_score.
+
+-- Partial composite index covering only rows the recommender can ever return.
+-- The query must compare active / sharia_certified with literal TRUE (not a bind
+-- parameter) for the planner to prove the index predicate.
+CREATE INDEX IF NOT EXISTS idx_products_recommendable
+    ON products(category, min_income, min_credit_score)
+    WHERE active AND sharia_certified;
+
+-- key_benefits holds a string array: default jsonb_ops supports element existence (?, ?|)
+CREATE INDEX IF NOT EXISTS idx_products_key_benefits
+    ON products USING GIN (key_benefits);
+
+-- eligibility_criteria is queried by containment (@>), which jsonb_path_ops serves with a smaller index
+CREATE INDEX IF NOT EXISTS idx_products_eligibility_criteria
+    ON products USING GIN (eligibility_criteria jsonb_path_ops);
+
+-- Boolean columns with two values are too unselective to be useful on their own,
+-- and the category index is a prefix of the partial index for the common case
+DROP INDEX IF EXISTS idx_products_active;
+DROP INDEX IF EXISTS idx_products_sharia;
+
+ANALYZE products;
@@ -0,0 +1,196 @@
+package com.smartguide.poc.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartguide.poc.service.search.Bm25Index;
+import com.smartguide.poc.service.search.LexicalSearch;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Guards the recommend query against losing the partial index idx_products_recommendable
+ * (V9). The query is built by ProductService's criteria path against a million products,
+ * and its generic plan, as a reused prepared statement would get, must use the index,
+ * with and without text matches widening the category filter. Needs Docker; skipped
+ * without it.
+ */
+@SpringBootTest(properties = {
+        "app.search.enabled=false",
+        "app.embedding.enabled=false",
+        "app.catalog-sync.enabled=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class RecommendQueryPlanTest {
+
+    // EXPLAIN (GENERIC_PLAN) needs PostgreSQL 16
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    private static boolean seeded;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private LexicalSearch lexicalSearch;
+
+    @Test
+    void recommendQueryUsesPartialIndex() throws Exception {
+        seedProducts(1_000_000);
+
+        STATEMENTS.clear();
+        List<Map<String, Object>> recommendations = productService.getRecommendations(
+                recommendFilters(), Map.of("intent", "PAYMENT"), Map.of("primary", "cat_7"));
+        assertThat(recommendations).isNotEmpty();
+
+        assertRecommendQueryUsesPartialIndex();
+    }
+
+    @Test
+    void recommendQueryWithTextMatchesUsesPartialIndex() throws Exception {
+        seedProducts(1_000_000);
+
+        // Lexical matches outside the mapped category turn the category filter into
+        // category IN (...) OR id IN (...)
+        List<Long> matchIds = jdbcTemplate.queryForList("""
+                SELECT id FROM products
+                WHERE category = 'cat_3' AND active AND sharia_certified
+                ORDER BY id LIMIT 5
+                """, Long.class);
+        List<Bm25Index.Document> documents = matchIds.stream()
+                .map(id -> new Bm25Index.Document(id, "Travel card " + id, "Airport lounge access", List.of("lounge")))
+                .toList();
+        Bm25Index.Scores scores = Bm25Index.build(1, documents, 1.2, 0.75, 2).search("travel lounge");
+        when(lexicalSearch.search(anyString())).thenReturn(scores);
+
+        STATEMENTS.clear();
+        List<Map<String, Object>> recommendations = productService.getRecommendations(
+                recommendFilters(), Map.of("intent", "TRAVEL"), Map.of("primary", "cat_7"), "travel lounge");
+        assertThat(recommendations).isNotEmpty();
+
+        String sql = assertRecommendQueryUsesPartialIndex();
+        assertThat(sql.toLowerCase()).contains(" or ");
+    }
+
+    private static Map<String, Object> recommendFilters() {
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("categories", List.of("cat_7"));
+        filters.put("active", true);
+        filters.put("sharia_certified", true);
+        filters.put("user_income", new BigDecimal("2000"));
+        filters.put("user_credit_score", 650);
+        return filters;
+    }
+
+    /**
+     * Explain the recorded recommend query and assert its plan uses the partial index
+     *
+     * @return the recorded query
+     */
+    private String assertRecommendQueryUsesPartialIndex() throws Exception {
+        String sql = STATEMENTS.stream()
+                .filter(statement -> statement.toLowerCase().contains("from products")
+                        && statement.toLowerCase().contains("sharia_certified"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Recommend query was not executed"));
+
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + numberParameters(sql), String.class);
+        List<String> indexes = new ArrayList<>();
+        collectIndexNames(new ObjectMapper().readTree(plan), indexes);
+
+        assertThat(indexes).as("indexes in plan %s", plan).contains("idx_products_recommendable");
+        return sql;
+    }
+
+    /**
+     * Products over 200 categories, of which three in eight are active and Sharia certified;
+     * seeded once for all tests, which share the container
+     */
+    private void seedProducts(int count) {
+        if (seeded) {
+            return;
+        }
+        seeded = true;
+        jdbcTemplate.update("""
+                INSERT INTO products (product_code, product_name, category, description, min_income,
+                                      min_credit_score, key_benefits, eligibility_criteria, active, sharia_certified)
+                SELECT 'PLAN-' || i, 'Product ' || i, 'cat_' || (i % 200), 'Generated product ' || i,
+                       (i % 50) * 1000, 500 + (i % 300), '["cashback"]'::jsonb, '{}'::jsonb,
+                       i % 4 <> 0, i % 2 = 0
+                FROM generate_series(1, ?) AS i
+                """, count);
+        jdbcTemplate.execute("ANALYZE products");
+    }
+
+    /**
+     * JDBC placeholders to the $n parameters EXPLAIN (GENERIC_PLAN) accepts
+     */
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    private static void collectIndexNames(JsonNode node, List<String> indexes) {
+        if (node.isObject()) {
+            JsonNode name = node.get("Index Name");
+            if (name != null) {
+                indexes.add(name.asText());
+            }
+        }
+        for (JsonNode child : node) {
+            collectIndexNames(child, indexes);
+        }
+    }
+
+    @TestConfiguration
+    static class StatementRecorder {
+
+        @Bean
+        HibernatePropertiesCustomizer recordStatements() {
+            StatementInspector inspector = sql -> {
+                STATEMENTS.add(sql);
+                return sql;
+            };
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.smartguide.poc.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Bm25IndexTest {
+
+    private static final List<Bm25Index.Document> DOCUMENTS = List.of(
+            new Bm25Index.Document(1, "Travel Card", "Earn miles on every trip", List.of("Airport lounge access")),
+            new Bm25Index.Document(2, "Cashback Card", "Cashback on groceries and fuel", List.of("5% cashback")),
+            new Bm25Index.Document(3, "Home Finance", "Ijara home finance for residents", List.of("Flexible tenure")),
+            new Bm25Index.Document(4, "Savings Account", "Profit paid monthly", null)
+    );
+
+    private final Bm25Index index = Bm25Index.build(7, DOCUMENTS, 1.2, 0.75, 2);
+
+    @Test
+    void indexesEveryDocument() {
+        assertThat(index.getCatalogVersion()).isEqualTo(7);
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.termCount()).isPositive();
+    }
+
+    @Test
+    void ranksMatchingDocumentsFirst() {
+        Bm25Index.Scores scores = index.search("airport lounges for travel");
+
+        assertThat(scores.isEmpty()).isFalse();
+        assertThat(scores.top(3, 0.0)).containsExactly(1L);
+        assertThat(scores.normalized(1L)).isEqualTo(1.0);
+        assertThat(scores.normalized(2L)).isZero();
+    }
+
+    @Test
+    void sharedTermsRankByWeight() {
+        // "card" is in two names; "cashback" also appears in the description and benefits
+        Bm25Index.Scores scores = index.search("cashback card");
+
+        assertThat(scores.top(5, 0.0)).containsExactly(2L, 1L);
+        assertThat(scores.normalized(1L)).isBetween(0.0, 1.0);
+    }
+
+    @Test
+    void nameTermsAreBoosted() {
+        Bm25Index boosted = Bm25Index.build(1, List.of(
+                new Bm25Index.Document(10, "Finance", "General product", null),
+                new Bm25Index.Document(11, "General product", "Finance", null)
+        ), 1.2, 0.75, 3);
+
+        assertThat(boosted.search("finance").top(2, 0.0)).containsExactly(10L, 11L);
+    }
+
+    @Test
+    void topHonoursLimitAndMinimumScore() {
+        Bm25Index.Scores scores = index.search("card home");
+
+        assertThat(scores.top(1, 0.0)).hasSize(1);
+        assertThat(scores.top(5, 1.0)).hasSizeLessThanOrEqualTo(1);
+        assertThat(scores.top(0, 0.0)).isEmpty();
+    }
+
+    @Test
+    void unknownTermsMatchNothing() {
+        Bm25Index.Scores scores = index.search("mortgage insurance");
+
+        assertThat(scores.isEmpty()).isTrue();
+        assertThat(scores.top(5, 0.0)).isEmpty();
+        assertThat(scores.normalized(1L)).isZero();
+        assertThat(scores.normalized(null)).isZero();
+    }
+}
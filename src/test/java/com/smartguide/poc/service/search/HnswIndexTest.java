@@ -0,0 +1,145 @@
+package com.smartguide.poc.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+class HnswIndexTest {
+
+    private static final int DIMENSIONS = 32;
+
+    @Test
+    void searchRecallsMostExactNeighbours() {
+        Random random = new Random(7);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 16, 100);
+        for (long id = 0; id < 2_000; id++) {
+            index.put(id, randomUnitVector(random));
+        }
+
+        int k = 10;
+        int found = 0;
+        int queries = 100;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomUnitVector(random);
+            Set<Long> exact = ids(index.bruteForce(query, k));
+            for (HnswIndex.Neighbor neighbor : index.search(query, k, 100)) {
+                if (exact.contains(neighbor.id())) {
+                    found++;
+                }
+            }
+        }
+
+        double recall = (double) found / (queries * k);
+        assertThat(recall).isGreaterThanOrEqualTo(0.9);
+    }
+
+    @Test
+    void searchResultsAreOrderedBySimilarity() {
+        Random random = new Random(11);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50);
+        for (long id = 0; id < 300; id++) {
+            index.put(id, randomUnitVector(random));
+        }
+
+        List<HnswIndex.Neighbor> neighbors = index.search(randomUnitVector(random), 10, 50);
+        assertThat(neighbors).hasSize(10);
+        for (int i = 1; i < neighbors.size(); i++) {
+            assertThat(neighbors.get(i).similarity()).isLessThanOrEqualTo(neighbors.get(i - 1).similarity());
+        }
+    }
+
+    @Test
+    void putReplacesAndRemoveHidesVector() {
+        Random random = new Random(13);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50);
+        for (long id = 0; id < 200; id++) {
+            index.put(id, randomUnitVector(random));
+        }
+
+        float[] replacement = randomUnitVector(random);
+        index.put(5, replacement);
+        assertThat(index.size()).isEqualTo(200);
+        assertThat(index.vector(5)).containsExactly(replacement);
+        List<HnswIndex.Neighbor> nearest = index.search(replacement, 1, 50);
+        assertThat(nearest).extracting(HnswIndex.Neighbor::id).containsExactly(5L);
+        assertThat(nearest.get(0).similarity()).isCloseTo(1f, offset(1e-4f));
+
+        index.remove(5);
+        assertThat(index.size()).isEqualTo(199);
+        assertThat(index.contains(5)).isFalse();
+        assertThat(index.vector(5)).isNull();
+        assertThat(ids(index.search(replacement, 20, 50))).doesNotContain(5L);
+        assertThat(ids(index.bruteForce(replacement, 20))).doesNotContain(5L);
+    }
+
+    @Test
+    void snapshotRoundTripKeepsLiveVectorsAndResults() throws IOException {
+        Random random = new Random(17);
+        HnswIndex index = new HnswIndex(DIMENSIONS, 8, 50);
+        for (long id = 0; id < 500; id++) {
+            index.put(id, randomUnitVector(random));
+        }
+        index.remove(0);
+        index.put(1, randomUnitVector(random));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.write(new DataOutputStream(bytes));
+        HnswIndex restored = HnswIndex.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(restored.dimensions()).isEqualTo(DIMENSIONS);
+        assertThat(restored.size()).isEqualTo(499);
+        assertThat(restored.contains(0)).isFalse();
+        assertThat(restored.ids()).containsExactlyInAnyOrder(index.ids());
+        assertThat(restored.vector(1)).containsExactly(index.vector(1));
+
+        for (int q = 0; q < 20; q++) {
+            float[] query = randomUnitVector(random);
+            assertThat(restored.bruteForce(query, 5)).isEqualTo(index.bruteForce(query, 5));
+        }
+        // The reloaded graph is still navigable: every stored vector finds itself
+        for (long id = 1; id < 500; id += 25) {
+            assertThat(restored.search(restored.vector(id), 1, 50))
+                    .extracting(HnswIndex.Neighbor::id).containsExactly(id);
+        }
+    }
+
+    @Test
+    void readRejectsOtherData() {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+        assertThatThrownBy(() -> HnswIndex.read(in)).isInstanceOf(IOException.class);
+    }
+
+    private static float[] randomUnitVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        double norm = 0;
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+            norm += vector[i] * vector[i];
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+
+    private static Set<Long> ids(List<HnswIndex.Neighbor> neighbors) {
+        Set<Long> ids = new HashSet<>();
+        for (HnswIndex.Neighbor neighbor : neighbors) {
+            ids.add(neighbor.id());
+        }
+        return ids;
+    }
+}
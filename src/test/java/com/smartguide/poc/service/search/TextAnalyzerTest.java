@@ -0,0 +1,46 @@
+package com.smartguide.poc.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextAnalyzerTest {
+
+    @Test
+    void lowerCasesSplitsAndDropsStopWords() {
+        assertThat(TextAnalyzer.analyze("I want a Travel-Card for the AIRPORT lounge!"))
+                .containsExactly("travel", "card", "airport", "lounge");
+    }
+
+    @Test
+    void stemsEnglishPlurals() {
+        assertThat(TextAnalyzer.analyze("companies branches boxes classes cards business bonus"))
+                .containsExactly("company", "branch", "box", "class", "card", "business", "bonus");
+    }
+
+    @Test
+    void dropsSingleCharactersAndKeepsDigits() {
+        assertThat(TextAnalyzer.analyze("x 5 0% APR 24 months")).containsExactly("apr", "24", "month");
+    }
+
+    @Test
+    void foldsArabicVariantsAndDiacritics() {
+        // Alef with hamza, ta marbuta and harakat fold to the same token as the bare form
+        assertThat(TextAnalyzer.analyze("أَمانة")).isEqualTo(TextAnalyzer.analyze("امانه"));
+        assertThat(TextAnalyzer.analyze("بطاقـــة")).isEqualTo(TextAnalyzer.analyze("بطاقه"));
+    }
+
+    @Test
+    void stripsArabicPrefixesAndSuffixes() {
+        assertThat(TextAnalyzer.analyze("البطاقات")).containsExactly("بطاق");
+        assertThat(TextAnalyzer.analyze("بطاقات")).containsExactly("بطاق");
+        assertThat(TextAnalyzer.analyze("في السفر")).containsExactly("سفر");
+    }
+
+    @Test
+    void blankInputHasNoTokens() {
+        assertThat(TextAnalyzer.analyze(null)).isEmpty();
+        assertThat(TextAnalyzer.analyze("   ")).isEmpty();
+        assertThat(TextAnalyzer.analyze("the and of")).isEmpty();
+    }
+}